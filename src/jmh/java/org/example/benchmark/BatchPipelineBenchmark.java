@@ -0,0 +1,123 @@
+package org.example.benchmark;
+
+import org.example.service.BatchOperation;
+import org.example.service.DynamicCrudService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一组跨两张表的相关操作（每组为 insert、按主键 select、另一张表上按主键 update）：
+ * 对比逐个调用单表方法（每个操作各自的事务和连接）与经 executeBatch 在一个事务中执行。
+ * 不经过 HTTP，只体现事务边界和连接获取的开销。查询结果缓存关闭，数据库为 MySQL 模式的内存 H2。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchPipelineBenchmark {
+
+    private static final int COLUMN_COUNT = 6;
+
+    private static final int ROW_COUNT = 10000;
+
+    private static final String OTHER_TABLE = Fixtures.TABLE + "_other";
+
+    /**
+     * 每次调用包含的操作组数
+     */
+    @Param({"1", "10"})
+    private int groups;
+
+    private ConfigurableApplicationContext context;
+    private DynamicCrudService crudService;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("dynamic.result-cache.enabled", false);
+        context = BenchmarkApplication.start("pipeline_" + groups, properties);
+        crudService = context.getBean(DynamicCrudService.class);
+
+        for (String table : List.of(Fixtures.TABLE, OTHER_TABLE)) {
+            crudService.executeDdlSql(Fixtures.createTableSql(table, COLUMN_COUNT));
+            List<Map<String, Object>> rows = new ArrayList<>(ROW_COUNT);
+            for (int i = 0; i < ROW_COUNT; i++) {
+                rows.add(row(i));
+            }
+            crudService.batchInsert(table, rows);
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        crudService.dropTable(Fixtures.TABLE);
+        crudService.dropTable(OTHER_TABLE);
+        context.close();
+    }
+
+    @Benchmark
+    public int separateCalls() {
+        int affected = 0;
+        for (int i = 0; i < groups; i++) {
+            affected += crudService.insert(Fixtures.TABLE, row(ThreadLocalRandom.current().nextInt()));
+            affected += crudService.select(Fixtures.TABLE, key()).size();
+            affected += crudService.update(OTHER_TABLE, row(ThreadLocalRandom.current().nextInt()), key());
+        }
+        return affected;
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> singleTransaction() {
+        List<BatchOperation> operations = new ArrayList<>(groups * 3);
+        for (int i = 0; i < groups; i++) {
+            operations.add(operation("insert", Fixtures.TABLE, row(ThreadLocalRandom.current().nextInt()), null));
+            operations.add(operation("select", Fixtures.TABLE, null, key()));
+            operations.add(operation("update", OTHER_TABLE, row(ThreadLocalRandom.current().nextInt()), key()));
+        }
+        return crudService.executeBatch(operations, true);
+    }
+
+    private static BatchOperation operation(String op, String table, Map<String, Object> data,
+                                            Map<String, Object> conditions) {
+        BatchOperation operation = new BatchOperation();
+        operation.setOp(op);
+        operation.setTable(table);
+        operation.setData(data);
+        operation.setConditions(conditions);
+        return operation;
+    }
+
+    private static Map<String, Object> key() {
+        Map<String, Object> key = new HashMap<>();
+        key.put("id", ThreadLocalRandom.current().nextLong(1, ROW_COUNT + 1));
+        return key;
+    }
+
+    private static Map<String, Object> row(long seed) {
+        Map<String, Object> row = new HashMap<>();
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            row.put("c" + i, Fixtures.value(i, seed));
+        }
+        return row;
+    }
+}
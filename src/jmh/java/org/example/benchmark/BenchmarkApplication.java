@@ -0,0 +1,37 @@
+package org.example.benchmark;
+
+import org.example.Main;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 基准测试用的应用上下文：使用 benchmark.properties，数据源为 MySQL 模式的内存 H2
+ */
+final class BenchmarkApplication {
+
+    private BenchmarkApplication() {
+    }
+
+    /**
+     * 启动应用上下文
+     *
+     * @param databaseName H2 内存库名称，不同的基准测试使用不同的库
+     * @param properties 额外的配置项，覆盖 benchmark.properties
+     */
+    static ConfigurableApplicationContext start(String databaseName, Map<String, Object> properties) {
+        Map<String, Object> defaults = new HashMap<>();
+        defaults.put("spring.config.name", "benchmark");
+        defaults.put("spring.datasource.url", h2Url(databaseName));
+        defaults.putAll(properties);
+        return new SpringApplicationBuilder(Main.class)
+                .properties(defaults)
+                .run();
+    }
+
+    static String h2Url(String databaseName) {
+        return "jdbc:h2:mem:" + databaseName + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.util.Arrays;
+
+/**
+ * 基准测试入口
+ * 对每个线程数（系统属性 bench.threads，默认 1,4,16）各运行一轮，
+ * 结果以 JSON 写入 &lt;输出目录&gt;/result-t&lt;线程数&gt;.json，便于在版本之间比较。
+ * 第一个参数为输出目录，其余参数按 JMH 命令行解析（如基准名称正则、-f、-wi、-i、-p）。
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        File outputDir = new File(args.length > 0 ? args[0] : "target/jmh");
+        outputDir.mkdirs();
+        CommandLineOptions commandLine = new CommandLineOptions(
+                args.length > 1 ? Arrays.copyOfRange(args, 1, args.length) : new String[0]);
+
+        for (String threads : System.getProperty("bench.threads", "1,4,16").split(",")) {
+            int threadCount = Integer.parseInt(threads.trim());
+            Options options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .threads(threadCount)
+                    .resultFormat(ResultFormatType.JSON)
+                    .result(new File(outputDir, "result-t" + threadCount + ".json").getPath())
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package org.example.benchmark;
+
+import org.example.service.DynamicCrudService;
+import org.example.service.SelectOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 经 DynamicCrudService 的完整 insert/select/update 往返耗时，数据库为 MySQL 模式的内存 H2
+ * 表中预先写入 rowCount 行，分别在启用和禁用查询结果缓存时测量。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CrudRoundTripBenchmark {
+
+    private static final int COLUMN_COUNT = 6;
+
+    @Param({"1000", "100000"})
+    private int rowCount;
+
+    @Param({"false", "true"})
+    private boolean resultCache;
+
+    private ConfigurableApplicationContext context;
+    private DynamicCrudService crudService;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("dynamic.result-cache.enabled", resultCache);
+        context = BenchmarkApplication.start("crud_" + rowCount + "_" + resultCache, properties);
+        crudService = context.getBean(DynamicCrudService.class);
+
+        crudService.executeDdlSql(Fixtures.createTableSql(Fixtures.TABLE, COLUMN_COUNT));
+        List<Map<String, Object>> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            rows.add(randomRow(i));
+        }
+        crudService.batchInsert(Fixtures.TABLE, rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        crudService.dropTable(Fixtures.TABLE);
+        context.close();
+    }
+
+    @Benchmark
+    public int insert() {
+        return crudService.insert(Fixtures.TABLE, randomRow(ThreadLocalRandom.current().nextInt()));
+    }
+
+    @Benchmark
+    public List<Object[]> selectById() {
+        Map<String, Object> conditions = new HashMap<>();
+        conditions.put("id", randomId());
+        return crudService.select(Fixtures.TABLE, conditions);
+    }
+
+    @Benchmark
+    public List<Object[]> selectPage() {
+        SelectOptions options = new SelectOptions();
+        options.setLimit(100);
+        options.setAfter(randomId());
+        return crudService.select(Fixtures.TABLE, new HashMap<>(), options).getRows();
+    }
+
+    @Benchmark
+    public int updateById() {
+        Map<String, Object> conditions = new HashMap<>();
+        conditions.put("id", randomId());
+        return crudService.update(Fixtures.TABLE, randomRow(ThreadLocalRandom.current().nextInt()), conditions);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, rowCount + 1);
+    }
+
+    private static Map<String, Object> randomRow(long seed) {
+        Map<String, Object> row = new HashMap<>();
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            row.put("c" + i, Fixtures.value(i, seed));
+        }
+        return row;
+    }
+}
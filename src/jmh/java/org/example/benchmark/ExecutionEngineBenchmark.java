@@ -0,0 +1,128 @@
+package org.example.benchmark;
+
+import org.example.service.BulkUpdate;
+import org.example.service.DynamicCrudService;
+import org.example.service.SelectOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 对比 JDBC 与 JPA 两种执行引擎（dynamic.engine）下经 DynamicCrudService 的 CRUD 吞吐量
+ * 查询结果缓存关闭，每次查询都到达数据库；数据库为 MySQL 模式的内存 H2。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ExecutionEngineBenchmark {
+
+    private static final int COLUMN_COUNT = 6;
+
+    private static final int ROW_COUNT = 10000;
+
+    private static final int BULK_SIZE = 100;
+
+    @Param({"jdbc", "jpa"})
+    private String engine;
+
+    private ConfigurableApplicationContext context;
+    private DynamicCrudService crudService;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("dynamic.engine", engine);
+        properties.put("dynamic.result-cache.enabled", false);
+        context = BenchmarkApplication.start("engine_" + engine, properties);
+        crudService = context.getBean(DynamicCrudService.class);
+
+        crudService.executeDdlSql(Fixtures.createTableSql(Fixtures.TABLE, COLUMN_COUNT));
+        List<Map<String, Object>> rows = new ArrayList<>(ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            rows.add(randomRow(i));
+        }
+        crudService.batchInsert(Fixtures.TABLE, rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        crudService.dropTable(Fixtures.TABLE);
+        context.close();
+    }
+
+    @Benchmark
+    public int insert() {
+        return crudService.insert(Fixtures.TABLE, randomRow(ThreadLocalRandom.current().nextInt()));
+    }
+
+    @Benchmark
+    public List<Object[]> selectById() {
+        Map<String, Object> conditions = new HashMap<>();
+        conditions.put("id", randomId());
+        return crudService.select(Fixtures.TABLE, conditions);
+    }
+
+    @Benchmark
+    public List<Object[]> selectPage() {
+        SelectOptions options = new SelectOptions();
+        options.setLimit(100);
+        options.setAfter(randomId());
+        return crudService.select(Fixtures.TABLE, new HashMap<>(), options).getRows();
+    }
+
+    @Benchmark
+    public int updateById() {
+        Map<String, Object> conditions = new HashMap<>();
+        conditions.put("id", randomId());
+        return crudService.update(Fixtures.TABLE, randomRow(ThreadLocalRandom.current().nextInt()), conditions);
+    }
+
+    /**
+     * 各项 SET 值不同的批量更新，走批处理路径
+     */
+    @Benchmark
+    public List<Map<String, Object>> bulkUpdate() {
+        List<BulkUpdate> updates = new ArrayList<>(BULK_SIZE);
+        for (int i = 0; i < BULK_SIZE; i++) {
+            BulkUpdate update = new BulkUpdate();
+            Map<String, Object> conditions = new HashMap<>();
+            conditions.put("id", randomId());
+            update.setConditions(conditions);
+            update.setData(randomRow(ThreadLocalRandom.current().nextInt()));
+            updates.add(update);
+        }
+        return crudService.bulkUpdate(Fixtures.TABLE, updates);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, ROW_COUNT + 1);
+    }
+
+    private static Map<String, Object> randomRow(long seed) {
+        Map<String, Object> row = new HashMap<>();
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            row.put("c" + i, Fixtures.value(i, seed));
+        }
+        return row;
+    }
+}
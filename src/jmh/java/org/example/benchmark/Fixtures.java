@@ -0,0 +1,75 @@
+package org.example.benchmark;
+
+import org.example.service.DynamicSqlGenerator;
+import org.example.service.SqlTemplateCache;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 基准测试共用的数据构造
+ */
+final class Fixtures {
+
+    static final String TABLE = "bench_table";
+
+    private Fixtures() {
+    }
+
+    /**
+     * 构造不依赖 Spring 容器的 SQL 生成器
+     */
+    static DynamicSqlGenerator sqlGenerator(SqlTemplateCache cache) {
+        DynamicSqlGenerator generator = new DynamicSqlGenerator();
+        Field field = ReflectionUtils.findField(DynamicSqlGenerator.class, "templateCache");
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, generator, cache);
+        return generator;
+    }
+
+    /**
+     * 构造一行数据：列 c0..c(n-1)，字符串、整数、小数交替出现
+     */
+    static Map<String, Object> row(int columnCount) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        for (int i = 0; i < columnCount; i++) {
+            row.put("c" + i, value(i, i));
+        }
+        return row;
+    }
+
+    static Object value(int column, long seed) {
+        switch (column % 3) {
+            case 0:
+                return "v" + seed;
+            case 1:
+                return (int) seed;
+            default:
+                return seed / 7.0;
+        }
+    }
+
+    /**
+     * 与 {@link #row(int)} 对应的建表语句
+     */
+    static String createTableSql(String table, int columnCount) {
+        StringBuilder sql = new StringBuilder("CREATE TABLE IF NOT EXISTS ").append(table)
+                .append(" (id BIGINT AUTO_INCREMENT PRIMARY KEY");
+        for (int i = 0; i < columnCount; i++) {
+            sql.append(", c").append(i).append(' ');
+            switch (i % 3) {
+                case 0:
+                    sql.append("VARCHAR(255)");
+                    break;
+                case 1:
+                    sql.append("INT");
+                    break;
+                default:
+                    sql.append("DOUBLE");
+            }
+        }
+        return sql.append(")").toString();
+    }
+}
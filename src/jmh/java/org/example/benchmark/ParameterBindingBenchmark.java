@@ -0,0 +1,96 @@
+package org.example.benchmark;
+
+import org.example.service.DynamicSqlGenerator;
+import org.example.service.SqlTemplate;
+import org.example.service.SqlTemplateCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 参数绑定耗时：按模板顺序取值，以及将值绑定到 PreparedStatement（不执行）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterBindingBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class Template {
+
+        @Param({"5", "50", "500"})
+        private int columnCount;
+
+        private SqlTemplate template;
+        private Map<String, Object> data;
+
+        @Setup
+        public void setUp() {
+            DynamicSqlGenerator generator = Fixtures.sqlGenerator(new SqlTemplateCache(2000));
+            data = Fixtures.row(columnCount);
+            template = generator.insertTemplate(Fixtures.TABLE, data.keySet());
+        }
+    }
+
+    /**
+     * 每个线程独占一个连接和预编译语句
+     */
+    @State(Scope.Thread)
+    public static class BoundStatement {
+
+        private Connection connection;
+        private PreparedStatement statement;
+
+        @Setup(Level.Trial)
+        public void setUp(Template template) throws SQLException {
+            connection = DriverManager.getConnection(BenchmarkApplication.h2Url("binding_" + template.columnCount));
+            try (Statement ddl = connection.createStatement()) {
+                ddl.execute(Fixtures.createTableSql(Fixtures.TABLE, template.columnCount));
+            }
+            statement = connection.prepareStatement(template.template.getSql());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            statement.close();
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public List<Object> bindValues(Template template) {
+        return template.template.bindValues(template.data, List.of());
+    }
+
+    @Benchmark
+    public PreparedStatement bindPreparedStatement(Template template, BoundStatement statement) throws SQLException {
+        PreparedStatement ps = statement.statement;
+        List<Object> values = template.template.bindValues(template.data, List.of());
+        for (int i = 0; i < values.size(); i++) {
+            ps.setObject(i + 1, values.get(i));
+        }
+        ps.clearParameters();
+        return ps;
+    }
+}
@@ -0,0 +1,178 @@
+package org.example.benchmark;
+
+import org.example.service.DynamicCrudService;
+import org.example.service.TableSchema;
+import org.example.service.TableSchemaRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按列类型绑定参数对索引使用的影响：在有索引的整数列和字符列上做等值查询，
+ * 分别按请求中的原始类型绑定（整数列绑定字符串、字符列绑定数字），以及经 {@link TableSchema.Column#convert} 转换后绑定。
+ * 启动时输出四种查询的执行计划。默认数据库为 MySQL 模式的内存 H2，
+ * 可通过 -jvmArgsAppend "-Dspring.datasource.url=..." 指向真实的 MySQL 对比。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterCoercionBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ParameterCoercionBenchmark.class);
+
+    private static final String TABLE = "coercion_bench";
+
+    private static final String BY_QUANTITY = "SELECT id FROM " + TABLE + " WHERE quantity = ?";
+
+    private static final String BY_CODE = "SELECT id FROM " + TABLE + " WHERE code = ?";
+
+    @Param({"100000"})
+    private int rowCount;
+
+    private ConfigurableApplicationContext context;
+    private DynamicCrudService crudService;
+    private DataSource dataSource;
+    private TableSchema.Column quantityColumn;
+    private TableSchema.Column codeColumn;
+
+    @Setup
+    public void setUp() throws SQLException {
+        context = BenchmarkApplication.start("coercion_" + rowCount, new HashMap<>());
+        crudService = context.getBean(DynamicCrudService.class);
+        dataSource = context.getBean(DataSource.class);
+
+        crudService.executeDdlSql("CREATE TABLE IF NOT EXISTS " + TABLE
+                + " (id BIGINT AUTO_INCREMENT PRIMARY KEY, code VARCHAR(32), quantity INT)");
+        crudService.executeDdlSql("CREATE INDEX idx_" + TABLE + "_code ON " + TABLE + " (code)");
+        crudService.executeDdlSql("CREATE INDEX idx_" + TABLE + "_quantity ON " + TABLE + " (quantity)");
+        List<Map<String, Object>> rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            Map<String, Object> row = new HashMap<>();
+            // 数字形式的编码（如订单号、邮编）存放在字符列中
+            row.put("code", String.valueOf(i));
+            row.put("quantity", i);
+            rows.add(row);
+        }
+        crudService.batchInsert(TABLE, rows);
+
+        TableSchema schema = context.getBean(TableSchemaRegistry.class).getSchema(TABLE);
+        quantityColumn = schema.getColumn("quantity");
+        codeColumn = schema.getColumn("code");
+
+        logPlan("quantity = '42'（字符串）", "SELECT id FROM " + TABLE + " WHERE quantity = '42'");
+        logPlan("quantity = 42（转换后）", "SELECT id FROM " + TABLE + " WHERE quantity = 42");
+        logPlan("code = 42（数字）", "SELECT id FROM " + TABLE + " WHERE code = 42");
+        logPlan("code = '42'（转换后）", "SELECT id FROM " + TABLE + " WHERE code = '42'");
+    }
+
+    @TearDown
+    public void tearDown() {
+        crudService.dropTable(TABLE);
+        context.close();
+    }
+
+    /**
+     * 每个线程独占一个连接和两条预编译语句
+     */
+    @State(Scope.Thread)
+    public static class Statements {
+
+        private Connection connection;
+        private PreparedStatement byQuantity;
+        private PreparedStatement byCode;
+
+        @Setup(Level.Trial)
+        public void setUp(ParameterCoercionBenchmark benchmark) throws SQLException {
+            connection = benchmark.dataSource.getConnection();
+            byQuantity = connection.prepareStatement(BY_QUANTITY);
+            byCode = connection.prepareStatement(BY_CODE);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            byQuantity.close();
+            byCode.close();
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int integerColumnStringParameter(Statements statements) throws SQLException {
+        return count(statements.byQuantity, String.valueOf(randomValue()));
+    }
+
+    @Benchmark
+    public int integerColumnConvertedParameter(Statements statements) throws SQLException {
+        return count(statements.byQuantity, quantityColumn.convert(String.valueOf(randomValue())));
+    }
+
+    @Benchmark
+    public int textColumnNumberParameter(Statements statements) throws SQLException {
+        return count(statements.byCode, (long) randomValue());
+    }
+
+    @Benchmark
+    public int textColumnConvertedParameter(Statements statements) throws SQLException {
+        return count(statements.byCode, codeColumn.convert((long) randomValue()));
+    }
+
+    private int randomValue() {
+        return ThreadLocalRandom.current().nextInt(rowCount);
+    }
+
+    private static int count(PreparedStatement statement, Object value) throws SQLException {
+        statement.setObject(1, value);
+        int count = 0;
+        try (ResultSet rs = statement.executeQuery()) {
+            while (rs.next()) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private void logPlan(String label, String sql) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("EXPLAIN " + sql)) {
+            int columns = rs.getMetaData().getColumnCount();
+            while (rs.next()) {
+                for (int i = 1; i <= columns; i++) {
+                    plan.append(i == 1 ? "" : " | ").append(rs.getMetaData().getColumnLabel(i)).append('=').append(rs.getString(i));
+                }
+                plan.append('\n');
+            }
+        }
+        log.info("执行计划 {}:\n{}", label, plan.toString().replaceAll("\\s+\n", "\n"));
+    }
+}
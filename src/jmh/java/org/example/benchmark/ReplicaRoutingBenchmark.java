@@ -0,0 +1,171 @@
+package org.example.benchmark;
+
+import org.example.service.DynamicCrudService;
+import org.example.service.ReplicaRouting;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 读写分离：主库和两个副本均为 MySQL 模式的内存 H2，副本不做复制，启动时直接写入相同的初始数据
+ * 启动时写入一行只存在于主库的数据并输出其可见性，用于确认读己之写和副本路由；
+ * 随后测量按主键查询（路由到副本）与写后立即读（同一客户端，走主库）的吞吐量。
+ * routing=off 时不启用副本，作为对照。查询结果缓存关闭。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReplicaRoutingBenchmark {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingBenchmark.class);
+
+    private static final int COLUMN_COUNT = 6;
+
+    private static final int ROW_COUNT = 10000;
+
+    private static final int REPLICA_COUNT = 2;
+
+    @Param({"off", "round-robin", "least-loaded"})
+    private String routing;
+
+    private ConfigurableApplicationContext context;
+    private DynamicCrudService crudService;
+    private ReplicaRouting replicaRouting;
+
+    @Setup
+    public void setUp() throws SQLException {
+        String database = "replica_" + routing.replace('-', '_');
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("dynamic.result-cache.enabled", false);
+        if (!"off".equals(routing)) {
+            List<String> urls = new ArrayList<>();
+            for (int i = 0; i < REPLICA_COUNT; i++) {
+                String url = BenchmarkApplication.h2Url(database + "_r" + i);
+                seed(url);
+                urls.add(url);
+            }
+            properties.put("dynamic.replica.enabled", true);
+            properties.put("dynamic.replica.urls", String.join(",", urls));
+            properties.put("dynamic.replica.balance", routing);
+        }
+        context = BenchmarkApplication.start(database, properties);
+        crudService = context.getBean(DynamicCrudService.class);
+        replicaRouting = context.getBean(ReplicaRouting.class);
+
+        crudService.executeDdlSql(Fixtures.createTableSql(Fixtures.TABLE, COLUMN_COUNT));
+        List<Map<String, Object>> rows = new ArrayList<>(ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            rows.add(row(i));
+        }
+        crudService.batchInsert(Fixtures.TABLE, rows);
+
+        logVisibility();
+    }
+
+    @TearDown
+    public void tearDown() {
+        crudService.dropTable(Fixtures.TABLE);
+        context.close();
+    }
+
+    @Benchmark
+    public List<Object[]> selectById() {
+        Map<String, Object> conditions = new HashMap<>();
+        conditions.put("id", randomId());
+        return crudService.select(Fixtures.TABLE, conditions);
+    }
+
+    @Benchmark
+    public List<Object[]> writeThenRead() {
+        try (ReplicaRouting.Scope ignored = replicaRouting.open("bench-" + Thread.currentThread().getId())) {
+            Map<String, Object> conditions = new HashMap<>();
+            conditions.put("id", randomId());
+            crudService.update(Fixtures.TABLE, row(ThreadLocalRandom.current().nextInt()), conditions);
+            return crudService.select(Fixtures.TABLE, conditions);
+        }
+    }
+
+    /**
+     * 写入一行只存在于主库的数据，分别由写入方和另一个客户端读取
+     */
+    private void logVisibility() {
+        Map<String, Object> marker = new HashMap<>();
+        marker.put("c0", "marker");
+        boolean writerSees;
+        try (ReplicaRouting.Scope ignored = replicaRouting.open("writer")) {
+            crudService.insert(Fixtures.TABLE, marker);
+            writerSees = !crudService.select(Fixtures.TABLE, marker).isEmpty();
+        }
+        boolean otherSees;
+        try (ReplicaRouting.Scope ignored = replicaRouting.open("reader")) {
+            otherSees = !crudService.select(Fixtures.TABLE, marker).isEmpty();
+        }
+        log.info("routing={} 写入方可见={} 其他客户端可见={} {}", routing, writerSees, otherSees, replicaRouting.status());
+    }
+
+    /**
+     * 在副本库中建表并写入与主库相同的初始数据
+     */
+    private static void seed(String url) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP TABLE IF EXISTS " + Fixtures.TABLE);
+                statement.execute(Fixtures.createTableSql(Fixtures.TABLE, COLUMN_COUNT));
+            }
+            StringBuilder sql = new StringBuilder("INSERT INTO ").append(Fixtures.TABLE).append(" (");
+            for (int i = 0; i < COLUMN_COUNT; i++) {
+                sql.append(i == 0 ? "" : ", ").append("c").append(i);
+            }
+            sql.append(") VALUES (").append("?, ".repeat(COLUMN_COUNT - 1)).append("?)");
+            try (PreparedStatement insert = connection.prepareStatement(sql.toString())) {
+                for (int i = 0; i < ROW_COUNT; i++) {
+                    Map<String, Object> row = row(i);
+                    for (int c = 0; c < COLUMN_COUNT; c++) {
+                        insert.setObject(c + 1, row.get("c" + c));
+                    }
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+        }
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, ROW_COUNT + 1);
+    }
+
+    private static Map<String, Object> row(long seed) {
+        Map<String, Object> row = new HashMap<>();
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            row.put("c" + i, Fixtures.value(i, seed));
+        }
+        return row;
+    }
+}
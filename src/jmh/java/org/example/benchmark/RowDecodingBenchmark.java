@@ -0,0 +1,151 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.service.DynamicSqlGenerator;
+import org.example.service.JsonRowReader;
+import org.example.service.RowBatch;
+import org.example.service.RowBuffer;
+import org.example.service.SqlTemplate;
+import org.example.service.SqlTemplateCache;
+import org.example.service.TableSchema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 批量插入请求体从 JSON 到 PreparedStatement 参数的解码与绑定（不执行）
+ * 对比反序列化为 List&lt;Map&gt; 再按模板取值，与流式读入按列位置排列的复用缓冲区两种方式；
+ * 配合 -prof gc 比较每次操作的分配量。
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RowDecodingBenchmark {
+
+    private static final int ROWS = 100;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final TypeReference<List<Map<String, Object>>> ROWS_TYPE = new TypeReference<>() {
+    };
+
+    @State(Scope.Benchmark)
+    public static class Payload {
+
+        @Param({"5", "50"})
+        private int columnCount;
+
+        private byte[] json;
+        private TableSchema schema;
+        private SqlTemplate template;
+        private JsonRowReader reader;
+
+        @Setup
+        public void setUp() throws IOException {
+            List<Map<String, Object>> rows = new ArrayList<>();
+            for (int i = 0; i < ROWS; i++) {
+                Map<String, Object> row = Fixtures.row(columnCount);
+                rows.add(row);
+            }
+            json = MAPPER.writeValueAsBytes(rows);
+
+            List<TableSchema.Column> columns = new ArrayList<>();
+            columns.add(new TableSchema.Column("id", "bigint", "bigint", "NO", "PRI", null, "auto_increment"));
+            for (int i = 0; i < columnCount; i++) {
+                columns.add(new TableSchema.Column("c" + i, "varchar(255)", "varchar", "YES", "", null, ""));
+            }
+            schema = new TableSchema(Fixtures.TABLE, columns);
+
+            DynamicSqlGenerator generator = Fixtures.sqlGenerator(new SqlTemplateCache(2000));
+            template = generator.insertTemplate(Fixtures.TABLE, rows.get(0).keySet());
+            reader = new JsonRowReader(MAPPER);
+        }
+    }
+
+    /**
+     * 每个线程独占一个连接和单行 INSERT 预编译语句，每行绑定后清空参数
+     */
+    @State(Scope.Thread)
+    public static class BoundStatement {
+
+        private Connection connection;
+        private PreparedStatement statement;
+
+        @Setup(Level.Trial)
+        public void setUp(Payload payload) throws SQLException {
+            connection = DriverManager.getConnection(BenchmarkApplication.h2Url("decoding_" + payload.columnCount));
+            try (Statement ddl = connection.createStatement()) {
+                ddl.execute(Fixtures.createTableSql(Fixtures.TABLE, payload.columnCount));
+            }
+            statement = connection.prepareStatement(payload.template.getSql());
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            statement.close();
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public int mapRows(Payload payload, BoundStatement statement) throws IOException, SQLException {
+        PreparedStatement ps = statement.statement;
+        List<Map<String, Object>> rows = MAPPER.readValue(payload.json, ROWS_TYPE);
+        for (Map<String, Object> row : rows) {
+            List<Object> values = payload.template.bindValues(row, List.of());
+            for (int i = 0; i < values.size(); i++) {
+                ps.setObject(i + 1, values.get(i));
+            }
+            ps.clearParameters();
+        }
+        return rows.size();
+    }
+
+    @Benchmark
+    public int streamingRows(Payload payload, BoundStatement statement) throws IOException, SQLException {
+        PreparedStatement ps = statement.statement;
+        RowBuffer row = payload.reader.acquireRowBuffer();
+        RowBatch batch = payload.reader.acquireRowBatch();
+        batch.reset(payload.schema, 1, Integer.MAX_VALUE);
+        int count = 0;
+        try (JsonParser parser = payload.reader.open(payload.json)) {
+            payload.reader.startArray(parser);
+            while (payload.reader.readRow(parser, payload.schema, row)) {
+                batch.add(row);
+                batch.bind(ps);
+                ps.clearParameters();
+                batch.clear();
+                count++;
+            }
+        } finally {
+            payload.reader.release(row);
+            payload.reader.release(batch);
+        }
+        return count;
+    }
+}
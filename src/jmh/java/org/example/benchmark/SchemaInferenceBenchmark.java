@@ -0,0 +1,76 @@
+package org.example.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.service.SchemaInferencer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Field;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按多行示例推断列类型的耗时：示例为 CSV 读入的文本值（整数、小数、日期、日期时间、布尔值、字符串各一列），
+ * 对比单线程统计与并行统计。不依赖 Spring 容器。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SchemaInferenceBenchmark {
+
+    @Param({"1000", "100000"})
+    private int rowCount;
+
+    @Param({"false", "true"})
+    private boolean parallel;
+
+    private SchemaInferencer inferencer;
+    private List<Map<String, Object>> rows;
+
+    @Setup
+    public void setUp() {
+        inferencer = new SchemaInferencer();
+        setField(inferencer, "objectMapper", new ObjectMapper());
+        setField(inferencer, "parallelThreshold", parallel ? 1 : Integer.MAX_VALUE);
+        setField(inferencer, "maxSampleRows", rowCount);
+
+        rows = new ArrayList<>(rowCount);
+        for (int i = 0; i < rowCount; i++) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("quantity", Integer.toString(i % 30000));
+            row.put("price", (i % 10000) + "." + (i % 100));
+            row.put("day", String.format("2024-%02d-%02d", i % 12 + 1, i % 28 + 1));
+            row.put("created_at", String.format("2024-01-01 %02d:%02d:%02d", i % 24, i % 60, i % 60));
+            row.put("active", i % 2 == 0 ? "true" : "false");
+            row.put("name", "name-" + i);
+            rows.add(row);
+        }
+    }
+
+    @Benchmark
+    public SchemaInferencer.Result infer() {
+        return inferencer.infer(rows);
+    }
+
+    private static void setField(Object target, String name, Object value) {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
@@ -0,0 +1,78 @@
+package org.example.benchmark;
+
+import org.example.service.DynamicSqlGenerator;
+import org.example.service.SqlTemplateCache;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DynamicSqlGenerator 的SQL生成耗时，覆盖 5/50/500 列，分别在启用和禁用模板缓存时测量
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SqlGenerationBenchmark {
+
+    @Param({"5", "50", "500"})
+    private int columnCount;
+
+    @Param({"true", "false"})
+    private boolean templateCache;
+
+    private DynamicSqlGenerator generator;
+    private Map<String, Object> data;
+    private Map<String, Object> conditions;
+    private List<String> columns;
+
+    @Setup
+    public void setUp() {
+        generator = Fixtures.sqlGenerator(new SqlTemplateCache(templateCache ? 2000 : 0));
+        data = Fixtures.row(columnCount);
+        columns = new ArrayList<>(data.keySet());
+        conditions = new LinkedHashMap<>();
+        conditions.put("id", 1L);
+    }
+
+    @Benchmark
+    public String insertSql() {
+        return generator.generateInsertSql(data, Fixtures.TABLE);
+    }
+
+    @Benchmark
+    public String multiRowInsertSql() {
+        return generator.generateMultiRowInsertSql(Fixtures.TABLE, columns, 100);
+    }
+
+    @Benchmark
+    public String updateSql() {
+        return generator.generateUpdateSql(Fixtures.TABLE, data, conditions);
+    }
+
+    @Benchmark
+    public String selectSql() {
+        return generator.generateSelectSql(Fixtures.TABLE, data);
+    }
+
+    @Benchmark
+    public String deleteSql() {
+        return generator.generateDeleteSql(Fixtures.TABLE, data);
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.benchmark;
+
+import org.example.service.DynamicCrudService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按主键写入一行（存在则更新，否则插入）：对比先查询再 insert/update 与一条 INSERT ... ON DUPLICATE KEY UPDATE
+ * 主键在 1..2*ROW_COUNT 中随机选取，初始时约一半命中已有行。查询结果缓存关闭，数据库为 MySQL 模式的内存 H2。
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UpsertBenchmark {
+
+    private static final int COLUMN_COUNT = 6;
+
+    private static final int ROW_COUNT = 10000;
+
+    private static final int BATCH_SIZE = 100;
+
+    private ConfigurableApplicationContext context;
+    private DynamicCrudService crudService;
+
+    @Setup
+    public void setUp() {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("dynamic.result-cache.enabled", false);
+        context = BenchmarkApplication.start("upsert", properties);
+        crudService = context.getBean(DynamicCrudService.class);
+
+        crudService.executeDdlSql(Fixtures.createTableSql(Fixtures.TABLE, COLUMN_COUNT));
+        List<Map<String, Object>> rows = new ArrayList<>(ROW_COUNT);
+        for (int i = 0; i < ROW_COUNT; i++) {
+            rows.add(row(i));
+        }
+        crudService.batchInsert(Fixtures.TABLE, rows);
+    }
+
+    @TearDown
+    public void tearDown() {
+        crudService.dropTable(Fixtures.TABLE);
+        context.close();
+    }
+
+    /**
+     * 客户端原有的做法：按主键查询，存在则 update，否则 insert
+     */
+    @Benchmark
+    public int selectThenWrite() {
+        long id = randomId();
+        Map<String, Object> key = new HashMap<>();
+        key.put("id", id);
+        Map<String, Object> data = row(ThreadLocalRandom.current().nextInt());
+        if (crudService.select(Fixtures.TABLE, key).isEmpty()) {
+            data.put("id", id);
+            return crudService.insert(Fixtures.TABLE, data);
+        }
+        return crudService.update(Fixtures.TABLE, data, key);
+    }
+
+    @Benchmark
+    public int upsert() {
+        Map<String, Object> data = row(ThreadLocalRandom.current().nextInt());
+        data.put("id", randomId());
+        return crudService.upsert(Fixtures.TABLE, data);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> batchUpsert() {
+        List<Map<String, Object>> rows = new ArrayList<>(BATCH_SIZE);
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Map<String, Object> data = row(ThreadLocalRandom.current().nextInt());
+            data.put("id", randomId());
+            rows.add(data);
+        }
+        return crudService.batchUpsert(Fixtures.TABLE, rows);
+    }
+
+    private long randomId() {
+        return ThreadLocalRandom.current().nextLong(1, 2L * ROW_COUNT + 1);
+    }
+
+    private static Map<String, Object> row(long seed) {
+        Map<String, Object> row = new HashMap<>();
+        for (int i = 0; i < COLUMN_COUNT; i++) {
+            row.put("c" + i, Fixtures.value(i, seed));
+        }
+        return row;
+    }
+}
@@ -1,21 +1,190 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.example.service.AdmissionRejectedException;
+import org.example.service.AggregateOptions;
+import org.example.service.BatchOperation;
+import org.example.service.BulkUpdate;
+import org.example.service.ChangeEvent;
+import org.example.service.ChangeFeed;
 import org.example.service.DynamicCrudService;
+import org.example.service.DynamicSqlGenerator;
+import org.example.service.ExportService;
+import org.example.service.FeatureDisabledException;
+import org.example.service.ImportProgress;
+import org.example.service.ImportService;
+import org.example.service.IndexService;
+import org.example.service.QueryResult;
+import org.example.service.ReplicaRouting;
+import org.example.service.SchemaInferencer;
+import org.example.service.RowSink;
+import org.example.service.SelectOptions;
+import org.example.service.SelectResultCache;
+import org.example.service.SqlTemplateCache;
+import org.example.service.TableSchema;
+import org.example.service.WriteBehindQueue;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/fully-dynamic")
 public class FullyDynamicController {
 
+    /**
+     * 流式输出时每写出多少行刷新一次输出流
+     */
+    private static final int STREAM_FLUSH_ROWS = 500;
+
+    private static final TypeReference<LinkedHashMap<String, Object>> SAMPLE_ROW_TYPE = new TypeReference<>() {
+    };
+
     @Autowired
     private DynamicCrudService dynamicCrudService;
     
+    @Autowired
+    private DynamicSqlGenerator sqlGenerator;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private SqlTemplateCache sqlTemplateCache;
+    
+    @Autowired
+    private SelectResultCache selectResultCache;
+    
+    @Autowired
+    private IndexService indexService;
+    
+    @Autowired
+    private WriteBehindQueue writeBehindQueue;
+    
+    @Autowired
+    private ImportService importService;
+    
+    @Autowired
+    private ExportService exportService;
+    
+    @Autowired
+    private ReplicaRouting replicaRouting;
+    
+    @Autowired
+    private ChangeFeed changeFeed;
+    
+    @Autowired
+    private SchemaInferencer schemaInferencer;
+    
+    @Value("${dynamic.change-feed.max-poll-ms:30000}")
+    private long changeFeedMaxPollMs;
+    
+    @Value("${dynamic.change-feed.sse-timeout-ms:300000}")
+    private long changeFeedSseTimeoutMs;
+    
+    /**
+     * 获取SQL模板缓存的统计信息
+     *
+     * @return 命中/未命中等计数
+     */
+    @GetMapping("/_stats/sql-templates")
+    public ResponseEntity<Map<String, Object>> getSqlTemplateStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", sqlTemplateCache.stats());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * 获取查询结果缓存的统计信息
+     *
+     * @return 命中率、淘汰数、加载耗时等
+     */
+    @GetMapping("/_stats/result-cache")
+    public ResponseEntity<Map<String, Object>> getResultCacheStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", selectResultCache.stats());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * 获取异步写缓冲队列的状态
+     *
+     * @return 各表的排队、已刷写、失败、拒绝行数
+     */
+    @GetMapping("/_stats/write-behind")
+    public ResponseEntity<Map<String, Object>> getWriteBehindStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", writeBehindQueue.status());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * 导入进度
+     *
+     * @return 正在进行和最近完成的导入的行数、速率和错误
+     */
+    @GetMapping("/_stats/imports")
+    public ResponseEntity<Map<String, Object>> getImportStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", importService.status());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * 读写分离状态
+     *
+     * @return 主库和各副本连接池的占用、分配次数及读己之写的客户端数
+     */
+    @GetMapping("/_stats/replicas")
+    public ResponseEntity<Map<String, Object>> getReplicaStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", replicaRouting.status());
+        return ResponseEntity.ok(response);
+    }
+    
+    /**
+     * 变更流状态
+     *
+     * @return 各表的最新序号、缓冲事件数和订阅者数
+     */
+    @GetMapping("/_stats/changes")
+    public ResponseEntity<Map<String, Object>> getChangeFeedStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", changeFeed.status());
+        return ResponseEntity.ok(response);
+    }
+    
     /**
      * 获取表的列信息
      *
@@ -29,61 +198,150 @@ public class FullyDynamicController {
         try {
             List<Object[]> result = dynamicCrudService.getTableColumns(tableName);
             response.put("success", true);
+            response.put("columns", TableSchema.DESCRIBE_COLUMNS);
             response.put("data", result);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "获取表列信息失败: " + e.getMessage());
-            return ResponseEntity.status(500).body(response);
+            return ResponseEntity.status(errorStatus(e)).body(response);
         }
     }
 
     /**
      * 创建表（基于传入的数据字段）
+     * 请求体为单个对象时按其中的值推断列类型；为对象数组时由 {@link SchemaInferencer} 统计全部示例行，
+     * 选择能容纳所有值的最紧凑类型（TINYINT/SMALLINT、DECIMAL(p,s)、DATE/DATETIME、VARCHAR(n)、JSON 等），
+     * 并在响应中返回每列的统计信息。
+     * 数组按流读取，只解析前 dynamic.schema-inference.max-sample-rows 行，其余部分不解析。
      *
      * @param tableName 表名
-     * @param sampleData 示例数据，用于推断字段类型
+     * @param dryRun 为 true 时只返回建表语句和列统计，不执行
+     * @param request 请求，请求体为示例数据：对象或对象数组
      * @return 操作结果
      */
     @PostMapping("/{tableName}/create-table")
     public ResponseEntity<Map<String, Object>> createTable(
             @PathVariable String tableName,
-            @RequestBody Map<String, Object> sampleData) {
+            @RequestParam(defaultValue = "false") boolean dryRun,
+            HttpServletRequest request) {
         
         Map<String, Object> response = new HashMap<>();
         
-        try {
-            // 根据示例数据创建表
-            String sql = generateCreateTableSql(tableName, sampleData);
-            dynamicCrudService.executeDdlSql(sql);
-            
-            // 验证表是否创建成功
+        try (JsonParser parser = objectMapper.getFactory().createParser(request.getInputStream())) {
             try {
-                dynamicCrudService.select(tableName, new HashMap<>());
-                response.put("success", true);
-                response.put("message", "表创建成功");
-                response.put("sql", sql); // 返回执行的SQL语句，便于调试
-            } catch (Exception e) {
-                // 如果验证失败，尝试直接查询验证
-                try {
-                    dynamicCrudService.executeSelectSql("SELECT 1 FROM " + tableName + " LIMIT 1");
-                    response.put("success", true);
-                    response.put("message", "表创建成功");
-                    response.put("sql", sql);
-                } catch (Exception ex) {
-                    // 如果两种方式都失败了，说明表创建可能真的失败了
-                    response.put("success", false);
-                    response.put("message", "表创建失败或者无法验证表是否创建成功: " + ex.getMessage());
-                    return ResponseEntity.status(500).body(response);
+                JsonToken token = parser.nextToken();
+                if (token == JsonToken.START_ARRAY) {
+                    List<Map<String, Object>> rows = readSampleRows(parser, schemaInferencer.getMaxSampleRows());
+                    return createInferredTable(tableName, schemaInferencer.infer(rows), dryRun, response);
                 }
+                if (token != JsonToken.START_OBJECT) {
+                    throw new IllegalArgumentException("示例数据必须是对象或对象数组");
+                }
+                Map<String, Object> sample = objectMapper.readValue(parser, SAMPLE_ROW_TYPE);
+                // 根据示例数据创建表
+                String sql = sqlGenerator.generateCreateTableSql(tableName, sample);
+                return executeCreateTable(tableName, sql, dryRun, response);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("JSON 解析失败: " + e.getMessage());
             }
-            return ResponseEntity.ok(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "表创建失败: " + e.getMessage());
-            return ResponseEntity.status(500).body(response);
+            return ResponseEntity.status(errorStatus(e)).body(response);
         }
     }
+
+    /**
+     * 根据上传的 CSV 或 NDJSON 文件创建表
+     * 读取文件的前 dynamic.schema-inference.max-sample-rows 行推断列类型，规则与示例数组相同；CSV 第一行为表头。
+     *
+     * @param tableName 表名
+     * @param format csv 或 ndjson，未指定时按 Content-Type 判断
+     * @param dryRun 为 true 时只返回建表语句和列统计，不执行
+     * @param request 请求，请求体为文件内容
+     * @return 操作结果
+     */
+    @PostMapping(value = "/{tableName}/create-table", consumes = {"text/csv", "application/x-ndjson"})
+    public ResponseEntity<Map<String, Object>> createTableFromFile(
+            @PathVariable String tableName,
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "false") boolean dryRun,
+            HttpServletRequest request) {
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            if (format == null) {
+                String contentType = request.getContentType() == null ? "" : request.getContentType().toLowerCase();
+                format = contentType.contains("csv") ? "csv" : contentType.contains("ndjson") ? "ndjson" : null;
+            }
+            Charset charset = request.getCharacterEncoding() == null
+                    ? StandardCharsets.UTF_8 : Charset.forName(request.getCharacterEncoding());
+            List<Map<String, Object>> rows = importService.readSample(format, request.getInputStream(), charset,
+                    schemaInferencer.getMaxSampleRows());
+            return createInferredTable(tableName, schemaInferencer.infer(rows), dryRun, response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "表创建失败: " + e.getMessage());
+            return ResponseEntity.status(errorStatus(e)).body(response);
+        }
+    }
+
+    /**
+     * 从位于数组开始之后的解析器读取至多 maxRows 个对象
+     */
+    private List<Map<String, Object>> readSampleRows(JsonParser parser, int maxRows) throws IOException {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        JsonToken token;
+        while (rows.size() < maxRows && (token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token != JsonToken.START_OBJECT) {
+                throw new IllegalArgumentException("示例数据数组的每一项必须是对象");
+            }
+            rows.add(objectMapper.readValue(parser, SAMPLE_ROW_TYPE));
+        }
+        return rows;
+    }
+
+    private ResponseEntity<Map<String, Object>> createInferredTable(String tableName, SchemaInferencer.Result inference,
+                                                                    boolean dryRun, Map<String, Object> response) {
+        response.put("sampledRows", inference.sampledRows());
+        response.put("columns", inference.columnStatistics());
+        String sql = sqlGenerator.generateCreateTableSqlForTypes(tableName, inference.columnTypes());
+        return executeCreateTable(tableName, sql, dryRun, response);
+    }
+
+    private ResponseEntity<Map<String, Object>> executeCreateTable(String tableName, String sql, boolean dryRun,
+                                                                   Map<String, Object> response) {
+        if (dryRun) {
+            response.put("success", true);
+            response.put("message", "已生成建表语句，未执行");
+            response.put("sql", sql);
+            return ResponseEntity.ok(response);
+        }
+        dynamicCrudService.executeDdlSql(sql);
+        // 验证表是否创建成功
+        try {
+            dynamicCrudService.select(tableName, new HashMap<>());
+            response.put("success", true);
+            response.put("message", "表创建成功");
+            response.put("sql", sql); // 返回执行的SQL语句，便于调试
+        } catch (Exception e) {
+            // 如果验证失败，尝试直接查询验证
+            try {
+                dynamicCrudService.executeSelectSql("SELECT 1 FROM " + tableName + " LIMIT 1");
+                response.put("success", true);
+                response.put("message", "表创建成功");
+                response.put("sql", sql);
+            } catch (Exception ex) {
+                // 如果两种方式都失败了，说明表创建可能真的失败了
+                response.put("success", false);
+                response.put("message", "表创建失败或者无法验证表是否创建成功: " + ex.getMessage());
+                return ResponseEntity.status(500).body(response);
+            }
+        }
+        return ResponseEntity.ok(response);
+    }
     
     /**
      * 删除表
@@ -103,38 +361,237 @@ public class FullyDynamicController {
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "表删除失败: " + e.getMessage());
-            return ResponseEntity.status(500).body(response);
+            return ResponseEntity.status(errorStatus(e)).body(response);
+        }
+    }
+
+    /**
+     * 获取表上的索引
+     *
+     * @param tableName 表名
+     * @return 索引列表
+     */
+    @GetMapping("/{tableName}/indexes")
+    public ResponseEntity<Map<String, Object>> getIndexes(@PathVariable String tableName) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            response.put("success", true);
+            response.put("data", indexService.listIndexes(tableName));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "获取索引失败: " + e.getMessage());
+            return ResponseEntity.status(errorStatus(e)).body(response);
+        }
+    }
+
+    /**
+     * 创建二级索引或组合索引
+     *
+     * @param tableName 表名
+     * @param request 包含 columns（索引列数组）、可选的 name 和 unique
+     * @return 操作结果
+     */
+    @PostMapping("/{tableName}/indexes")
+    public ResponseEntity<Map<String, Object>> createIndex(
+            @PathVariable String tableName,
+            @RequestBody Map<String, Object> request) {
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            Object columns = request.get("columns");
+            List<String> indexColumns = columns instanceof List
+                    ? ((List<?>) columns).stream().map(String::valueOf).toList()
+                    : columns == null ? List.of() : Arrays.asList(columns.toString().split(","));
+            Object name = request.get("name");
+            String indexName = indexService.createIndex(tableName, indexColumns,
+                    name == null ? null : name.toString(), Boolean.TRUE.equals(request.get("unique")));
+            response.put("success", true);
+            response.put("message", "索引 " + indexName + " 创建成功");
+            response.put("name", indexName);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "创建索引失败: " + e.getMessage());
+            return ResponseEntity.status(errorStatus(e)).body(response);
+        }
+    }
+
+    /**
+     * 删除索引
+     *
+     * @param tableName 表名
+     * @param indexName 索引名
+     * @return 操作结果
+     */
+    @DeleteMapping("/{tableName}/indexes/{indexName}")
+    public ResponseEntity<Map<String, Object>> dropIndex(
+            @PathVariable String tableName,
+            @PathVariable String indexName) {
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            indexService.dropIndex(tableName, indexName);
+            response.put("success", true);
+            response.put("message", "索引 " + indexName + " 删除成功");
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "删除索引失败: " + e.getMessage());
+            return ResponseEntity.status(errorStatus(e)).body(response);
+        }
+    }
+
+    /**
+     * 获取查询模式统计和索引建议
+     *
+     * @param tableName 表名
+     * @return 条件列组合的执行次数/耗时，以及未被现有索引覆盖的建议索引
+     */
+    @GetMapping("/{tableName}/index-advice")
+    public ResponseEntity<Map<String, Object>> getIndexAdvice(@PathVariable String tableName) {
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            response.put("success", true);
+            response.put("data", indexService.adviceReport(tableName));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "获取索引建议失败: " + e.getMessage());
+            return ResponseEntity.status(errorStatus(e)).body(response);
         }
     }
 
     /**
      * 插入数据
+     * 请求体按流读取，字段直接写入按列位置排列的缓冲区并绑定，不反序列化为 Map。
      *
      * @param tableName 表名
-     * @param data 数据内容
+     * @param request 请求，请求体为 JSON 对象
      * @return 操作结果
      */
-    @PostMapping("/{tableName}")
+    @PostMapping(value = "/{tableName}", consumes = MediaType.APPLICATION_JSON_VALUE)
     public ResponseEntity<Map<String, Object>> insert(
             @PathVariable String tableName,
-            @RequestBody Map<String, Object> data) {
+            HttpServletRequest request) {
         
         Map<String, Object> response = new HashMap<>();
         
         try {
-            int result = dynamicCrudService.insert(tableName, data);
+            int result = dynamicCrudService.insertJson(tableName, request.getInputStream());
             response.put("success", true);
             response.put("affectedRows", result);
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "插入失败: " + e.getMessage());
-            return ResponseEntity.status(500).body(response);
+            return ResponseEntity.status(errorStatus(e)).body(response);
+        }
+    }
+
+    /**
+     * 异步插入数据
+     * 行进入写缓冲队列后立即返回202，由后台批量组提交；队列已满时返回503。
+     *
+     * @param tableName 表名
+     * @param data 数据对象
+     * @return 入队结果
+     */
+    @PostMapping(value = "/{tableName}", params = "async=true")
+    public ResponseEntity<Map<String, Object>> insertAsync(
+            @PathVariable String tableName,
+            @RequestBody Map<String, Object> data) {
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            writeBehindQueue.enqueue(tableName, data);
+            response.put("success", true);
+            response.put("queued", true);
+            response.put("message", "数据已加入写缓冲队列");
+            return ResponseEntity.accepted().body(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "插入失败: " + e.getMessage());
+            return ResponseEntity.status(errorStatus(e)).body(response);
+        }
+    }
+
+    /**
+     * 批量插入数据
+     * 请求体按流读取，边解析边按块写入，不在内存中保留整个数组。
+     *
+     * @param tableName 表名
+     * @param request 请求，请求体为 JSON 对象数组
+     * @return 每个块的执行结果
+     */
+    @PostMapping(value = "/{tableName}/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<Map<String, Object>> batchInsert(
+            @PathVariable String tableName,
+            HttpServletRequest request) {
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            return chunkResponse(response, dynamicCrudService.batchInsertJson(tableName, request.getInputStream()));
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "批量插入失败: " + e.getMessage());
+            return ResponseEntity.status(errorStatus(e)).body(response);
+        }
+    }
+
+    /**
+     * 导入 CSV 或 NDJSON 文件
+     * 请求体按流读取并分块写入，不在内存中保留整个文件；格式未指定时按 Content-Type 判断
+     * （text/csv 或 application/x-ndjson）。CSV 第一行为表头，列名须在表中存在。
+     *
+     * @param tableName 表名
+     * @param format csv 或 ndjson
+     * @param createTable 表不存在时是否按第一行数据推断列类型建表
+     * @param request 请求，请求体为文件内容
+     * @return 导入的行数、被拒绝的行及速率
+     */
+    @PostMapping("/{tableName}/import")
+    public ResponseEntity<Map<String, Object>> importRows(
+            @PathVariable String tableName,
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "false") boolean createTable,
+            HttpServletRequest request) {
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            if (format == null) {
+                String contentType = request.getContentType() == null ? "" : request.getContentType().toLowerCase();
+                format = contentType.contains("csv") ? "csv" : contentType.contains("ndjson") ? "ndjson" : null;
+            }
+            Charset charset = request.getCharacterEncoding() == null
+                    ? StandardCharsets.UTF_8 : Charset.forName(request.getCharacterEncoding());
+            ImportProgress progress = importService.importRows(tableName, format, request.getInputStream(),
+                    charset, createTable);
+            response.put("success", progress.getError() == null);
+            response.put("data", progress.toMap(true));
+            if (progress.getError() != null) {
+                response.put("message", "导入中断: " + progress.getError());
+                return ResponseEntity.status(500).body(response);
+            }
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "导入失败: " + e.getMessage());
+            return ResponseEntity.status(errorStatus(e)).body(response);
         }
     }
 
     /**
      * 查询数据
+     * 保留参数：columns 为逗号分隔的投影列，limit 限制返回行数，after 为键集分页游标（返回主键大于该值的行），
+     * 其余参数作为查询条件。响应中 columns 给出一次列名，data 中的每行是与之对齐的值数组。
      *
      * @param tableName 表名
      * @param conditions 查询条件
@@ -148,15 +605,393 @@ public class FullyDynamicController {
         Map<String, Object> response = new HashMap<>();
         
         try {
-            List<Object[]> result = dynamicCrudService.select(tableName, conditions);
+            Map<String, Object> queryConditions = new HashMap<>(conditions == null ? Map.of() : conditions);
+            SelectOptions options = extractSelectOptions(queryConditions);
+            QueryResult result = dynamicCrudService.select(tableName, queryConditions, options);
             response.put("success", true);
-            response.put("data", result);
+            response.put("columns", result.getColumns());
+            response.put("data", result.getRows());
+            // 自定义排序时结果不按主键有序，无法给出游标
+            if (options.getLimit() != null && !options.isOrdered() && result.getRows().size() >= options.getLimit()) {
+                response.put("nextAfter", dynamicCrudService.nextCursor(tableName, result));
+            } else if (options.getLimit() == null && result.getRows().size() >= dynamicCrudService.getMaxSelectLimit()) {
+                // 未指定 limit 时结果被截断为上限行数，完整结果需分页或流式查询
+                response.put("truncated", true);
+            }
             return ResponseEntity.ok(response);
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "查询失败: " + e.getMessage());
-            return ResponseEntity.status(500).body(response);
+            return ResponseEntity.status(errorStatus(e)).body(response);
+        }
+    }
+
+    /**
+     * 流式查询数据
+     * 使用只进JDBC结果集逐行写出，内存占用与结果大小无关。
+     * format=ndjson 时首行输出 {"columns":[...]}，之后每行输出一个值数组；
+     * 否则输出 {"success":true,"columns":[...],"data":[...]} 形式的分块JSON。
+     * 格式、表、列和条件在开始输出之前校验，出错时返回普通的错误响应。
+     *
+     * @param tableName 表名
+     * @param format 输出格式：ndjson 或 json
+     * @param conditions 查询条件（同样支持 columns/limit/after）
+     * @return 流式响应
+     */
+    @GetMapping(value = "/{tableName}", params = "stream=true")
+    public ResponseEntity<StreamingResponseBody> streamSelect(
+            @PathVariable String tableName,
+            @RequestParam(defaultValue = "json") String format,
+            @RequestParam Map<String, Object> conditions) {
+        
+        Map<String, Object> queryConditions = new HashMap<>(conditions);
+        boolean ndjson = "ndjson".equalsIgnoreCase(format);
+        SelectOptions options;
+        try {
+            if (!ndjson && !"json".equalsIgnoreCase(format)) {
+                throw new IllegalArgumentException("不支持的输出格式: " + format + "（可选 json、ndjson）");
+            }
+            options = extractSelectOptions(queryConditions);
+            dynamicCrudService.validateStreamSelect(tableName, queryConditions, options);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "查询失败: " + e.getMessage());
+            return ResponseEntity.status(errorStatus(e))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(outputStream -> objectMapper.writeValue(outputStream, response));
+        }
+        String client = replicaRouting.currentClient();
+        
+        StreamingResponseBody body = outputStream -> {
+            // 输出在异步线程上执行，重新登记客户端以保持读己之写
+            try (ReplicaRouting.Scope ignored = replicaRouting.open(client);
+                 JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                if (ndjson) {
+                    generator.setRootValueSeparator(new SerializedString("\n"));
+                }
+                
+                dynamicCrudService.streamSelect(tableName, queryConditions, options, new RowSink() {
+                    private int count;
+                    
+                    @Override
+                    public void columns(List<String> columns) {
+                        try {
+                            generator.writeStartObject();
+                            if (!ndjson) {
+                                generator.writeBooleanField("success", true);
+                            }
+                            generator.writeObjectField("columns", columns);
+                            if (ndjson) {
+                                generator.writeEndObject();
+                            } else {
+                                generator.writeArrayFieldStart("data");
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                    
+                    @Override
+                    public void row(Object[] row) {
+                        try {
+                            generator.writeObject(row);
+                            if (++count % STREAM_FLUSH_ROWS == 0) {
+                                generator.flush();
+                            }
+                        } catch (IOException e) {
+                            throw new UncheckedIOException(e);
+                        }
+                    }
+                });
+                
+                if (ndjson) {
+                    generator.writeRaw('\n');
+                } else {
+                    generator.writeEndArray();
+                    generator.writeEndObject();
+                }
+            }
+        };
+        
+        MediaType contentType = ndjson ? MediaType.parseMediaType("application/x-ndjson") : MediaType.APPLICATION_JSON;
+        return ResponseEntity.ok().contentType(contentType).body(body);
+    }
+
+    /**
+     * 导出表数据
+     * 经只进游标逐行读取并直接写到响应输出流，内存占用与表大小无关；可选 gzip 压缩。
+     * 同样支持 columns 投影、orderBy、limit 和查询条件。
+     *
+     * @param tableName 表名
+     * @param format 导出格式：ndjson（默认）或 csv
+     * @param gzip 是否以 gzip 压缩输出
+     * @param conditions 查询条件
+     * @return 流式响应，作为附件下载
+     */
+    @GetMapping("/{tableName}/export")
+    public ResponseEntity<StreamingResponseBody> export(
+            @PathVariable String tableName,
+            @RequestParam(required = false) String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam Map<String, Object> conditions) {
+        
+        Map<String, Object> queryConditions = new HashMap<>(conditions);
+        queryConditions.remove("gzip");
+        SelectOptions options = extractSelectOptions(queryConditions);
+        
+        String exportFormat;
+        try {
+            exportFormat = exportService.validate(tableName, format, queryConditions, options);
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "导出失败: " + e.getMessage());
+            return ResponseEntity.status(errorStatus(e))
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(outputStream -> objectMapper.writeValue(outputStream, response));
+        }
+        
+        String client = replicaRouting.currentClient();
+        StreamingResponseBody body = outputStream -> {
+            try (ReplicaRouting.Scope ignored = replicaRouting.open(client)) {
+                if (gzip) {
+                    GZIPOutputStream compressed = new GZIPOutputStream(outputStream, 65536);
+                    exportService.export(tableName, queryConditions, options, exportFormat, compressed);
+                    compressed.finish();
+                } else {
+                    exportService.export(tableName, queryConditions, options, exportFormat, outputStream);
+                }
+            }
+        };
+        
+        String fileName = tableName + "." + exportFormat + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : "csv".equals(exportFormat) ? MediaType.parseMediaType("text/csv;charset=UTF-8")
+                : MediaType.parseMediaType("application/x-ndjson");
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
+    }
+
+    /**
+     * 分组聚合
+     * 在数据库中执行 GROUP BY 与 COUNT/SUM/AVG/MIN/MAX，只返回聚合结果。
+     * 保留参数：groupBy 为逗号分隔的分组列；count/sum/avg/min/max 为逗号分隔的列（count 为空或 * 表示行数）；
+     * orderBy 可以是分组列或聚合结果列名（如 -sum_amount）；limit 限制返回的分组数。其余参数作为查询条件。
+     *
+     * @param tableName 表名
+     * @param conditions 查询条件和聚合参数
+     * @return 聚合结果，列为分组列加聚合结果列（如 count、sum_amount）
+     */
+    @GetMapping("/{tableName}/aggregate")
+    public ResponseEntity<Map<String, Object>> aggregate(
+            @PathVariable String tableName,
+            @RequestParam(required = false) Map<String, Object> conditions) {
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            Map<String, Object> queryConditions = new HashMap<>(conditions == null ? Map.of() : conditions);
+            AggregateOptions options = extractAggregateOptions(queryConditions);
+            QueryResult result = dynamicCrudService.aggregate(tableName, queryConditions, options);
+            response.put("success", true);
+            response.put("columns", result.getColumns());
+            response.put("data", result.getRows());
+            if (result.isTruncated()) {
+                // 分组数超过 dynamic.select.max-limit，超出的分组未返回
+                response.put("truncated", true);
+            }
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "聚合查询失败: " + e.getMessage());
+            return ResponseEntity.status(errorStatus(e)).body(response);
+        }
+    }
+
+    /**
+     * 长轮询读取表的变更事件
+     * 有序号大于 after 的事件时立即返回，否则最多等待 timeoutMs（不超过 dynamic.change-feed.max-poll-ms），
+     * 期间有新事件提交即返回，超时返回空列表。下次请求以响应中的 next 作为 after。
+     * gap 为 true 表示 after 之后有事件已被覆盖（或服务已重启），客户端应重新全量读取。
+     *
+     * @param tableName 表名
+     * @param after 上次读到的序号，0 表示从缓冲区中最早的事件开始
+     * @param max 最多返回的事件数
+     * @param timeoutMs 没有新事件时的最长等待时间，0 表示立即返回
+     * @return 事件列表及 next、gap
+     */
+    @GetMapping("/{tableName}/changes")
+    public DeferredResult<ResponseEntity<Map<String, Object>>> pollChanges(
+            @PathVariable String tableName,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "100") int max,
+            @RequestParam(defaultValue = "0") long timeoutMs) {
+        
+        long timeout = Math.min(Math.max(timeoutMs, 0), changeFeedMaxPollMs);
+        DeferredResult<ResponseEntity<Map<String, Object>>> result = new DeferredResult<>(timeout > 0 ? timeout : null);
+        try {
+            ChangeFeed.Batch batch = changeFeed.read(tableName, after, max);
+            if (timeout == 0 || !batch.events().isEmpty() || batch.gap()) {
+                result.setResult(ResponseEntity.ok(changesResponse(batch)));
+                return result;
+            }
+            // 订阅时补发 after 之后已有的事件，首次读取与订阅之间提交的事件不会遗漏；收到事件后按 max 重新读取
+            ChangeFeed.Subscription subscription = changeFeed.subscribe(tableName, after,
+                    events -> result.setResult(ResponseEntity.ok(changesResponse(changeFeed.read(tableName, after, max)))));
+            result.onCompletion(subscription::close);
+            result.onTimeout(() -> result.setResult(ResponseEntity.ok(changesResponse(batch))));
+        } catch (Exception e) {
+            Map<String, Object> response = new HashMap<>();
+            response.put("success", false);
+            response.put("message", "读取变更失败: " + e.getMessage());
+            result.setResult(ResponseEntity.status(errorStatus(e)).body(response));
+        }
+        return result;
+    }
+
+    /**
+     * 以 Server-Sent Events 推送表的变更事件（请求头 Accept: text/event-stream）
+     * 先推送序号大于 after 的缓冲事件，之后每有事件提交即推送；事件名为 insert/update/delete，id 为序号，
+     * 断线重连时浏览器携带的 Last-Event-ID 优先于 after。有事件已被覆盖时先推送一个 gap 事件。
+     * 连接在 dynamic.change-feed.sse-timeout-ms 后关闭，由客户端重连续传。
+     *
+     * @param tableName 表名
+     * @param after 起始序号，0 表示从缓冲区中最早的事件开始
+     * @param lastEventId 重连时上次收到的事件 id
+     * @return 事件流
+     */
+    @GetMapping(value = "/{tableName}/changes", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamChanges(
+            @PathVariable String tableName,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        
+        SseEmitter emitter = new SseEmitter(changeFeedSseTimeoutMs);
+        try {
+            // 校验表是否存在
+            changeFeed.read(tableName, 0, 1);
+        } catch (Exception e) {
+            try {
+                emitter.send(SseEmitter.event().name("error")
+                        .data(Map.of("success", false, "message", "读取变更失败: " + e.getMessage())));
+            } catch (IOException ignored) {
+                // 客户端已断开
+            }
+            emitter.complete();
+            return ResponseEntity.status(errorStatus(e)).body(emitter);
+        }
+        
+        long start = lastEventId != null ? lastEventId : after;
+        // 在变更流的投递线程上发送，客户端阻塞时只影响本连接；积压超过订阅者队列容量时收到 gap 事件
+        ChangeFeed.Listener push = new ChangeFeed.Listener() {
+            private long cursor = start;
+            
+            @Override
+            public void onEvents(ChangeFeed.Batch batch) throws IOException {
+                try {
+                    if (batch.gap()) {
+                        long next = batch.events().isEmpty() ? batch.next() : batch.events().get(0).seq() - 1;
+                        emitter.send(SseEmitter.event().name("gap").data(Map.of("after", cursor, "next", next)));
+                    }
+                    for (ChangeEvent event : batch.events()) {
+                        emitter.send(SseEmitter.event().id(String.valueOf(event.seq())).name(event.op()).data(event));
+                    }
+                    cursor = batch.next();
+                } catch (IOException | RuntimeException e) {
+                    emitter.completeWithError(e);
+                    throw e;
+                }
+            }
+        };
+        ChangeFeed.Subscription subscription = changeFeed.subscribe(tableName, start, push);
+        emitter.onCompletion(subscription::close);
+        emitter.onError(e -> subscription.close());
+        emitter.onTimeout(emitter::complete);
+        return ResponseEntity.ok(emitter);
+    }
+
+    private static Map<String, Object> changesResponse(ChangeFeed.Batch batch) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("data", batch.events());
+        response.put("next", batch.next());
+        response.put("gap", batch.gap());
+        return response;
+    }
+
+    /**
+     * 从请求参数中取出查询保留参数（columns/orderBy/limit/after/stream/format），剩余参数作为查询条件
+     */
+    private SelectOptions extractSelectOptions(Map<String, Object> conditions) {
+        conditions.remove("stream");
+        conditions.remove("format");
+        SelectOptions options = new SelectOptions();
+        Object columns = conditions.remove("columns");
+        if (columns != null && !columns.toString().isBlank()) {
+            options.setColumns(Arrays.asList(columns.toString().split(",")));
+        }
+        Object orderBy = conditions.remove("orderBy");
+        if (orderBy != null && !orderBy.toString().isBlank()) {
+            options.setOrderBy(Arrays.asList(orderBy.toString().split(",")));
+        }
+        Object limit = conditions.remove("limit");
+        if (limit != null) {
+            options.setLimit(parseLimit(limit));
+        }
+        options.setAfter(conditions.remove("after"));
+        return options;
+    }
+
+    /**
+     * 解析 limit 参数，只接受正整数
+     */
+    private static Integer parseLimit(Object limit) {
+        int value;
+        try {
+            value = Integer.parseInt(limit.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("limit 必须为正整数: " + limit);
+        }
+        if (value <= 0) {
+            throw new IllegalArgumentException("limit 必须为正整数: " + limit);
         }
+        return value;
+    }
+
+    /**
+     * 从请求参数中取出聚合保留参数（groupBy/count/sum/avg/min/max/orderBy/limit），剩余参数作为查询条件
+     */
+    private AggregateOptions extractAggregateOptions(Map<String, Object> conditions) {
+        AggregateOptions options = new AggregateOptions();
+        Object groupBy = conditions.remove("groupBy");
+        if (groupBy != null && !groupBy.toString().isBlank()) {
+            options.setGroupBy(Arrays.asList(groupBy.toString().split(",")));
+        }
+        for (AggregateOptions.Function function : AggregateOptions.Function.values()) {
+            Object columns = conditions.remove(function.name().toLowerCase(Locale.ROOT));
+            if (columns == null) {
+                continue;
+            }
+            if (columns.toString().isBlank() && function == AggregateOptions.Function.COUNT) {
+                options.add(function, "*");
+                continue;
+            }
+            for (String column : columns.toString().split(",")) {
+                options.add(function, column);
+            }
+        }
+        Object orderBy = conditions.remove("orderBy");
+        if (orderBy != null && !orderBy.toString().isBlank()) {
+            options.setOrderBy(Arrays.asList(orderBy.toString().split(",")));
+        }
+        Object limit = conditions.remove("limit");
+        if (limit != null) {
+            options.setLimit(parseLimit(limit));
+        }
+        return options;
     }
 
     /**
@@ -183,7 +1018,89 @@ public class FullyDynamicController {
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "更新失败: " + e.getMessage());
-            return ResponseEntity.status(500).body(response);
+            return ResponseEntity.status(errorStatus(e)).body(response);
+        }
+    }
+
+    /**
+     * 多表批处理
+     * 在同一事务中按顺序执行一组 insert/upsert/select/update/delete 操作，可以跨多张表，select 能看到之前操作的修改。
+     * failFast=true（默认）时第一个操作失败即回滚全部操作；为 false 时只回滚失败的操作，其余操作提交。
+     *
+     * @param failFast 是否在第一个失败时回滚全部操作
+     * @param operations 操作数组，如 [{"op":"insert","table":"orders","data":{...}}, {"op":"select","table":"orders","conditions":{...}}]
+     * @return 每个操作的结果，committed 表示是否已提交
+     */
+    @PostMapping("/_batch")
+    public ResponseEntity<Map<String, Object>> executeBatch(
+            @RequestParam(defaultValue = "true") boolean failFast,
+            @RequestBody List<BatchOperation> operations) {
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            List<Map<String, Object>> results = dynamicCrudService.executeBatch(operations, failFast);
+            boolean success = results.stream().allMatch(result -> Boolean.TRUE.equals(result.get("success")));
+            response.put("success", success);
+            response.put("committed", success || !failFast);
+            response.put("results", results);
+            return success ? ResponseEntity.ok(response) : ResponseEntity.status(500).body(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("committed", false);
+            response.put("message", "批处理失败: " + e.getMessage());
+            return ResponseEntity.status(errorStatus(e)).body(response);
+        }
+    }
+
+    /**
+     * 插入或更新数据
+     * 以一条 INSERT ... ON DUPLICATE KEY UPDATE 语句完成：主键或唯一键冲突时以请求中的值更新除主键外的列，否则插入
+     *
+     * @param tableName 表名
+     * @param data 行数据，通常包含主键或唯一键列
+     * @return 操作结果
+     */
+    @PutMapping("/{tableName}/upsert")
+    public ResponseEntity<Map<String, Object>> upsert(
+            @PathVariable String tableName,
+            @RequestBody Map<String, Object> data) {
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            int result = dynamicCrudService.upsert(tableName, data);
+            response.put("success", true);
+            response.put("affectedRows", result);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "插入或更新失败: " + e.getMessage());
+            return ResponseEntity.status(errorStatus(e)).body(response);
+        }
+    }
+
+    /**
+     * 批量插入或更新
+     * 按列集合分组切块，每块为一条多行 INSERT ... ON DUPLICATE KEY UPDATE 语句，在独立事务中执行
+     *
+     * @param tableName 表名
+     * @param rows 行数据数组
+     * @return 每个块的执行结果
+     */
+    @PutMapping("/{tableName}/upsert/batch")
+    public ResponseEntity<Map<String, Object>> batchUpsert(
+            @PathVariable String tableName,
+            @RequestBody List<Map<String, Object>> rows) {
+        
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            return chunkResponse(response, dynamicCrudService.batchUpsert(tableName, rows));
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "批量插入或更新失败: " + e.getMessage());
+            return ResponseEntity.status(errorStatus(e)).body(response);
         }
     }
 
@@ -209,53 +1126,84 @@ public class FullyDynamicController {
         } catch (Exception e) {
             response.put("success", false);
             response.put("message", "删除失败: " + e.getMessage());
-            return ResponseEntity.status(500).body(response);
+            return ResponseEntity.status(errorStatus(e)).body(response);
         }
     }
 
     /**
-     * 根据示例数据生成CREATE TABLE SQL语句
+     * 按键集合批量更新
+     * 每项包含 conditions（键）与 data（新值）；SET 值相同的项合并为一条 IN 语句，否则使用JDBC批处理
      *
      * @param tableName 表名
-     * @param sampleData 示例数据
-     * @return CREATE TABLE SQL语句
+     * @param updates 更新项数组
+     * @return 每个块的执行结果
      */
-    private String generateCreateTableSql(String tableName, Map<String, Object> sampleData) {
-        StringBuilder sql = new StringBuilder();
-        sql.append("CREATE TABLE IF NOT EXISTS ").append(tableName).append(" (");
-        sql.append("id BIGINT AUTO_INCREMENT PRIMARY KEY");
+    @PutMapping("/{tableName}/bulk")
+    public ResponseEntity<Map<String, Object>> bulkUpdate(
+            @PathVariable String tableName,
+            @RequestBody List<BulkUpdate> updates) {
         
-        for (Map.Entry<String, Object> entry : sampleData.entrySet()) {
-            String columnName = entry.getKey();
-            Object value = entry.getValue();
-            
-            // 跳过id字段，因为我们已经添加了主键
-            if ("id".equalsIgnoreCase(columnName)) {
-                continue;
-            }
-            
-            sql.append(", ");
-            sql.append(columnName).append(" ");
-            
-            // 根据值的类型推断列类型
-            if (value instanceof String) {
-                // 如果字符串较长，使用TEXT类型
-                sql.append(((String) value).length() > 255 ? "TEXT" : "VARCHAR(255)");
-            } else if (value instanceof Integer) {
-                sql.append("INT");
-            } else if (value instanceof Long) {
-                sql.append("BIGINT");
-            } else if (value instanceof Double || value instanceof Float) {
-                sql.append("DOUBLE");
-            } else if (value instanceof Boolean) {
-                sql.append("BOOLEAN");
-            } else {
-                // 默认使用VARCHAR(255)
-                sql.append("VARCHAR(255)");
-            }
+        Map<String, Object> response = new HashMap<>();
+        
+        try {
+            return chunkResponse(response, dynamicCrudService.bulkUpdate(tableName, updates));
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "批量更新失败: " + e.getMessage());
+            return ResponseEntity.status(errorStatus(e)).body(response);
         }
+    }
+
+    /**
+     * 按键集合批量删除
+     *
+     * @param tableName 表名
+     * @param keySets 键集合数组，如 [{"id": 1}, {"id": 2}]
+     * @return 每个块的执行结果
+     */
+    @DeleteMapping("/{tableName}/bulk")
+    public ResponseEntity<Map<String, Object>> bulkDelete(
+            @PathVariable String tableName,
+            @RequestBody List<Map<String, Object>> keySets) {
+        
+        Map<String, Object> response = new HashMap<>();
         
-        sql.append(")");
-        return sql.toString();
+        try {
+            return chunkResponse(response, dynamicCrudService.bulkDelete(tableName, keySets));
+        } catch (Exception e) {
+            response.put("success", false);
+            response.put("message", "批量删除失败: " + e.getMessage());
+            return ResponseEntity.status(errorStatus(e)).body(response);
+        }
+    }
+
+    /**
+     * 失败响应的状态码：参数无效时返回400，功能未启用（如变更流）时返回404，数据库并发准入被拒绝时返回503，其余返回500
+     */
+    private static int errorStatus(Exception e) {
+        if (e instanceof IllegalArgumentException) {
+            return 400;
+        }
+        if (e instanceof FeatureDisabledException) {
+            return 404;
+        }
+        return e instanceof AdmissionRejectedException ? 503 : 500;
+    }
+
+    /**
+     * 汇总分块执行结果：全部块成功时返回200，否则返回500
+     */
+    private ResponseEntity<Map<String, Object>> chunkResponse(Map<String, Object> response,
+                                                              List<Map<String, Object>> chunks) {
+        boolean success = true;
+        int affectedRows = 0;
+        for (Map<String, Object> chunk : chunks) {
+            success &= Boolean.TRUE.equals(chunk.get("success"));
+            affectedRows += (Integer) chunk.get("affectedRows");
+        }
+        response.put("success", success);
+        response.put("affectedRows", affectedRows);
+        response.put("chunks", chunks);
+        return success ? ResponseEntity.ok(response) : ResponseEntity.status(500).body(response);
     }
 }
\ No newline at end of file
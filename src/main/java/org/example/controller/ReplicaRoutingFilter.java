@@ -0,0 +1,51 @@
+package org.example.controller;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpSession;
+import org.example.service.ReplicaRouting;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * 为每个请求登记读写分离的路由上下文，使写操作之后的读取在 sticky-window-ms 内仍走主库
+ * 客户端标识依次取 X-Consistency-Key 请求头、已有的 HTTP 会话、客户端地址。
+ */
+@Component
+public class ReplicaRoutingFilter extends OncePerRequestFilter {
+
+    public static final String CONSISTENCY_KEY_HEADER = "X-Consistency-Key";
+
+    @Autowired
+    private ReplicaRouting replicaRouting;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !replicaRouting.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (ReplicaRouting.Scope ignored = replicaRouting.open(clientKey(request))) {
+            chain.doFilter(request, response);
+        }
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        String key = request.getHeader(CONSISTENCY_KEY_HEADER);
+        if (key != null && !key.isBlank()) {
+            return "key:" + key;
+        }
+        HttpSession session = request.getSession(false);
+        if (session != null) {
+            return "session:" + session.getId();
+        }
+        return "addr:" + request.getRemoteAddr();
+    }
+}
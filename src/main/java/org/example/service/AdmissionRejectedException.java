@@ -0,0 +1,11 @@
+package org.example.service;
+
+/**
+ * 请求因容量限制被拒绝时抛出（等待数据库并发许可超时、写缓冲队列已满），调用方应稍后重试
+ */
+public class AdmissionRejectedException extends RuntimeException {
+
+    public AdmissionRejectedException(String message) {
+        super(message);
+    }
+}
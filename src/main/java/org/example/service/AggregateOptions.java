@@ -0,0 +1,89 @@
+package org.example.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 聚合查询选项：分组列、聚合项、排序与返回行数上限
+ */
+public class AggregateOptions {
+
+    public enum Function {
+        COUNT, SUM, AVG, MIN, MAX
+    }
+
+    /**
+     * 一个聚合项，如 SUM(amount)；column 为 * 时只能用于 COUNT
+     * 结果列名为 函数名_列名（如 sum_amount），COUNT(*) 为 count。
+     */
+    public record Term(Function function, String column) {
+
+        public boolean isCountAll() {
+            return "*".equals(column);
+        }
+
+        public String alias() {
+            String name = function.name().toLowerCase(Locale.ROOT);
+            return isCountAll() ? name : name + "_" + column;
+        }
+    }
+
+    /**
+     * 分组列，null 或空表示对全部行聚合
+     */
+    private List<String> groupBy;
+
+    private final List<Term> aggregates = new ArrayList<>();
+
+    /**
+     * 排序项，可以是分组列或聚合结果列名，前加 - 表示降序
+     */
+    private List<String> orderBy;
+
+    /**
+     * 返回的分组数上限，null 表示使用 dynamic.select.max-limit
+     */
+    private Integer limit;
+
+    public List<String> getGroupBy() {
+        return groupBy;
+    }
+
+    public void setGroupBy(List<String> groupBy) {
+        this.groupBy = groupBy;
+    }
+
+    public boolean isGrouped() {
+        return groupBy != null && !groupBy.isEmpty();
+    }
+
+    public List<Term> getAggregates() {
+        return aggregates;
+    }
+
+    /**
+     * 添加聚合项
+     *
+     * @param column 列名，COUNT 可以使用 *
+     */
+    public void add(Function function, String column) {
+        aggregates.add(new Term(function, column.trim()));
+    }
+
+    public List<String> getOrderBy() {
+        return orderBy;
+    }
+
+    public void setOrderBy(List<String> orderBy) {
+        this.orderBy = orderBy;
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+}
@@ -0,0 +1,57 @@
+package org.example.service;
+
+import java.util.Map;
+
+/**
+ * 多表批处理（{@link DynamicCrudService#executeBatch}）中的一项操作
+ * op 为 insert/upsert/select/update/delete；data 为写入的数据，conditions 为 select/update/delete 的条件，
+ * 语法与单表接口相同；options 为 select 的列投影、排序、行数上限和分页游标。
+ */
+public class BatchOperation {
+
+    private String op;
+    private String table;
+    private Map<String, Object> data;
+    private Map<String, Object> conditions;
+    private SelectOptions options;
+
+    public String getOp() {
+        return op;
+    }
+
+    public void setOp(String op) {
+        this.op = op;
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public Map<String, Object> getData() {
+        return data;
+    }
+
+    public void setData(Map<String, Object> data) {
+        this.data = data;
+    }
+
+    public Map<String, Object> getConditions() {
+        return conditions;
+    }
+
+    public void setConditions(Map<String, Object> conditions) {
+        this.conditions = conditions;
+    }
+
+    public SelectOptions getOptions() {
+        return options;
+    }
+
+    public void setOptions(SelectOptions options) {
+        this.options = options;
+    }
+}
@@ -0,0 +1,28 @@
+package org.example.service;
+
+import java.util.Map;
+
+/**
+ * 批量更新中的一项：按 conditions 定位行，写入 data
+ */
+public class BulkUpdate {
+
+    private Map<String, Object> conditions;
+    private Map<String, Object> data;
+
+    public Map<String, Object> getConditions() {
+        return conditions;
+    }
+
+    public void setConditions(Map<String, Object> conditions) {
+        this.conditions = conditions;
+    }
+
+    public Map<String, Object> getData() {
+        return data;
+    }
+
+    public void setData(Map<String, Object> data) {
+        this.data = data;
+    }
+}
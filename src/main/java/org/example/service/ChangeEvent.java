@@ -0,0 +1,20 @@
+package org.example.service;
+
+import java.util.List;
+
+/**
+ * 一次已提交的数据变更，对应一条 INSERT/UPDATE/DELETE/upsert 语句（批量操作为一个块）
+ *
+ * @param seq 表内递增的序号，用于断点续传
+ * @param table 表名
+ * @param op insert、update、delete 或 upsert
+ * @param key update/delete 的条件、upsert/insert 行中的主键值（自增主键为生成的值，多行操作为各项的列表，
+ *            超过 dynamic.change-feed.max-event-keys 项时为 {"first": 第一项, "last": 最后一项}）；
+ *            LOAD DATA 导入且行中未提供主键或跳过了重复行时为 null
+ * @param columns insert/update/upsert 写入的列，delete 为空
+ * @param rows 影响行数，-1 表示驱动未返回
+ * @param timestamp 提交时间（毫秒）
+ */
+public record ChangeEvent(long seq, String table, String op, Object key, List<String> columns, int rows,
+                          long timestamp) {
+}
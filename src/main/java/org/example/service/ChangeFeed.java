@@ -0,0 +1,349 @@
+package org.example.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 表数据变更流
+ * {@link DynamicCrudService} 的写操作在事务提交后发布 {@link ChangeEvent}，每张表保留最近 capacity 条，
+ * 存放在固定大小的环形缓冲区中。消费方按序号增量读取（{@link #read}），或订阅新事件（{@link #subscribe}），
+ * 以代替反复全表查询。发布时事件只放入每个订阅者自己的有界队列，由投递线程池按订阅者逐个投递，
+ * 慢的订阅者（如网络阻塞的 SSE 连接）不影响写操作和其他订阅者；队列满时丢弃其中积压的事件，
+ * 下次投递标记为 gap。
+ * 多行操作的主键列表超过 max-event-keys 项时只保存首末两项（{@link #keyRange}），使缓冲区的内存有界。
+ * 事件只保存在内存中，进程重启后序号从头开始；通过 executeUpdateSql 执行的任意语句不产生事件。
+ */
+@Component
+public class ChangeFeed {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeFeed.class);
+
+    /**
+     * 一次读取的结果
+     *
+     * @param events 序号大于 after 的事件，按序号升序
+     * @param next 下次读取使用的 after
+     * @param gap 请求的起点之后有事件已被覆盖（或序号超出当前范围，如进程重启），消费方应重新全量同步
+     */
+    public record Batch(List<ChangeEvent> events, long next, boolean gap) {
+    }
+
+    /**
+     * 订阅，关闭后不再投递
+     */
+    public interface Subscription extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * 订阅者，在投递线程上按序号顺序收到事件，同一订阅者不会被并发调用
+     */
+    public interface Listener {
+
+        /**
+         * @param batch 新事件；gap 为 true 表示此前有事件因队列已满或已被覆盖而丢失，应重新全量同步，
+         *              此时 events 从丢失的事件之后开始
+         * @throws Exception 投递失败，订阅随即关闭
+         */
+        void onEvents(Batch batch) throws Exception;
+    }
+
+    /**
+     * 单张表的环形缓冲区及订阅者
+     */
+    private static class TableFeed {
+        final ChangeEvent[] ring;
+        final List<Subscriber> subscribers = new CopyOnWriteArrayList<>();
+        long lastSeq;
+
+        TableFeed(int capacity) {
+            this.ring = new ChangeEvent[capacity];
+        }
+    }
+
+    /**
+     * 单个订阅者的有界事件队列及投递状态
+     */
+    private class Subscriber implements Subscription {
+        final String tableName;
+        final TableFeed feed;
+        final Listener listener;
+        final Deque<ChangeEvent> pending = new ArrayDeque<>();
+        boolean gap;
+        long gapAfter;
+        boolean scheduled;
+        volatile boolean closed;
+
+        Subscriber(String tableName, TableFeed feed, Listener listener) {
+            this.tableName = tableName;
+            this.feed = feed;
+            this.listener = listener;
+        }
+
+        /**
+         * 发布时调用，不阻塞：队列已满时清空积压的事件并标记 gap
+         */
+        synchronized void offer(ChangeEvent event) {
+            if (pending.size() >= subscriberQueueCapacity) {
+                pending.clear();
+                gap = true;
+                gapAfter = event.seq() - 1;
+                overflows.incrementAndGet();
+            }
+            pending.add(event);
+            schedule();
+        }
+
+        synchronized void markGap(long after) {
+            gap = true;
+            gapAfter = after;
+        }
+
+        synchronized void schedule() {
+            if (scheduled || closed || (pending.isEmpty() && !gap)) {
+                return;
+            }
+            scheduled = true;
+            try {
+                delivery.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                // 正在关闭
+                scheduled = false;
+            }
+        }
+
+        void drain() {
+            while (true) {
+                Batch batch;
+                synchronized (this) {
+                    if (closed || (pending.isEmpty() && !gap)) {
+                        scheduled = false;
+                        return;
+                    }
+                    List<ChangeEvent> events = new ArrayList<>(pending);
+                    pending.clear();
+                    long next = events.isEmpty() ? gapAfter : events.get(events.size() - 1).seq();
+                    batch = new Batch(events, next, gap);
+                    gap = false;
+                }
+                try {
+                    listener.onEvents(batch);
+                } catch (Exception e) {
+                    log.debug("表 {} 的订阅者投递失败，已取消订阅: {}", tableName, e.getMessage());
+                    close();
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void close() {
+            feed.subscribers.remove(this);
+            synchronized (this) {
+                closed = true;
+                pending.clear();
+            }
+        }
+    }
+
+    @Autowired
+    private TableSchemaRegistry schemaRegistry;
+
+    private final Map<String, TableFeed> feeds = new ConcurrentHashMap<>();
+    private final ExecutorService delivery;
+    private final boolean enabled;
+    private final int capacity;
+    private final int subscriberQueueCapacity;
+    private final int maxEventKeys;
+    private final AtomicInteger overflows = new AtomicInteger();
+
+    public ChangeFeed(@Value("${dynamic.change-feed.enabled:true}") boolean enabled,
+                      @Value("${dynamic.change-feed.capacity:1000}") int capacity,
+                      @Value("${dynamic.change-feed.subscriber-queue:256}") int subscriberQueueCapacity,
+                      @Value("${dynamic.change-feed.max-event-keys:100}") int maxEventKeys) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("dynamic.change-feed.capacity 必须大于 0");
+        }
+        if (subscriberQueueCapacity <= 0) {
+            throw new IllegalArgumentException("dynamic.change-feed.subscriber-queue 必须大于 0");
+        }
+        if (maxEventKeys < 0) {
+            throw new IllegalArgumentException("dynamic.change-feed.max-event-keys 不能小于 0");
+        }
+        this.enabled = enabled;
+        this.capacity = capacity;
+        this.subscriberQueueCapacity = subscriberQueueCapacity;
+        this.maxEventKeys = maxEventKeys;
+        // 每个有待投递事件的订阅者至多占用一个线程，阻塞的订阅者不占用其他订阅者的线程
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.delivery = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "change-feed-delivery-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 发布一次已提交的变更，放入该表各订阅者的队列，不等待投递
+     */
+    public void publish(String tableName, String op, Object key, Collection<String> columns, int rows) {
+        if (!enabled) {
+            return;
+        }
+        TableFeed feed = feed(tableName);
+        synchronized (feed) {
+            long seq = ++feed.lastSeq;
+            ChangeEvent event = new ChangeEvent(seq, tableName, op, boundedKey(key),
+                    columns == null ? List.of() : List.copyOf(columns), rows, System.currentTimeMillis());
+            feed.ring[(int) (seq % capacity)] = event;
+            // 在表的锁内入队，与订阅时的补发保持顺序
+            for (Subscriber subscriber : feed.subscribers) {
+                subscriber.offer(event);
+            }
+        }
+    }
+
+    /**
+     * 超过 max-event-keys 项的键列表替换为 {@link #keyRange}，其余原样保存
+     */
+    private Object boundedKey(Object key) {
+        if (key instanceof List<?> keys && keys.size() > maxEventKeys) {
+            return keys.isEmpty() ? null : keyRange(keys.get(0), keys.get(keys.size() - 1));
+        }
+        return key;
+    }
+
+    /**
+     * 键列表的范围：{"first": 第一项, "last": 最后一项}，行数见事件的 rows
+     */
+    private static Map<String, Object> keyRange(Object first, Object last) {
+        Map<String, Object> range = new LinkedHashMap<>();
+        range.put("first", first);
+        range.put("last", last);
+        return range;
+    }
+
+    /**
+     * 读取序号大于 after 的事件
+     *
+     * @param tableName 表名，须存在
+     * @param after 上次读到的序号，0 表示从缓冲区中最早的事件开始
+     * @param max 最多返回的事件数
+     */
+    public Batch read(String tableName, long after, int max) {
+        checkEnabled(tableName);
+        if (max <= 0) {
+            throw new IllegalArgumentException("max 必须大于0");
+        }
+        TableFeed feed = feed(tableName);
+        synchronized (feed) {
+            return read(feed, after, max);
+        }
+    }
+
+    /**
+     * 在表的锁内读取
+     */
+    private Batch read(TableFeed feed, long after, int max) {
+        long last = feed.lastSeq;
+        if (after > last) {
+            return new Batch(List.of(), last, true);
+        }
+        long oldest = Math.max(1, last - capacity + 1);
+        boolean gap = after > 0 && after < oldest - 1;
+        long from = Math.max(after + 1, oldest);
+        long to = Math.min(last, from + max - 1);
+        List<ChangeEvent> events = new ArrayList<>((int) Math.max(0, to - from + 1));
+        for (long seq = from; seq <= to; seq++) {
+            events.add(feed.ring[(int) (seq % capacity)]);
+        }
+        return new Batch(events, events.isEmpty() ? after : to, gap);
+    }
+
+    /**
+     * 订阅表中序号大于 after 的事件：缓冲区中已有的事件先投递，之后的事件在发布后投递
+     *
+     * @param after 上次收到的序号，0 表示从缓冲区中最早的事件开始
+     */
+    public Subscription subscribe(String tableName, long after, Listener listener) {
+        checkEnabled(tableName);
+        TableFeed feed = feed(tableName);
+        Subscriber subscriber = new Subscriber(tableName, feed, listener);
+        synchronized (feed) {
+            Batch backlog = read(feed, after, capacity);
+            if (backlog.gap()) {
+                subscriber.markGap(backlog.events().isEmpty() ? backlog.next() : backlog.events().get(0).seq() - 1);
+            }
+            synchronized (subscriber) {
+                subscriber.pending.addAll(backlog.events());
+            }
+            feed.subscribers.add(subscriber);
+        }
+        subscriber.schedule();
+        return subscriber;
+    }
+
+    /**
+     * 各表的最新序号、缓冲事件数和订阅者数
+     */
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("capacity", capacity);
+        status.put("subscriberQueue", subscriberQueueCapacity);
+        status.put("maxEventKeys", maxEventKeys);
+        status.put("overflows", overflows.get());
+        Map<String, Object> tables = new LinkedHashMap<>();
+        feeds.forEach((table, feed) -> {
+            Map<String, Object> tableStatus = new LinkedHashMap<>();
+            synchronized (feed) {
+                tableStatus.put("lastSeq", feed.lastSeq);
+                tableStatus.put("buffered", Math.min(feed.lastSeq, capacity));
+            }
+            tableStatus.put("subscribers", feed.subscribers.size());
+            tables.put(table, tableStatus);
+        });
+        status.put("tables", tables);
+        return status;
+    }
+
+    @PreDestroy
+    public void close() {
+        delivery.shutdownNow();
+    }
+
+    private void checkEnabled(String tableName) {
+        if (!enabled) {
+            throw new FeatureDisabledException("变更流未启用（dynamic.change-feed.enabled）");
+        }
+        // 校验表是否存在
+        schemaRegistry.getSchema(tableName);
+    }
+
+    private TableFeed feed(String tableName) {
+        return feeds.computeIfAbsent(schemaRegistry.keyOf(tableName), k -> new TableFeed(capacity));
+    }
+}
@@ -0,0 +1,200 @@
+package org.example.service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.function.UnaryOperator;
+import java.util.regex.Pattern;
+
+/**
+ * 列类型规则
+ * 建表时由示例值推断列类型（{@link DynamicSqlGenerator#generateCreateTableSql}），
+ * 导入时把文本值按同一规则解析为类型化的值；
+ * 并为每种列类型提供值转换器，由 {@link TableSchema.Column#convert} 在绑定参数前把值转换为列的类型。
+ */
+public final class ColumnTypes {
+
+    private static final Pattern INTEGER = Pattern.compile("-?\\d+");
+
+    private static final Pattern DECIMAL = Pattern.compile("-?\\d+\\.\\d+([eE][+-]?\\d+)?");
+
+    private ColumnTypes() {
+    }
+
+    /**
+     * 根据示例值推断列类型
+     */
+    public static String inferColumnType(Object value) {
+        if (value instanceof String) {
+            // 如果字符串较长，使用TEXT类型
+            return ((String) value).length() > 255 ? "TEXT" : "VARCHAR(255)";
+        } else if (value instanceof Integer) {
+            return "INT";
+        } else if (value instanceof Long) {
+            return "BIGINT";
+        } else if (value instanceof Double || value instanceof Float) {
+            return "DOUBLE";
+        } else if (value instanceof Boolean) {
+            return "BOOLEAN";
+        }
+        // 默认使用VARCHAR(255)
+        return "VARCHAR(255)";
+    }
+
+    /**
+     * 把文本值解析为与 JSON 解析结果一致的类型：布尔值、整数（Integer/Long）、小数（Double），其余保持字符串
+     */
+    public static Object parseText(String text) {
+        if (text == null) {
+            return null;
+        }
+        if ("true".equalsIgnoreCase(text) || "false".equalsIgnoreCase(text)) {
+            return Boolean.parseBoolean(text);
+        }
+        if (INTEGER.matcher(text).matches() && text.length() <= 19) {
+            long value;
+            try {
+                value = Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                return text;
+            }
+            return value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE ? (Object) (int) value : (Object) value;
+        }
+        if (DECIMAL.matcher(text).matches()) {
+            return Double.parseDouble(text);
+        }
+        return text;
+    }
+
+    /**
+     * 整数列：数字原样返回，布尔值转为 1/0，文本解析为 Long（超出范围时为 BigInteger，用于 BIGINT UNSIGNED）
+     */
+    private static final UnaryOperator<Object> INTEGER_CONVERTER = value -> {
+        if (value instanceof Number) {
+            return value;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1L : 0L;
+        }
+        String text = value.toString().trim();
+        if ("true".equalsIgnoreCase(text) || "false".equalsIgnoreCase(text)) {
+            return Boolean.parseBoolean(text) ? 1L : 0L;
+        }
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            return new BigInteger(text);
+        }
+    };
+
+    private static final UnaryOperator<Object> DECIMAL_CONVERTER =
+            value -> value instanceof Number ? value : new BigDecimal(value.toString().trim());
+
+    private static final UnaryOperator<Object> FLOATING_CONVERTER =
+            value -> value instanceof Number ? value : Double.parseDouble(value.toString().trim());
+
+    private static final UnaryOperator<Object> BOOLEAN_CONVERTER = value -> {
+        if (value instanceof Boolean || value instanceof Number) {
+            return value;
+        }
+        String flag = value.toString().trim();
+        if ("true".equalsIgnoreCase(flag) || "1".equals(flag)) {
+            return Boolean.TRUE;
+        }
+        if ("false".equalsIgnoreCase(flag) || "0".equals(flag)) {
+            return Boolean.FALSE;
+        }
+        throw new NumberFormatException(flag);
+    };
+
+    /**
+     * 二进制列：字符串按 Base64 解码，与查询结果、导出中 byte[] 的表示一致，导出的数据可以原样导入
+     */
+    private static final UnaryOperator<Object> BINARY_CONVERTER =
+            value -> value instanceof String ? Base64.getDecoder().decode(((String) value).trim()) : value;
+
+    /**
+     * 字符列：数字和布尔值转为字符串，避免数据库把整列转换为数字比较而无法使用索引
+     */
+    private static final UnaryOperator<Object> TEXT_CONVERTER =
+            value -> value instanceof Number || value instanceof Boolean ? value.toString() : value;
+
+    /**
+     * 是否为定点数类型（DECIMAL/NUMERIC），值须按 BigDecimal 读取以保留精度
+     */
+    static boolean isDecimal(String dataType) {
+        return converterFor(dataType) == DECIMAL_CONVERTER;
+    }
+
+    /**
+     * 是否为字符类型（CHAR/VARCHAR/TEXT/ENUM/SET）
+     */
+    static boolean isText(String dataType) {
+        return converterFor(dataType) == TEXT_CONVERTER;
+    }
+
+    /**
+     * 是否为二进制类型，值以 Base64 文本表示
+     */
+    static boolean isBinary(String dataType) {
+        return converterFor(dataType) == BINARY_CONVERTER;
+    }
+
+    /**
+     * 是否为数值类型（整数、定点数、浮点数），可以求和、求平均
+     */
+    static boolean isNumeric(String dataType) {
+        UnaryOperator<Object> converter = converterFor(dataType);
+        return converter == INTEGER_CONVERTER || converter == DECIMAL_CONVERTER || converter == FLOATING_CONVERTER;
+    }
+
+    /**
+     * 按基础数据类型选择值转换器，在加载表结构时为每列确定一次
+     * 日期时间等其余类型原样传给驱动。
+     */
+    static UnaryOperator<Object> converterFor(String dataType) {
+        switch (dataType == null ? "" : dataType.toLowerCase(Locale.ROOT)) {
+            case "tinyint":
+            case "smallint":
+            case "mediumint":
+            case "int":
+            case "integer":
+            case "bigint":
+                return INTEGER_CONVERTER;
+            case "decimal":
+            case "numeric":
+                return DECIMAL_CONVERTER;
+            case "float":
+            case "real":
+            case "double":
+            case "double precision":
+                return FLOATING_CONVERTER;
+            case "boolean":
+            case "bit":
+                return BOOLEAN_CONVERTER;
+            case "char":
+            case "varchar":
+            case "tinytext":
+            case "text":
+            case "mediumtext":
+            case "longtext":
+            case "enum":
+            case "set":
+            case "character":
+            case "character varying":
+                return TEXT_CONVERTER;
+            case "binary":
+            case "varbinary":
+            case "tinyblob":
+            case "blob":
+            case "mediumblob":
+            case "longblob":
+            case "binary varying":
+            case "binary large object":
+                return BINARY_CONVERTER;
+            default:
+                return UnaryOperator.identity();
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package org.example.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 类型化的查询条件：列 + 运算符 + 参数值
+ * 由请求参数解析而来，参数名形如 列名__运算符（如 age__gt=18、name__prefix=ab、id__in=1,2,3），
+ * 不带运算符后缀时为等值条件。生成的谓词只包含占位符，参数值按 {@link #appendValues} 的顺序绑定。
+ */
+public class Condition {
+
+    /**
+     * 列名与运算符之间的分隔符
+     */
+    public static final String OPERATOR_SEPARATOR = "__";
+
+    /**
+     * 按列名、运算符排序，使同一组条件总是生成相同的SQL文本
+     */
+    private static final Comparator<Condition> ORDER =
+            Comparator.comparing(Condition::getColumn).thenComparing(Condition::getOperator);
+
+    /**
+     * 支持的运算符，suffix 为参数名后缀
+     */
+    public enum Operator {
+        EQ("eq"),
+        NE("ne"),
+        GT("gt"),
+        GE("ge"),
+        LT("lt"),
+        LE("le"),
+        BETWEEN("between"),
+        IN("in"),
+        PREFIX("prefix"),
+        IS_NULL("isnull"),
+        NOT_NULL("notnull");
+
+        private final String suffix;
+
+        Operator(String suffix) {
+            this.suffix = suffix;
+        }
+
+        public String getSuffix() {
+            return suffix;
+        }
+
+        static Operator ofSuffix(String suffix) {
+            for (Operator operator : values()) {
+                if (operator.suffix.equalsIgnoreCase(suffix)) {
+                    return operator;
+                }
+            }
+            return null;
+        }
+    }
+
+    private final String column;
+    private final Operator operator;
+    private final List<Object> values;
+
+    public Condition(String column, Operator operator, List<Object> values) {
+        this.column = column;
+        this.operator = operator;
+        this.values = values;
+    }
+
+    /**
+     * 解析单个请求参数
+     *
+     * @param key 参数名，如 age__gt
+     * @param value 参数值；in/between 可为集合或逗号分隔的字符串
+     */
+    public static Condition parse(String key, Object value) {
+        String column = key;
+        Operator operator = Operator.EQ;
+        int separator = key.lastIndexOf(OPERATOR_SEPARATOR);
+        if (separator > 0) {
+            // 后缀不是已知运算符时，整个参数名视为列名
+            Operator suffixOperator = Operator.ofSuffix(key.substring(separator + OPERATOR_SEPARATOR.length()));
+            if (suffixOperator != null) {
+                column = key.substring(0, separator);
+                operator = suffixOperator;
+            }
+        }
+
+        List<Object> values;
+        switch (operator) {
+            case IS_NULL:
+            case NOT_NULL:
+                values = List.of();
+                break;
+            case IN:
+                values = listValue(value);
+                if (values.isEmpty()) {
+                    throw new IllegalArgumentException("条件 '" + key + "' 的值不能为空");
+                }
+                break;
+            case BETWEEN:
+                values = listValue(value);
+                if (values.size() != 2) {
+                    throw new IllegalArgumentException("条件 '" + key + "' 需要两个值，如 1,10");
+                }
+                break;
+            case PREFIX:
+                if (value == null || value.toString().isEmpty()) {
+                    throw new IllegalArgumentException("条件 '" + key + "' 的值不能为空");
+                }
+                values = List.of(escapeLike(value.toString()) + "%");
+                break;
+            default:
+                values = new ArrayList<>(1);
+                values.add(value);
+        }
+        return new Condition(column, operator, values);
+    }
+
+    /**
+     * 解析全部请求参数为条件列表，按列名、运算符排序
+     */
+    public static List<Condition> parseAll(Map<String, Object> conditions) {
+        List<Condition> result = new ArrayList<>();
+        if (conditions != null) {
+            for (Map.Entry<String, Object> entry : conditions.entrySet()) {
+                result.add(parse(entry.getKey(), entry.getValue()));
+            }
+        }
+        result.sort(ORDER);
+        return result;
+    }
+
+    /**
+     * 由列名构造等值条件列表，按列名排序
+     */
+    public static List<Condition> equalities(Collection<String> columns) {
+        List<Condition> result = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            result.add(new Condition(column, Operator.EQ, List.of()));
+        }
+        result.sort(ORDER);
+        return result;
+    }
+
+    /**
+     * 返回列名替换为规范列名、参数值按列类型转换后的条件
+     * 前缀匹配的 LIKE 模式始终是字符串，不做转换。
+     *
+     * @throws IllegalArgumentException 参数值无法转换为列的类型
+     */
+    public Condition resolve(TableSchema.Column meta) {
+        if (operator == Operator.PREFIX || values.isEmpty()) {
+            return meta.getName().equals(column) ? this : new Condition(meta.getName(), operator, values);
+        }
+        List<Object> converted = new ArrayList<>(values.size());
+        for (Object value : values) {
+            converted.add(meta.convert(value));
+        }
+        return new Condition(meta.getName(), operator, converted);
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    public Operator getOperator() {
+        return operator;
+    }
+
+    public List<Object> getValues() {
+        return values;
+    }
+
+    /**
+     * 条件的形态，不含参数值：等值条件为列名，其余为 列名__运算符，IN 还包含值的个数。
+     * 形态相同的条件生成相同的谓词，用作SQL模板缓存键的一部分。
+     */
+    public String shape() {
+        if (operator == Operator.EQ) {
+            return column;
+        }
+        String shape = column + OPERATOR_SEPARATOR + operator.getSuffix();
+        return operator == Operator.IN ? shape + "#" + values.size() : shape;
+    }
+
+    /**
+     * 生成带占位符的谓词
+     */
+    public String toSql() {
+        switch (operator) {
+            case NE:
+                return column + " <> ?";
+            case GT:
+                return column + " > ?";
+            case GE:
+                return column + " >= ?";
+            case LT:
+                return column + " < ?";
+            case LE:
+                return column + " <= ?";
+            case BETWEEN:
+                return column + " BETWEEN ? AND ?";
+            case IN:
+                StringBuilder sql = new StringBuilder(column).append(" IN (");
+                for (int i = 0; i < values.size(); i++) {
+                    sql.append(i == 0 ? "?" : ", ?");
+                }
+                return sql.append(")").toString();
+            case PREFIX:
+                return column + " LIKE ?";
+            case IS_NULL:
+                return column + " IS NULL";
+            case NOT_NULL:
+                return column + " IS NOT NULL";
+            default:
+                return column + " = ?";
+        }
+    }
+
+    /**
+     * 按谓词中占位符的顺序追加参数值
+     */
+    public void appendValues(List<Object> target) {
+        target.addAll(values);
+    }
+
+    private static List<Object> listValue(Object value) {
+        if (value == null) {
+            return List.of();
+        }
+        if (value instanceof Collection) {
+            return new ArrayList<>((Collection<?>) value);
+        }
+        String text = value.toString();
+        if (text.isEmpty()) {
+            return List.of();
+        }
+        List<Object> values = new ArrayList<>();
+        for (String part : text.split(",")) {
+            values.add(part.trim());
+        }
+        return values;
+    }
+
+    /**
+     * 转义 LIKE 模式中的通配符，使前缀按字面匹配（MySQL 默认转义符为 \）
+     */
+    private static String escapeLike(String text) {
+        StringBuilder escaped = new StringBuilder(text.length() + 4);
+        for (char c : text.toCharArray()) {
+            if (c == '%' || c == '_' || c == '\\') {
+                escaped.append('\\');
+            }
+            escaped.append(c);
+        }
+        return escaped.toString();
+    }
+}
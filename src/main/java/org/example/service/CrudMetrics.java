@@ -0,0 +1,183 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 动态CRUD流水线的耗时指标
+ * 每个操作按阶段（metadata/sqlgen/bind/execute/serialize）分段计时，
+ * 以 table/operation/outcome 为标签记录到 Micrometer；table 标签为 {@link TableSchemaRegistry#keyOf} 规范化的表名，
+ * 取值数量受限，超出部分归入 "_other"。标签在操作校验表之后（执行或结束时）才确定，
+ * 只有表结构已缓存（即存在）的表才会占用标签，不存在的表名归入 "_other"。
+ * 执行阶段超过阈值的语句记录到慢查询日志，只记录SQL形态（占位符），不记录参数值。
+ */
+@Component
+public class CrudMetrics {
+
+    private static final Logger slowQueryLog = LoggerFactory.getLogger("org.example.slow-query");
+
+    static final String OTHER_TABLE = "_other";
+
+    private final MeterRegistry registry;
+    private final int maxTableTags;
+    private final long slowQueryThresholdNanos;
+    private final Set<String> tableTags = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    private TableSchemaRegistry schemaRegistry;
+
+    public CrudMetrics(MeterRegistry registry,
+                       @Value("${dynamic.metrics.max-table-tags:100}") int maxTableTags,
+                       @Value("${dynamic.metrics.slow-query-threshold-ms:500}") long slowQueryThresholdMs) {
+        this.registry = registry;
+        this.maxTableTags = maxTableTags;
+        this.slowQueryThresholdNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryThresholdMs);
+    }
+
+    /**
+     * 开始一次操作的计时
+     *
+     * @param tableName 表名
+     * @param operation 操作名，如 insert/select
+     */
+    public Trace start(String tableName, String operation) {
+        return new Trace(tableName, operation);
+    }
+
+    /**
+     * 将表名映射为受基数限制的标签值，只为存在的表分配新标签
+     */
+    String tableTag(String tableName) {
+        if (tableName == null) {
+            return OTHER_TABLE;
+        }
+        String table = schemaRegistry.keyOf(tableName);
+        if (tableTags.contains(table)) {
+            return table;
+        }
+        if (tableTags.size() < maxTableTags && schemaRegistry.isCached(tableName)) {
+            tableTags.add(table);
+            return table;
+        }
+        return OTHER_TABLE;
+    }
+
+    /**
+     * 单次操作的分段计时器，非线程安全，只在发起操作的线程中使用
+     */
+    public class Trace {
+
+        private final String tableName;
+        private final String operation;
+        private final long startedAt;
+        private final Map<String, Long> stages = new LinkedHashMap<>();
+        private long lastMark;
+        private String outcome = "success";
+        private String table;
+
+        private Trace(String tableName, String operation) {
+            this.tableName = tableName;
+            this.operation = operation;
+            this.startedAt = System.nanoTime();
+            this.lastMark = startedAt;
+        }
+
+        /**
+         * 结束当前阶段：自上一次标记以来的耗时计入该阶段
+         */
+        public void lap(String stage) {
+            long now = System.nanoTime();
+            add(stage, now - lastMark);
+            lastMark = now;
+        }
+
+        /**
+         * 结束执行阶段，超过阈值时记录慢查询日志
+         *
+         * @param sql 执行的SQL（带占位符）
+         * @return 执行阶段耗时（纳秒）
+         */
+        public long lapExecute(String sql) {
+            return lapExecute(sql, 0);
+        }
+
+        /**
+         * 结束执行阶段，扣除期间已计入其他阶段的耗时
+         *
+         * @param sql 执行的SQL（带占位符）
+         * @param excludedNanos 执行期间交错进行、已单独计入其他阶段的耗时
+         * @return 执行阶段耗时（纳秒）
+         */
+        public long lapExecute(String sql, long excludedNanos) {
+            long now = System.nanoTime();
+            long elapsed = now - lastMark - excludedNanos;
+            add("execute", elapsed);
+            lastMark = now;
+            if (elapsed >= slowQueryThresholdNanos) {
+                registry.counter("dynamic.crud.slow.queries", "table", table(), "operation", operation).increment();
+                slowQueryLog.warn("慢查询 {}ms table={} operation={} sql={}",
+                        TimeUnit.NANOSECONDS.toMillis(elapsed), table(), operation, sql);
+            }
+            return elapsed;
+        }
+
+        /**
+         * 向某阶段累加耗时（用于与其他阶段交错进行的阶段，如流式输出中的序列化）
+         */
+        public void add(String stage, long nanos) {
+            stages.merge(stage, nanos, Long::sum);
+        }
+
+        /**
+         * table 标签，首次使用时确定（此时表已经过校验）
+         */
+        private String table() {
+            if (table == null) {
+                table = tableTag(tableName);
+            }
+            return table;
+        }
+
+        /**
+         * 标记操作失败
+         */
+        public void failed() {
+            outcome = "error";
+        }
+
+        /**
+         * 结束计时并记录全部阶段和总耗时
+         */
+        public void finish() {
+            long total = System.nanoTime() - startedAt;
+            for (Map.Entry<String, Long> stage : stages.entrySet()) {
+                Timer.builder("dynamic.crud.stage")
+                        .description("动态CRUD各阶段耗时")
+                        .tag("stage", stage.getKey())
+                        .tag("table", table())
+                        .tag("operation", operation)
+                        .tag("outcome", outcome)
+                        .register(registry)
+                        .record(stage.getValue(), TimeUnit.NANOSECONDS);
+            }
+            Timer.builder("dynamic.crud.operation")
+                    .description("动态CRUD操作总耗时")
+                    .tag("table", table())
+                    .tag("operation", operation)
+                    .tag("outcome", outcome)
+                    .register(registry)
+                    .record(total, TimeUnit.NANOSECONDS);
+        }
+    }
+}
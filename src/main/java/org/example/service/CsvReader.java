@@ -0,0 +1,113 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+/**
+ * 流式 CSV 读取器（RFC 4180）
+ * 逐条读取记录，支持引号包围的字段、字段内的分隔符/换行以及 "" 转义，只保留当前记录，不缓冲整个输入。
+ * 未加引号的空字段读作 null，加引号的空字段（""）读作空字符串。
+ */
+final class CsvReader {
+
+    private final Reader reader;
+    private final char delimiter;
+    private final char[] buffer = new char[8192];
+    private final StringBuilder field = new StringBuilder();
+    private int position;
+    private int limit;
+    private long line = 1;
+    private long recordLine;
+
+    CsvReader(Reader reader, char delimiter) {
+        this.reader = reader;
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * 读取下一条非空记录
+     *
+     * @param fields 接收字段值的列表，读取前清空
+     * @return 读到记录时返回 true，输入结束时返回 false
+     * @throws IllegalArgumentException 引号未闭合或闭合引号后有多余字符
+     */
+    boolean next(List<String> fields) throws IOException {
+        while (true) {
+            fields.clear();
+            int c = read();
+            if (c == -1) {
+                return false;
+            }
+            recordLine = line;
+            c = readRecord(fields, c);
+            if (c == '\r') {
+                c = read();
+                if (c != '\n' && c != -1) {
+                    position--;
+                }
+            }
+            line++;
+            if (fields.size() > 1 || fields.get(0) != null) {
+                return true;
+            }
+            // 跳过空行
+        }
+    }
+
+    /**
+     * 当前记录开始的行号（从 1 开始）
+     */
+    long recordLine() {
+        return recordLine;
+    }
+
+    private int readRecord(List<String> fields, int c) throws IOException {
+        while (true) {
+            field.setLength(0);
+            boolean quoted = c == '"';
+            if (quoted) {
+                while (true) {
+                    c = read();
+                    if (c == -1) {
+                        throw new IllegalArgumentException("第 " + recordLine + " 行: 引号未闭合");
+                    }
+                    if (c == '"') {
+                        c = read();
+                        if (c != '"') {
+                            break;
+                        }
+                    } else if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+                if (c != delimiter && c != '\r' && c != '\n' && c != -1) {
+                    throw new IllegalArgumentException("第 " + line + " 行: 闭合引号后有多余字符");
+                }
+            } else {
+                while (c != delimiter && c != '\r' && c != '\n' && c != -1) {
+                    field.append((char) c);
+                    c = read();
+                }
+            }
+            fields.add(quoted || field.length() > 0 ? field.toString() : null);
+            if (c != delimiter) {
+                return c;
+            }
+            c = read();
+        }
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = reader.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        return buffer[position++];
+    }
+}
@@ -0,0 +1,17 @@
+package org.example.service;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记访问数据库的公开服务方法，经代理调用时由 {@link DbAdmissionLimiter} 限制并发
+ * 只读取内存状态的方法（配置值、游标计算、基于缓存的校验）不标记，不占用许可。
+ */
+@Documented
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface DbAccess {
+}
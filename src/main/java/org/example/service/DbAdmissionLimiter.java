@@ -0,0 +1,81 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据库并发准入控制
+ * 在 {@link DynamicCrudService} 和 {@link IndexService}（建索引、删索引等长时间运行的语句）中
+ * 标记了 {@link DbAccess} 的方法之前用信号量限制同时访问数据库的调用数，许可数默认等于 Hikari 连接池大小；
+ * 只读取内存状态的方法（如 getMaxSelectLimit、nextCursor）不申请许可。
+ * 导入经 DynamicCrudService 逐块写入，每块单独申请许可。两个服务互不调用，同一调用链不会重复申请许可。
+ * 超出的调用在信号量上排队（虚拟线程下排队几乎没有开销），而不是全部涌向连接池；
+ * 等待超过 dynamic.admission.max-wait-ms 时抛出 {@link AdmissionRejectedException}。
+ * 切面优先级最高，在事务开启、获取连接之前执行。
+ */
+@Aspect
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class DbAdmissionLimiter {
+
+    private final boolean enabled;
+    private final int permits;
+    private final long maxWaitNanos;
+    private final Semaphore semaphore;
+    private final Timer waitTimer;
+    private final Counter rejections;
+
+    public DbAdmissionLimiter(MeterRegistry registry,
+                              @Value("${dynamic.admission.enabled:false}") boolean enabled,
+                              @Value("${dynamic.admission.permits:${spring.datasource.hikari.maximum-pool-size:10}}") int permits,
+                              @Value("${dynamic.admission.max-wait-ms:5000}") long maxWaitMs) {
+        this.enabled = enabled;
+        this.permits = permits;
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxWaitMs);
+        this.semaphore = new Semaphore(permits, true);
+        this.waitTimer = Timer.builder("dynamic.admission.wait")
+                .description("等待数据库并发许可的时间")
+                .register(registry);
+        this.rejections = Counter.builder("dynamic.admission.rejected")
+                .description("等待许可超时而被拒绝的调用数")
+                .register(registry);
+        Gauge.builder("dynamic.admission.in-use", semaphore, s -> permits - s.availablePermits())
+                .description("正在访问数据库的调用数")
+                .register(registry);
+        Gauge.builder("dynamic.admission.queued", semaphore, Semaphore::getQueueLength)
+                .description("正在排队等待许可的调用数")
+                .register(registry);
+    }
+
+    @Around("@annotation(org.example.service.DbAccess)")
+    public Object admit(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (!enabled) {
+            return joinPoint.proceed();
+        }
+
+        long start = System.nanoTime();
+        boolean acquired = semaphore.tryAcquire(maxWaitNanos, TimeUnit.NANOSECONDS);
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejections.increment();
+            throw new AdmissionRejectedException("数据库并发已达上限（" + permits + "），请稍后重试");
+        }
+        try {
+            return joinPoint.proceed();
+        } finally {
+            semaphore.release();
+        }
+    }
+}
@@ -1,148 +1,1455 @@
 package org.example.service;
 
+import com.fasterxml.jackson.core.JsonParser;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
-import jakarta.persistence.Query;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Savepoint;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.BiFunction;
+import java.util.function.Supplier;
 
 @Service
 public class DynamicCrudService {
     
-    @PersistenceContext
-    private EntityManager entityManager;
+    /**
+     * MySQL 单条语句允许的最大占位符数量
+     */
+    static final int MAX_PLACEHOLDERS = 65535;
+    
+    @Autowired
+    private SqlExecutionEngine engine;
     
     @Autowired
     private DynamicSqlGenerator sqlGenerator;
     
+    @Autowired
+    private TableSchemaRegistry schemaRegistry;
+    
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    @Autowired
+    private SelectResultCache resultCache;
+    
+    @Autowired
+    private CrudMetrics metrics;
+    
+    @Autowired
+    private IndexAdvisor indexAdvisor;
+    
+    @Autowired
+    private JsonRowReader jsonRowReader;
+    
+    @Autowired
+    private ReplicaRouting replicaRouting;
+    
+    @Autowired
+    private ChangeFeed changeFeed;
+    
+    @Value("${dynamic.batch.chunk-size:500}")
+    private int batchChunkSize;
+    
+    @Value("${dynamic.batch.max-operations:100}")
+    private int maxBatchOperations;
+    
+    @Value("${dynamic.select.max-limit:10000}")
+    private int maxSelectLimit;
+    
+    @Value("${dynamic.select.stream-fetch-size:-2147483648}")
+    private int streamFetchSize;
+    
     /**
      * 动态插入数据
      */
     @Transactional
+    @DbAccess
     public int insert(String tableName, Map<String, Object> data) {
+        CrudMetrics.Trace trace = metrics.start(tableName, "insert");
+        try {
+            // 验证表是否存在
+            TableSchema schema = validateTableExists(tableName);
+            trace.lap("metadata");
+            
+            if (data.isEmpty()) {
+                throw new IllegalArgumentException("数据不能为空");
+            }
+            
+            SqlTemplate template = sqlGenerator.insertTemplate(tableName, data.keySet());
+            trace.lap("sqlgen");
+            // 按模板顺序取参数
+            List<Object> values = template.bindValues(data, List.of());
+            trace.lap("bind");
+            
+            String generatedKey = generatedKeyColumn(schema, data.keySet());
+            List<Map<String, Object>> keys = new ArrayList<>(1);
+            int affected = executeInsert(template.getSql(), values, generatedKey, keys);
+            trace.lapExecute(template.getSql());
+            Object key = generatedKey == null ? primaryKeyOf(schema, data) : keys.isEmpty() ? null : keys.get(0);
+            rowsChanged(tableName, "insert", key, data.keySet(), affected);
+            return affected;
+        } catch (RuntimeException e) {
+            trace.failed();
+            throw e;
+        } finally {
+            trace.finish();
+        }
+    }
+    
+    /**
+     * 批量插入数据
+     * 按列集合对行分组，每组再按块大小切分，每块使用一条多行 INSERT ... VALUES (...),(...) 语句，
+     * 并在独立事务中执行，某一块失败不影响其他块。
+     *
+     * @param tableName 表名
+     * @param rows 数据行
+     * @return 每个块的执行结果
+     */
+    @DbAccess
+    public List<Map<String, Object>> batchInsert(String tableName, List<Map<String, Object>> rows) {
+        return writeInChunks(tableName, rows, (columns, chunk) -> insertChunk(tableName, columns, chunk));
+    }
+    
+    /**
+     * 按列集合对行分组并切块，每块在独立事务中由 writer 以一条多行语句写入
+     *
+     * @param writer 参数为块的列（已排序）和行，返回影响行数
+     * @return 每个块的执行结果
+     */
+    private List<Map<String, Object>> writeInChunks(String tableName, List<Map<String, Object>> rows,
+                                                    BiFunction<List<String>, List<Map<String, Object>>, Integer> writer) {
+        if (rows == null || rows.isEmpty()) {
+            throw new IllegalArgumentException("数据不能为空");
+        }
+        
         // 验证表是否存在
         validateTableExists(tableName);
         
-        String sql = sqlGenerator.generateInsertSql(data, tableName);
-        Query query = entityManager.createNativeQuery(sql);
+        // 按列集合分组，保持各组首次出现的顺序
+        Map<List<String>, List<Map<String, Object>>> groups = new LinkedHashMap<>();
+        for (Map<String, Object> row : rows) {
+            if (row == null || row.isEmpty()) {
+                throw new IllegalArgumentException("数据不能为空");
+            }
+            List<String> columns = new ArrayList<>(new TreeSet<>(row.keySet()));
+            groups.computeIfAbsent(columns, k -> new ArrayList<>()).add(row);
+        }
         
-        // 绑定参数
-        List<Object> values = sqlGenerator.getInsertValues(data);
-        for (int i = 0; i < values.size(); i++) {
-            query.setParameter(i + 1, values.get(i));
+        List<Map<String, Object>> chunkResults = new ArrayList<>();
+        for (Map.Entry<List<String>, List<Map<String, Object>>> group : groups.entrySet()) {
+            List<String> columns = group.getKey();
+            List<Map<String, Object>> groupRows = group.getValue();
+            int chunkSize = Math.max(1, Math.min(batchChunkSize, MAX_PLACEHOLDERS / columns.size()));
+            
+            for (int from = 0; from < groupRows.size(); from += chunkSize) {
+                List<Map<String, Object>> chunk = groupRows.subList(from, Math.min(from + chunkSize, groupRows.size()));
+                chunkResults.add(runChunk(chunkResults.size(), columns, chunk.size(), null,
+                        () -> writer.apply(columns, chunk)));
+            }
+        }
+        return chunkResults;
+    }
+    
+    /**
+     * 流式插入单行
+     * JSON 直接读入从池中借用的行缓冲区，按表结构的列位置绑定到 PreparedStatement，不构造中间的 Map。
+     * 解析在事务之外进行。
+     *
+     * @param tableName 表名
+     * @param json JSON 对象
+     * @return 影响行数
+     */
+    @DbAccess
+    public int insertJson(String tableName, InputStream json) {
+        CrudMetrics.Trace trace = metrics.start(tableName, "insert");
+        RowBuffer row = jsonRowReader.acquireRowBuffer();
+        RowBatch batch = jsonRowReader.acquireRowBatch();
+        try {
+            // 验证表是否存在
+            TableSchema schema = validateTableExists(tableName);
+            trace.lap("metadata");
+            
+            try (JsonParser parser = jsonRowReader.open(json)) {
+                if (!jsonRowReader.readRow(parser, schema, row) || row.size() == 0) {
+                    throw new IllegalArgumentException("数据不能为空");
+                }
+            } catch (IOException e) {
+                throw new IllegalArgumentException("JSON 解析失败: " + e.getMessage());
+            }
+            trace.lap("parse");
+            
+            batch.reset(schema, 1, MAX_PLACEHOLDERS);
+            batch.add(row);
+            return transactionTemplate().execute(status -> insertBatch(tableName, batch, trace));
+        } catch (RuntimeException e) {
+            trace.failed();
+            throw e;
+        } finally {
+            jsonRowReader.release(row);
+            jsonRowReader.release(batch);
+            trace.finish();
         }
+    }
+    
+    /**
+     * 流式批量插入
+     * 逐个读取 JSON 数组中的对象，列集合相同的连续行放入从池中借用的批缓冲区，
+     * 批满（块大小或占位符上限）或列集合变化时立即以一条多行 INSERT 在独立事务中写入，
+     * 因此内存占用与请求大小无关。与 {@link #batchInsert} 不同，只合并相邻的同列集合行。
+     * 解析失败时已写入的块保留，失败位置作为最后一个失败块返回。
+     *
+     * @param tableName 表名
+     * @param json JSON 数组
+     * @return 每个块的执行结果
+     */
+    @DbAccess
+    public List<Map<String, Object>> batchInsertJson(String tableName, InputStream json) {
+        // 验证表是否存在
+        TableSchema schema = validateTableExists(tableName);
         
-        return query.executeUpdate();
+        List<Map<String, Object>> chunkResults = new ArrayList<>();
+        RowBuffer row = jsonRowReader.acquireRowBuffer();
+        RowBatch batch = jsonRowReader.acquireRowBatch();
+        batch.reset(schema, batchChunkSize, MAX_PLACEHOLDERS);
+        int rowNumber = 0;
+        long parseStart = System.nanoTime();
+        try (JsonParser parser = jsonRowReader.open(json)) {
+            jsonRowReader.startArray(parser);
+            while (jsonRowReader.readRow(parser, schema, row)) {
+                if (row.size() == 0) {
+                    throw new IllegalArgumentException("数据不能为空");
+                }
+                if (!batch.accepts(row)) {
+                    long parseNanos = System.nanoTime() - parseStart;
+                    chunkResults.add(runChunk(chunkResults.size(), batch.columnNames(), batch.size(), null,
+                            () -> insertBatchChunk(tableName, batch, parseNanos)));
+                    batch.clear();
+                    parseStart = System.nanoTime();
+                }
+                batch.add(row);
+                rowNumber++;
+            }
+            if (!batch.isEmpty()) {
+                long parseNanos = System.nanoTime() - parseStart;
+                chunkResults.add(runChunk(chunkResults.size(), batch.columnNames(), batch.size(), null,
+                        () -> insertBatchChunk(tableName, batch, parseNanos)));
+            } else if (rowNumber == 0) {
+                throw new IllegalArgumentException("数据不能为空");
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            if (rowNumber == 0 && chunkResults.isEmpty()) {
+                throw e instanceof IllegalArgumentException
+                        ? (IllegalArgumentException) e
+                        : new IllegalArgumentException("JSON 解析失败: " + e.getMessage());
+            }
+            // 尚未写入的行随失败块一起放弃
+            Map<String, Object> failure = new LinkedHashMap<>();
+            failure.put("chunk", chunkResults.size());
+            failure.put("columns", batch.isEmpty() ? List.of() : batch.columnNames());
+            failure.put("rows", batch.size());
+            failure.put("success", false);
+            failure.put("affectedRows", 0);
+            failure.put("message", "第 " + (rowNumber + 1) + " 行解析失败: " + e.getMessage());
+            chunkResults.add(failure);
+        } finally {
+            jsonRowReader.release(row);
+            jsonRowReader.release(batch);
+        }
+        return chunkResults;
+    }
+    
+    /**
+     * 在独立事务中以一条多行 INSERT 写入批缓冲区中的行
+     *
+     * @param tableName 表名
+     * @param batch 列集合相同的一批行
+     * @return 影响行数
+     */
+    @DbAccess
+    public int insertRows(String tableName, RowBatch batch) {
+        CrudMetrics.Trace trace = metrics.start(tableName, "batch_insert");
+        try {
+            return transactionTemplate().execute(status -> insertBatch(tableName, batch, trace));
+        } catch (RuntimeException e) {
+            trace.failed();
+            throw e;
+        } finally {
+            trace.finish();
+        }
+    }
+    
+    /**
+     * 通过 LOAD DATA LOCAL INFILE 写入批缓冲区中的行（仅 MySQL）
+     * 行编码为制表符分隔的文本，作为本地文件流交给驱动发送，需要在连接参数中开启 allowLoadLocalInfile=true。
+     * 重复键或无效值的行被忽略。
+     *
+     * @param tableName 表名
+     * @param batch 列集合相同的一批行
+     * @return 实际写入的行数
+     */
+    @DbAccess
+    public int loadData(String tableName, RowBatch batch) {
+        CrudMetrics.Trace trace = metrics.start(tableName, "load_data");
+        try {
+            String sql = sqlGenerator.generateLoadDataSql(tableName, batch.columnNames(), batch.binaryColumnNames());
+            trace.lap("sqlgen");
+            byte[] data = batch.toTabSeparated();
+            trace.lap("bind");
+            return transactionTemplate().execute(status -> {
+                int affected = engine.loadLocalInfile(sql, new ByteArrayInputStream(data));
+                trace.lapExecute(sql);
+                // LOAD DATA 无法取回生成的主键，只能给出行中提供的主键；
+                // IGNORE 跳过了重复行时无法得知跳过的是哪些行，不给出主键
+                Object key = changeFeed.isEnabled() && affected == batch.size() ? batch.primaryKeys() : null;
+                rowsChanged(tableName, "insert", key, batch.columnNames(), affected);
+                return affected;
+            });
+        } catch (RuntimeException e) {
+            trace.failed();
+            throw e;
+        } finally {
+            trace.finish();
+        }
+    }
+    
+    private int insertBatchChunk(String tableName, RowBatch batch, long parseNanos) {
+        CrudMetrics.Trace trace = metrics.start(tableName, "batch_insert");
+        try {
+            trace.add("parse", parseNanos);
+            return insertBatch(tableName, batch, trace);
+        } catch (RuntimeException e) {
+            trace.failed();
+            throw e;
+        } finally {
+            trace.finish();
+        }
+    }
+    
+    /**
+     * 以一条多行 INSERT 写入批缓冲区中的行，值按模板顺序从缓冲区取出后经执行引擎绑定
+     */
+    private int insertBatch(String tableName, RowBatch batch, CrudMetrics.Trace trace) {
+        String sql = sqlGenerator.generateMultiRowInsertSql(tableName, batch.columnNames(), batch.size());
+        trace.lap("sqlgen");
+        List<Object> values = batch.parameters();
+        trace.lap("bind");
+        String generatedKey = generatedKeyColumn(batch.getSchema(), batch.columnNames());
+        List<Map<String, Object>> keys = new ArrayList<>();
+        int affected = executeInsert(sql, values, generatedKey, keys);
+        trace.lapExecute(sql);
+        List<Map<String, Object>> rowKeys = generatedKey != null ? keys : changeFeed.isEnabled() ? batch.primaryKeys() : null;
+        // 单行插入与 upsert 一致，键为主键 Map
+        Object key = rowKeys != null && rowKeys.size() == 1 && batch.size() == 1 ? rowKeys.get(0) : rowKeys;
+        rowsChanged(tableName, "insert", key, batch.columnNames(), affected);
+        return affected;
+    }
+    
+    /**
+     * 在独立事务中执行一个块并记录其结果
+     * 因暂时性错误（{@link #isTransient}）失败的块标记 retryable，调用方可以重试该块。
+     *
+     * @param chunkIndex 块序号
+     * @param columns 块涉及的列
+     * @param rows 块中的行数/键集合数
+     * @param mode 执行方式（如 in/batch），null 表示不记录
+     * @param work 块的执行逻辑，返回影响行数
+     */
+    private Map<String, Object> runChunk(int chunkIndex, List<String> columns, int rows, String mode,
+                                         Supplier<Integer> work) {
+        Map<String, Object> chunkResult = new LinkedHashMap<>();
+        chunkResult.put("chunk", chunkIndex);
+        chunkResult.put("columns", columns);
+        chunkResult.put("rows", rows);
+        if (mode != null) {
+            chunkResult.put("mode", mode);
+        }
+        try {
+            Integer affected = transactionTemplate().execute(status -> work.get());
+            chunkResult.put("success", true);
+            chunkResult.put("affectedRows", affected);
+        } catch (Exception e) {
+            chunkResult.put("success", false);
+            chunkResult.put("affectedRows", 0);
+            chunkResult.put("message", e.getMessage());
+            if (isTransient(e)) {
+                chunkResult.put("retryable", true);
+            }
+        }
+        return chunkResult;
+    }
+    
+    /**
+     * 是否为稍后重试可能成功的错误：准入被拒绝、无法获取连接、连接中断、锁等待或语句超时等
+     */
+    static boolean isTransient(Throwable e) {
+        return e instanceof AdmissionRejectedException
+                || e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof DataAccessResourceFailureException
+                || e instanceof CannotCreateTransactionException;
+    }
+    
+    /**
+     * 以一条多行INSERT语句写入一个块
+     */
+    private int insertChunk(String tableName, List<String> columns, List<Map<String, Object>> chunk) {
+        CrudMetrics.Trace trace = metrics.start(tableName, "batch_insert");
+        try {
+            String sql = sqlGenerator.generateMultiRowInsertSql(tableName, columns, chunk.size());
+            trace.lap("sqlgen");
+            List<Object> values = new ArrayList<>(chunk.size() * columns.size());
+            for (Map<String, Object> row : chunk) {
+                for (String column : columns) {
+                    values.add(row.get(column));
+                }
+            }
+            trace.lap("bind");
+            
+            TableSchema schema = schemaRegistry.getSchema(tableName);
+            String generatedKey = generatedKeyColumn(schema, columns);
+            List<Map<String, Object>> keys = new ArrayList<>();
+            int affected = executeInsert(sql, values, generatedKey, keys);
+            trace.lapExecute(sql);
+            if (generatedKey == null && changeFeed.isEnabled() && primaryKeyOf(schema, chunk.get(0)) != null) {
+                for (Map<String, Object> row : chunk) {
+                    keys.add(primaryKeyOf(schema, row));
+                }
+            }
+            rowsChanged(tableName, "insert", keys.isEmpty() ? null : keys, columns, affected);
+            return affected;
+        } catch (RuntimeException e) {
+            trace.failed();
+            throw e;
+        } finally {
+            trace.finish();
+        }
+    }
+    
+    /**
+     * 插入或更新一行：以一条 INSERT ... ON DUPLICATE KEY UPDATE 语句完成，主键或唯一键冲突时更新除主键外的列
+     *
+     * @return 影响行数：MySQL 中新插入为 1，更新为 2，值未变化为 0
+     */
+    @Transactional
+    @DbAccess
+    public int upsert(String tableName, Map<String, Object> data) {
+        CrudMetrics.Trace trace = metrics.start(tableName, "upsert");
+        try {
+            // 验证表是否存在
+            TableSchema schema = validateTableExists(tableName);
+            trace.lap("metadata");
+            
+            if (data.isEmpty()) {
+                throw new IllegalArgumentException("数据不能为空");
+            }
+            
+            SqlTemplate template = sqlGenerator.upsertTemplate(tableName, data.keySet(), schema.getPrimaryKeys(), 1);
+            trace.lap("sqlgen");
+            List<Object> values = template.bindValues(data, List.of());
+            trace.lap("bind");
+            
+            int affected = engine.update(template.getSql(), values);
+            trace.lapExecute(template.getSql());
+            rowsChanged(tableName, "upsert", primaryKeyOf(schema, data), data.keySet(), affected);
+            return affected;
+        } catch (RuntimeException e) {
+            trace.failed();
+            throw e;
+        } finally {
+            trace.finish();
+        }
+    }
+    
+    /**
+     * 批量插入或更新
+     * 与 {@link #batchInsert} 相同地按列集合分组切块，每块使用一条多行 INSERT ... ON DUPLICATE KEY UPDATE 语句，
+     * 并在独立事务中执行。
+     *
+     * @param tableName 表名
+     * @param rows 数据行
+     * @return 每个块的执行结果
+     */
+    @DbAccess
+    public List<Map<String, Object>> batchUpsert(String tableName, List<Map<String, Object>> rows) {
+        return writeInChunks(tableName, rows, (columns, chunk) -> upsertChunk(tableName, columns, chunk));
+    }
+    
+    /**
+     * 以一条多行 INSERT ... ON DUPLICATE KEY UPDATE 语句写入一个块
+     */
+    private int upsertChunk(String tableName, List<String> columns, List<Map<String, Object>> chunk) {
+        CrudMetrics.Trace trace = metrics.start(tableName, "batch_upsert");
+        try {
+            TableSchema schema = validateTableExists(tableName);
+            SqlTemplate template = sqlGenerator.upsertTemplate(tableName, columns, schema.getPrimaryKeys(), chunk.size());
+            trace.lap("sqlgen");
+            List<Object> values = new ArrayList<>(chunk.size() * columns.size());
+            List<Map<String, Object>> keys = new ArrayList<>(chunk.size());
+            for (Map<String, Object> row : chunk) {
+                for (String column : columns) {
+                    values.add(row.get(column));
+                }
+                keys.add(primaryKeyOf(schema, row));
+            }
+            trace.lap("bind");
+            
+            int affected = engine.update(template.getSql(), values);
+            trace.lapExecute(template.getSql());
+            rowsChanged(tableName, "upsert", keys, columns, affected);
+            return affected;
+        } catch (RuntimeException e) {
+            trace.failed();
+            throw e;
+        } finally {
+            trace.finish();
+        }
+    }
+    
+    /**
+     * 需要取回生成值的主键列：变更流已启用、主键为单列自增列且插入的列中没有它时返回该列，否则返回 null
+     */
+    private String generatedKeyColumn(TableSchema schema, Collection<String> columns) {
+        if (!changeFeed.isEnabled() || schema.getPrimaryKeys().size() != 1) {
+            return null;
+        }
+        TableSchema.Column keyColumn = schema.getColumn(schema.getPrimaryKeys().get(0));
+        if (keyColumn == null || keyColumn.getExtra() == null
+                || !keyColumn.getExtra().toLowerCase(Locale.ROOT).contains("auto_increment")) {
+            return null;
+        }
+        for (String column : columns) {
+            if (column.equalsIgnoreCase(keyColumn.getName())) {
+                return null;
+            }
+        }
+        return keyColumn.getName();
+    }
+    
+    /**
+     * 执行 INSERT，generatedKey 不为 null 时取回每行生成的主键
+     *
+     * @param keys 接收每行的主键，形如 {主键列: 值}，按插入顺序
+     */
+    private int executeInsert(String sql, List<Object> values, String generatedKey, List<Map<String, Object>> keys) {
+        if (generatedKey == null) {
+            return engine.update(sql, values);
+        }
+        List<Object> generated = new ArrayList<>();
+        int affected = engine.insert(sql, values, generated);
+        for (Object value : generated) {
+            Map<String, Object> key = new LinkedHashMap<>();
+            key.put(generatedKey, value);
+            keys.add(key);
+        }
+        return affected;
+    }
+    
+    /**
+     * 取出行中的主键值，未包含主键列时返回 null
+     */
+    private static Map<String, Object> primaryKeyOf(TableSchema schema, Map<String, Object> row) {
+        Map<String, Object> key = new LinkedHashMap<>();
+        for (String column : row.keySet()) {
+            if (schema.getPrimaryKeys().stream().anyMatch(column::equalsIgnoreCase)) {
+                key.put(column, row.get(column));
+            }
+        }
+        return key.isEmpty() ? null : key;
     }
     
     /**
      * 动态查询数据
      */
-    @Transactional(readOnly = true)
+    @DbAccess
     public List<Object[]> select(String tableName, Map<String, Object> conditions) {
+        return select(tableName, conditions, SelectOptions.none()).getRows();
+    }
+    
+    /**
+     * 动态查询数据，支持列投影、行数上限和键集分页游标
+     * 结果经 {@link SelectResultCache} 缓存，命中时既不开启事务也不访问数据库；
+     * 未命中时在只读事务中查询。
+     *
+     * @return 列名与值数组形式的查询结果，调用方不应修改
+     */
+    @DbAccess
+    public QueryResult select(String tableName, Map<String, Object> conditions, SelectOptions options) {
+        CrudMetrics.Trace trace = metrics.start(tableName, "select");
+        try {
+            // 先校验表，不存在的表名不进入结果缓存
+            TableSchema schema = validateTableExists(tableName);
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                // 在调用方的事务中（如 executeBatch）：结果可能包含未提交的数据，缓存中的结果也看不到本事务的修改，
+                // 因此不经过缓存，直接在该事务中查询，失败时也不会把外层事务标记为只能回滚
+                return doSelect(tableName, conditions, options, trace);
+            }
+            Supplier<QueryResult> loader =
+                    () -> readOnlyTransactionTemplate().execute(status -> doSelect(tableName, conditions, options, trace));
+            if (replicaRouting.pinnedToPrimary()) {
+                // 读己之写：缓存中的结果可能来自尚未同步的副本
+                return loader.get();
+            }
+            return resultCache.get(schema, "select", conditions, options, loader);
+        } catch (RuntimeException e) {
+            trace.failed();
+            throw e;
+        } finally {
+            trace.finish();
+        }
+    }
+    
+    private QueryResult doSelect(String tableName, Map<String, Object> conditions, SelectOptions options,
+                                 CrudMetrics.Trace trace) {
         // 验证表是否存在
-        validateTableExists(tableName);
+        TableSchema schema = validateTableExists(tableName);
+        trace.lap("metadata");
         
-        String sql = sqlGenerator.generateSelectSql(tableName, conditions);
-        Query query = entityManager.createNativeQuery(sql);
+        List<String> projection = resolveProjection(schema, options);
+        List<Condition> whereConditions = resolveConditions(schema, conditions);
+        // 结果整体读入内存，未指定 limit 时同样以 dynamic.select.max-limit 为上限，不限行数的读取需使用流式查询
+        SqlTemplate template = selectTemplate(schema, projection, whereConditions, options, true);
+        trace.lap("sqlgen");
         
-        // 绑定查询条件参数
-        if (conditions != null) {
-            int index = 1;
-            for (Object value : conditions.values()) {
-                query.setParameter(index++, value);
-            }
-        }
+        // 按模板顺序取查询条件参数，分页参数在后
+        List<Object> values = template.bindValues(null, whereConditions);
+        appendPagingValues(values, schema, options, maxSelectLimit);
+        trace.lap("bind");
         
-        return query.getResultList();
+        List<String> columns = resultColumns(schema, projection);
+        List<Object[]> rows = engine.query(template.getSql(), values);
+        indexAdvisor.record(tableName, whereConditions, trace.lapExecute(template.getSql()));
+        return new QueryResult(columns, rows);
     }
     
     /**
-     * 动态更新数据
+     * 校验流式查询的表、投影列、查询条件和查询选项，不访问数据库（表结构未缓存时除外）
+     * 流式输出在开始写出响应之后才执行查询，调用方应先校验，以便出错时仍能返回普通的错误响应。
+     *
+     * @throws IllegalArgumentException 列不存在、条件或选项无效
+     * @throws RuntimeException 表不存在
      */
-    @Transactional
-    public int update(String tableName, Map<String, Object> data, Map<String, Object> conditions) {
+    public void validateStreamSelect(String tableName, Map<String, Object> conditions, SelectOptions options) {
+        TableSchema schema = validateTableExists(tableName);
+        List<String> projection = resolveProjection(schema, options);
+        List<Condition> whereConditions = resolveConditions(schema, conditions);
+        selectTemplate(schema, projection, whereConditions, options, options.getLimit() != null);
+        appendPagingValues(new ArrayList<>(), schema, options, Integer.MAX_VALUE);
+    }
+    
+    /**
+     * 流式查询数据
+     * 使用只进、只读的JDBC结果集并设置 fetchSize，逐行交给 sink 处理，不在内存中累积结果。
+     * 不开启JPA事务，避免长时间持有持久化上下文。
+     *
+     * @param tableName 表名
+     * @param conditions 查询条件
+     * @param options 查询选项（行数上限不受 dynamic.select.max-limit 限制）
+     * @param sink 行接收者
+     */
+    @DbAccess
+    public void streamSelect(String tableName, Map<String, Object> conditions, SelectOptions options, RowSink sink) {
+        CrudMetrics.Trace trace = metrics.start(tableName, "stream_select");
+        try {
+            // 验证表是否存在
+            TableSchema schema = validateTableExists(tableName);
+            trace.lap("metadata");
+            
+            List<String> projection = resolveProjection(schema, options);
+            List<Condition> whereConditions = resolveConditions(schema, conditions);
+            SqlTemplate template = selectTemplate(schema, projection, whereConditions, options,
+                    options.getLimit() != null);
+            List<Object> values = template.bindValues(null, whereConditions);
+            appendPagingValues(values, schema, options, Integer.MAX_VALUE);
+            trace.lap("sqlgen");
+            
+            List<String> columns = resultColumns(schema, projection);
+            sink.columns(columns);
+            int columnCount = columns.size();
+            long[] serializeNanos = {0};
+            // sink 在调用返回后不再引用数组，所有行复用同一个
+            Object[] row = new Object[columnCount];
+            // 不开启事务，显式标记为读取以便路由到副本
+            replicaRouting.read(() -> jdbcTemplate.query(connection -> {
+                PreparedStatement ps = connection.prepareStatement(template.getSql(),
+                        ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+                ps.setFetchSize(streamFetchSize);
+                for (int i = 0; i < values.size(); i++) {
+                    ps.setObject(i + 1, values.get(i));
+                }
+                return ps;
+            }, (RowCallbackHandler) rs -> {
+                for (int i = 0; i < columnCount; i++) {
+                    row[i] = rs.getObject(i + 1);
+                }
+                long start = System.nanoTime();
+                sink.row(row);
+                serializeNanos[0] += System.nanoTime() - start;
+            }));
+            // 执行阶段只计数据库读取，写出行的耗时单独计入 serialize
+            trace.add("serialize", serializeNanos[0]);
+            indexAdvisor.record(tableName, whereConditions, trace.lapExecute(template.getSql(), serializeNanos[0]));
+        } catch (RuntimeException e) {
+            trace.failed();
+            throw e;
+        } finally {
+            trace.finish();
+        }
+    }
+    
+    /**
+     * 获取结果中最后一行的主键值，作为下一页的游标
+     *
+     * @return 游标值，表没有单列主键、结果未包含主键列或结果为空时返回 null
+     */
+    public Object nextCursor(String tableName, QueryResult result) {
+        List<Object[]> rows = result.getRows();
+        if (rows.isEmpty()) {
+            return null;
+        }
+        TableSchema schema = schemaRegistry.getSchema(tableName);
+        if (schema.getPrimaryKeys().size() != 1) {
+            return null;
+        }
+        int index = result.indexOf(schema.getPrimaryKeys().get(0));
+        return index < 0 ? null : rows.get(rows.size() - 1)[index];
+    }
+    
+    /**
+     * 在数据库中执行分组聚合，只返回聚合后的结果
+     * 分组列、聚合列、条件列均按表结构校验，SUM/AVG 只能用于数值列；未指定聚合项时为 COUNT(*)。
+     * 结果与普通查询一样经 {@link SelectResultCache} 缓存，写操作提交后失效；未命中时在只读事务中查询。
+     *
+     * @return 列为分组列和聚合结果列（如 count、sum_amount）
+     */
+    @DbAccess
+    public QueryResult aggregate(String tableName, Map<String, Object> conditions, AggregateOptions options) {
+        CrudMetrics.Trace trace = metrics.start(tableName, "aggregate");
+        try {
+            TableSchema schema = validateTableExists(tableName);
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                // 同 select：调用方事务中的查询不经过缓存
+                return doAggregate(tableName, conditions, options, trace);
+            }
+            Supplier<QueryResult> loader =
+                    () -> readOnlyTransactionTemplate().execute(status -> doAggregate(tableName, conditions, options, trace));
+            if (replicaRouting.pinnedToPrimary()) {
+                return loader.get();
+            }
+            return resultCache.get(schema, "aggregate", conditions, aggregateCacheShape(options), loader);
+        } catch (RuntimeException e) {
+            trace.failed();
+            throw e;
+        } finally {
+            trace.finish();
+        }
+    }
+    
+    private QueryResult doAggregate(String tableName, Map<String, Object> conditions, AggregateOptions options,
+                                    CrudMetrics.Trace trace) {
         // 验证表是否存在
-        validateTableExists(tableName);
+        TableSchema schema = validateTableExists(tableName);
+        trace.lap("metadata");
+        
+        if (options.getLimit() != null && options.getLimit() <= 0) {
+            throw new IllegalArgumentException("limit 必须大于0");
+        }
+        List<String> groupBy = new ArrayList<>();
+        if (options.isGrouped()) {
+            for (String column : options.getGroupBy()) {
+                String canonical = canonicalColumn(schema, column);
+                if (!groupBy.contains(canonical)) {
+                    groupBy.add(canonical);
+                }
+            }
+        }
+        List<AggregateOptions.Term> aggregates = resolveAggregates(schema, options);
+        List<String> columns = new ArrayList<>(groupBy);
+        for (AggregateOptions.Term term : aggregates) {
+            if (columns.contains(term.alias())) {
+                throw new IllegalArgumentException("聚合结果列 '" + term.alias() + "' 与分组列重复");
+            }
+            columns.add(term.alias());
+        }
+        List<String> orderBy = new ArrayList<>();
+        if (options.getOrderBy() != null) {
+            for (String term : options.getOrderBy()) {
+                String name = term.trim();
+                boolean descending = name.startsWith("-");
+                String column = resultColumn(columns, descending ? name.substring(1) : name);
+                orderBy.add(descending ? "-" + column : column);
+            }
+        }
+        
+        List<Condition> whereConditions = resolveConditions(schema, conditions);
+        SqlTemplate template = sqlGenerator.aggregateTemplate(schema.getTableName(), groupBy, aggregates,
+                whereConditions, orderBy);
+        trace.lap("sqlgen");
         
-        String sql = sqlGenerator.generateUpdateSql(tableName, data, conditions);
-        Query query = entityManager.createNativeQuery(sql);
+        // 按模板顺序取查询条件参数，分组数上限在后
+        List<Object> values = template.bindValues(null, whereConditions);
+        int groupLimit = options.getLimit() == null ? maxSelectLimit : Math.min(options.getLimit(), maxSelectLimit);
+        // 上限来自 dynamic.select.max-limit 时多取一组，以判断是否有分组被截断
+        boolean capped = groupLimit == maxSelectLimit && maxSelectLimit != Integer.MAX_VALUE
+                && (options.getLimit() == null || options.getLimit() > maxSelectLimit);
+        values.add(capped ? groupLimit + 1 : groupLimit);
+        trace.lap("bind");
         
-        // 绑定参数
-        int index = 1;
-        for (Object value : data.values()) {
-            query.setParameter(index++, value);
+        List<Object[]> rows = engine.query(template.getSql(), values);
+        indexAdvisor.record(tableName, whereConditions, trace.lapExecute(template.getSql()));
+        boolean truncated = capped && rows.size() > groupLimit;
+        if (truncated) {
+            rows = new ArrayList<>(rows.subList(0, groupLimit));
+        }
+        return new QueryResult(columns, rows, truncated);
+    }
+    
+    /**
+     * 校验聚合项的列并转换为规范列名，去掉重复项
+     */
+    private static List<AggregateOptions.Term> resolveAggregates(TableSchema schema, AggregateOptions options) {
+        List<AggregateOptions.Term> requested = options.getAggregates().isEmpty()
+                ? List.of(new AggregateOptions.Term(AggregateOptions.Function.COUNT, "*"))
+                : options.getAggregates();
+        List<AggregateOptions.Term> aggregates = new ArrayList<>(requested.size());
+        for (AggregateOptions.Term term : requested) {
+            AggregateOptions.Term resolved;
+            if (term.isCountAll()) {
+                if (term.function() != AggregateOptions.Function.COUNT) {
+                    throw new IllegalArgumentException(term.function() + " 不能用于 *，只有 COUNT 可以");
+                }
+                resolved = term;
+            } else {
+                TableSchema.Column column = columnOf(schema, term.column());
+                boolean arithmetic = term.function() == AggregateOptions.Function.SUM
+                        || term.function() == AggregateOptions.Function.AVG;
+                if (arithmetic && !column.isNumeric()) {
+                    throw new IllegalArgumentException("列 '" + column.getName() + "' 的类型 " + column.getType()
+                            + " 不是数值类型，不能计算 " + term.function());
+                }
+                resolved = new AggregateOptions.Term(term.function(), column.getName());
+            }
+            if (!aggregates.contains(resolved)) {
+                aggregates.add(resolved);
+            }
+        }
+        return aggregates;
+    }
+    
+    private static String resultColumn(List<String> columns, String name) {
+        for (String column : columns) {
+            if (column.equalsIgnoreCase(name)) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("排序项 '" + name + "' 必须是分组列或聚合结果列 " + columns);
+    }
+    
+    /**
+     * 以查询选项描述聚合结果的形状，作为结果缓存键的一部分
+     */
+    private static SelectOptions aggregateCacheShape(AggregateOptions options) {
+        List<String> terms = new ArrayList<>();
+        if (options.isGrouped()) {
+            terms.addAll(options.getGroupBy());
+        }
+        for (AggregateOptions.Term term : options.getAggregates()) {
+            terms.add(term.function() + "(" + term.column() + ")");
+        }
+        SelectOptions shape = new SelectOptions();
+        shape.setColumns(terms);
+        shape.setOrderBy(options.getOrderBy());
+        shape.setLimit(options.getLimit());
+        return shape;
+    }
+    
+    /**
+     * 校验投影列并转换为表结构中的规范列名
+     *
+     * @return 投影列，未指定投影时返回 null
+     */
+    private List<String> resolveProjection(TableSchema schema, SelectOptions options) {
+        if (!options.isProjected()) {
+            return null;
+        }
+        List<String> projection = new ArrayList<>();
+        for (String column : options.getColumns()) {
+            String canonical = canonicalColumn(schema, column);
+            if (!projection.contains(canonical)) {
+                projection.add(canonical);
+            }
+        }
+        return projection;
+    }
+    
+    private static List<String> resultColumns(TableSchema schema, List<String> projection) {
+        if (projection != null) {
+            return projection;
+        }
+        List<String> columns = new ArrayList<>(schema.getColumns().size());
+        for (TableSchema.Column column : schema.getColumns()) {
+            columns.add(column.getName());
+        }
+        return columns;
+    }
+    
+    /**
+     * 校验查询条件的列，转换为表结构中的规范列名，并按列类型转换参数值
+     * 请求参数总是字符串，按列类型绑定后数据库才能对数值列使用索引范围扫描。
+     *
+     * @return 按列名、运算符排序的条件
+     */
+    private List<Condition> resolveConditions(TableSchema schema, Map<String, Object> conditions) {
+        List<Condition> resolved = new ArrayList<>();
+        for (Condition condition : Condition.parseAll(conditions)) {
+            resolved.add(condition.resolve(columnOf(schema, condition.getColumn())));
+        }
+        return resolved;
+    }
+    
+    /**
+     * 校验行中的列，转换为表结构中的规范列名，并按列类型转换值
+     *
+     * @throws IllegalArgumentException 列不存在，或同一列（忽略大小写）出现多次
+     */
+    private static Map<String, Object> resolveColumns(TableSchema schema, Map<String, Object> row) {
+        Map<String, Object> resolved = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : row.entrySet()) {
+            TableSchema.Column column = columnOf(schema, entry.getKey());
+            if (resolved.containsKey(column.getName())) {
+                throw new IllegalArgumentException("列 '" + column.getName() + "' 重复");
+            }
+            resolved.put(column.getName(), column.convert(entry.getValue()));
+        }
+        return resolved;
+    }
+    
+    private static String canonicalColumn(TableSchema schema, String column) {
+        return columnOf(schema, column).getName();
+    }
+    
+    private static TableSchema.Column columnOf(TableSchema schema, String column) {
+        TableSchema.Column meta = schema.getColumn(column.trim());
+        if (meta == null) {
+            throw new IllegalArgumentException("列 '" + column + "' 在表 '" + schema.getTableName() + "' 中不存在");
+        }
+        return meta;
+    }
+    
+    /**
+     * 根据查询选项生成SELECT模板
+     * 指定 orderBy 时按其排序；否则使用游标或限制行数时按单列主键排序，以保证分页顺序稳定。
+     *
+     * @param limited 是否带 LIMIT 占位符（未指定 limit 时绑定 {@link #appendPagingValues} 的上限）
+     */
+    private SqlTemplate selectTemplate(TableSchema schema, List<String> projection, List<Condition> conditions,
+                                       SelectOptions options, boolean limited) {
+        if (options.getLimit() != null && options.getLimit() <= 0) {
+            throw new IllegalArgumentException("limit 必须大于0");
         }
         
-        for (Object value : conditions.values()) {
-            query.setParameter(index++, value);
+        List<String> orderBy = new ArrayList<>();
+        if (options.isOrdered()) {
+            if (options.getAfter() != null) {
+                throw new IllegalArgumentException("after 游标按主键排序，不能与 orderBy 同时使用");
+            }
+            for (String term : options.getOrderBy()) {
+                String column = term.trim();
+                boolean descending = column.startsWith("-");
+                column = canonicalColumn(schema, descending ? column.substring(1) : column);
+                orderBy.add(descending ? "-" + column : column);
+            }
         }
         
-        return query.executeUpdate();
+        String afterColumn = null;
+        if (options.isPaged() && !options.isOrdered()) {
+            if (schema.getPrimaryKeys().size() == 1) {
+                String keyColumn = schema.getPrimaryKeys().get(0);
+                orderBy.add(keyColumn);
+                afterColumn = options.getAfter() != null ? keyColumn : null;
+            } else if (options.getAfter() != null) {
+                throw new IllegalArgumentException("表 '" + schema.getTableName() + "' 没有单列主键，无法使用游标分页");
+            }
+        }
+        return sqlGenerator.selectTemplate(schema.getTableName(), projection, conditions, afterColumn, orderBy,
+                limited);
+    }
+    
+    /**
+     * 追加游标和行数参数
+     *
+     * @param maxLimit 行数上限；为 Integer.MAX_VALUE（流式查询）时只在指定了 limit 时追加，否则总是追加，
+     *                 未指定 limit 时取该上限
+     */
+    private static void appendPagingValues(List<Object> values, TableSchema schema, SelectOptions options, int maxLimit) {
+        if (options.getAfter() != null) {
+            // 游标按单列主键比较，同样按主键类型绑定
+            values.add(columnOf(schema, schema.getPrimaryKeys().get(0)).convert(options.getAfter()));
+        }
+        if (options.getLimit() != null) {
+            values.add(Math.min(options.getLimit(), maxLimit));
+        } else if (maxLimit != Integer.MAX_VALUE) {
+            values.add(maxLimit);
+        }
+    }
+
+    /**
+     * 非流式查询一次最多返回的行数（dynamic.select.max-limit）
+     */
+    public int getMaxSelectLimit() {
+        return maxSelectLimit;
+    }
+    
+    /**
+     * 动态更新数据
+     */
+    @Transactional
+    @DbAccess
+    public int update(String tableName, Map<String, Object> data, Map<String, Object> conditions) {
+        CrudMetrics.Trace trace = metrics.start(tableName, "update");
+        try {
+            // 验证表是否存在
+            TableSchema schema = validateTableExists(tableName);
+            trace.lap("metadata");
+            
+            if (data.isEmpty()) {
+                throw new IllegalArgumentException("更新数据不能为空");
+            }
+            
+            List<Condition> whereConditions = resolveConditions(schema, conditions);
+            SqlTemplate template = sqlGenerator.updateTemplate(tableName, data.keySet(), whereConditions);
+            trace.lap("sqlgen");
+            // 按模板顺序取参数：SET 列在前，WHERE 条件在后
+            List<Object> values = template.bindValues(data, whereConditions);
+            trace.lap("bind");
+            
+            int affected = engine.update(template.getSql(), values);
+            indexAdvisor.record(tableName, whereConditions, trace.lapExecute(template.getSql()));
+            rowsChanged(tableName, "update", new LinkedHashMap<>(conditions), data.keySet(), affected);
+            return affected;
+        } catch (RuntimeException e) {
+            trace.failed();
+            throw e;
+        } finally {
+            trace.finish();
+        }
     }
     
     /**
      * 动态删除数据
      */
     @Transactional
+    @DbAccess
     public int delete(String tableName, Map<String, Object> conditions) {
+        CrudMetrics.Trace trace = metrics.start(tableName, "delete");
+        try {
+            // 验证表是否存在
+            TableSchema schema = validateTableExists(tableName);
+            trace.lap("metadata");
+            
+            List<Condition> whereConditions = resolveConditions(schema, conditions);
+            SqlTemplate template = sqlGenerator.deleteTemplate(tableName, whereConditions);
+            trace.lap("sqlgen");
+            // 按模板顺序取查询条件参数
+            List<Object> values = template.bindValues(null, whereConditions);
+            trace.lap("bind");
+            
+            int affected = engine.update(template.getSql(), values);
+            indexAdvisor.record(tableName, whereConditions, trace.lapExecute(template.getSql()));
+            rowsChanged(tableName, "delete", new LinkedHashMap<>(conditions), null, affected);
+            return affected;
+        } catch (RuntimeException e) {
+            trace.failed();
+            throw e;
+        } finally {
+            trace.finish();
+        }
+    }
+    
+    /**
+     * 按键集合批量删除
+     * 键列先校验并转换为表结构中的规范列名，值按列类型转换；
+     * 按键列集合分组，每组切块后合并为一条 WHERE id IN (...) 或 WHERE (a, b) IN ((...), ...) 语句，
+     * 每块在独立事务中执行。
+     *
+     * @param tableName 表名
+     * @param keySets 键集合列表，每项为列名到值的等值条件
+     * @return 每个块的执行结果
+     */
+    @DbAccess
+    public List<Map<String, Object>> bulkDelete(String tableName, List<Map<String, Object>> keySets) {
+        if (keySets == null || keySets.isEmpty()) {
+            throw new IllegalArgumentException("条件不能为空");
+        }
+        
         // 验证表是否存在
-        validateTableExists(tableName);
+        TableSchema schema = validateTableExists(tableName);
         
-        String sql = sqlGenerator.generateDeleteSql(tableName, conditions);
-        Query query = entityManager.createNativeQuery(sql);
+        Map<List<String>, List<Map<String, Object>>> groups = new LinkedHashMap<>();
+        for (Map<String, Object> requested : keySets) {
+            if (requested == null || requested.isEmpty()) {
+                // 空条件会删除整张表，批量接口不允许
+                throw new IllegalArgumentException("条件不能为空");
+            }
+            Map<String, Object> keySet = resolveColumns(schema, requested);
+            groups.computeIfAbsent(new ArrayList<>(new TreeSet<>(keySet.keySet())), k -> new ArrayList<>()).add(keySet);
+        }
+        
+        List<Map<String, Object>> chunkResults = new ArrayList<>();
+        for (Map.Entry<List<String>, List<Map<String, Object>>> group : groups.entrySet()) {
+            List<String> keyColumns = group.getKey();
+            List<Map<String, Object>> groupKeys = group.getValue();
+            int chunkSize = Math.max(1, Math.min(batchChunkSize, MAX_PLACEHOLDERS / keyColumns.size()));
+            
+            for (int from = 0; from < groupKeys.size(); from += chunkSize) {
+                List<Map<String, Object>> chunk = groupKeys.subList(from, Math.min(from + chunkSize, groupKeys.size()));
+                chunkResults.add(runChunk(chunkResults.size(), keyColumns, chunk.size(), "in",
+                        () -> deleteInChunk(tableName, keyColumns, chunk)));
+            }
+        }
+        return chunkResults;
+    }
+    
+    /**
+     * 批量更新
+     * SET 列和条件列先校验并转换为表结构中的规范列名，值按列类型转换；
+     * 按 (SET 列集合, 条件列集合) 分组，组内 SET 值相同的多项合并为 UPDATE ... WHERE key IN (...)，
+     * 其余项使用 JDBC 批处理执行同一条预编译语句。每块在独立事务中执行。
+     *
+     * @param tableName 表名
+     * @param updates 更新项列表
+     * @return 每个块的执行结果
+     */
+    @DbAccess
+    public List<Map<String, Object>> bulkUpdate(String tableName, List<BulkUpdate> updates) {
+        if (updates == null || updates.isEmpty()) {
+            throw new IllegalArgumentException("更新数据不能为空");
+        }
+        
+        // 验证表是否存在
+        TableSchema schema = validateTableExists(tableName);
+        
+        Map<List<List<String>>, List<BulkUpdate>> groups = new LinkedHashMap<>();
+        for (BulkUpdate requested : updates) {
+            if (requested == null || requested.getData() == null || requested.getData().isEmpty()) {
+                throw new IllegalArgumentException("更新数据不能为空");
+            }
+            if (requested.getConditions() == null || requested.getConditions().isEmpty()) {
+                // 空条件会更新整张表，批量接口不允许
+                throw new IllegalArgumentException("条件不能为空");
+            }
+            BulkUpdate update = new BulkUpdate();
+            update.setData(resolveColumns(schema, requested.getData()));
+            update.setConditions(resolveColumns(schema, requested.getConditions()));
+            List<List<String>> groupKey = List.of(
+                    new ArrayList<>(new TreeSet<>(update.getData().keySet())),
+                    new ArrayList<>(new TreeSet<>(update.getConditions().keySet())));
+            groups.computeIfAbsent(groupKey, k -> new ArrayList<>()).add(update);
+        }
+        
+        List<Map<String, Object>> chunkResults = new ArrayList<>();
+        for (Map.Entry<List<List<String>>, List<BulkUpdate>> group : groups.entrySet()) {
+            List<String> setColumns = group.getKey().get(0);
+            List<String> keyColumns = group.getKey().get(1);
+            
+            // 组内按SET值再划分：值相同的多项合并为 IN 语句，其余项走JDBC批处理
+            Map<Map<String, Object>, List<BulkUpdate>> byData = new LinkedHashMap<>();
+            for (BulkUpdate update : group.getValue()) {
+                byData.computeIfAbsent(update.getData(), k -> new ArrayList<>()).add(update);
+            }
+            List<BulkUpdate> batched = new ArrayList<>();
+            int inChunkSize = Math.max(1, Math.min(batchChunkSize,
+                    (MAX_PLACEHOLDERS - setColumns.size()) / keyColumns.size()));
+            for (Map.Entry<Map<String, Object>, List<BulkUpdate>> sameData : byData.entrySet()) {
+                List<BulkUpdate> items = sameData.getValue();
+                if (items.size() == 1) {
+                    batched.add(items.get(0));
+                    continue;
+                }
+                for (int from = 0; from < items.size(); from += inChunkSize) {
+                    List<BulkUpdate> chunk = items.subList(from, Math.min(from + inChunkSize, items.size()));
+                    chunkResults.add(runChunk(chunkResults.size(), keyColumns, chunk.size(), "in",
+                            () -> updateInChunk(tableName, setColumns, keyColumns, sameData.getKey(), chunk)));
+                }
+            }
+            for (int from = 0; from < batched.size(); from += batchChunkSize) {
+                List<BulkUpdate> chunk = batched.subList(from, Math.min(from + batchChunkSize, batched.size()));
+                chunkResults.add(runChunk(chunkResults.size(), keyColumns, chunk.size(), "batch",
+                        () -> updateBatchChunk(tableName, setColumns, keyColumns, chunk)));
+            }
+        }
+        return chunkResults;
+    }
+    
+    /**
+     * 以一条 IN 语句删除一个块
+     */
+    private int deleteInChunk(String tableName, List<String> keyColumns, List<Map<String, Object>> chunk) {
+        CrudMetrics.Trace trace = metrics.start(tableName, "bulk_delete");
+        try {
+            SqlTemplate template = sqlGenerator.deleteInTemplate(tableName, keyColumns, chunk.size());
+            trace.lap("sqlgen");
+            List<Object> values = new ArrayList<>(chunk.size() * keyColumns.size());
+            for (Map<String, Object> keySet : chunk) {
+                for (String column : keyColumns) {
+                    values.add(keySet.get(column));
+                }
+            }
+            trace.lap("bind");
+            
+            int affected = engine.update(template.getSql(), values);
+            trace.lapExecute(template.getSql());
+            rowsChanged(tableName, "delete", new ArrayList<>(chunk), null, affected);
+            return affected;
+        } catch (RuntimeException e) {
+            trace.failed();
+            throw e;
+        } finally {
+            trace.finish();
+        }
+    }
+    
+    /**
+     * 以一条 IN 语句按相同SET值更新一个块
+     */
+    private int updateInChunk(String tableName, List<String> setColumns, List<String> keyColumns,
+                              Map<String, Object> data, List<BulkUpdate> chunk) {
+        CrudMetrics.Trace trace = metrics.start(tableName, "bulk_update");
+        try {
+            SqlTemplate template = sqlGenerator.updateInTemplate(tableName, setColumns, keyColumns, chunk.size());
+            trace.lap("sqlgen");
+            List<Object> values = new ArrayList<>(setColumns.size() + chunk.size() * keyColumns.size());
+            for (String column : setColumns) {
+                values.add(data.get(column));
+            }
+            for (BulkUpdate update : chunk) {
+                for (String column : keyColumns) {
+                    values.add(update.getConditions().get(column));
+                }
+            }
+            trace.lap("bind");
+            
+            int affected = engine.update(template.getSql(), values);
+            trace.lapExecute(template.getSql());
+            rowsChanged(tableName, "update", conditionsOf(chunk), setColumns, affected);
+            return affected;
+        } catch (RuntimeException e) {
+            trace.failed();
+            throw e;
+        } finally {
+            trace.finish();
+        }
+    }
+    
+    /**
+     * 以JDBC批处理更新一个块，各项的SET值可以不同
+     */
+    private int updateBatchChunk(String tableName, List<String> setColumns, List<String> keyColumns,
+                                 List<BulkUpdate> chunk) {
+        CrudMetrics.Trace trace = metrics.start(tableName, "bulk_update");
+        try {
+            SqlTemplate template = sqlGenerator.updateTemplate(tableName, setColumns, keyColumns);
+            trace.lap("sqlgen");
+            List<Object[]> batchArgs = new ArrayList<>(chunk.size());
+            for (BulkUpdate update : chunk) {
+                batchArgs.add(template.bindValues(update.getData(), update.getConditions()).toArray());
+            }
+            trace.lap("bind");
+            
+            int[] counts = engine.batchUpdate(template.getSql(), batchArgs);
+            trace.lapExecute(template.getSql());
+            int affected = 0;
+            boolean unknown = false;
+            for (int count : counts) {
+                // 驱动可能返回 SUCCESS_NO_INFO(-2)，此时无法得知具体行数
+                affected += Math.max(count, 0);
+                unknown |= count < 0;
+            }
+            rowsChanged(tableName, "update", conditionsOf(chunk), setColumns, unknown ? -1 : affected);
+            return affected;
+        } catch (RuntimeException e) {
+            trace.failed();
+            throw e;
+        } finally {
+            trace.finish();
+        }
+    }
+    
+    /**
+     * 多表批处理：在同一事务（同一连接）中按顺序执行一组 insert/upsert/select/update/delete 操作
+     * 各操作复用单表方法及其SQL模板，select 能看到本事务中之前操作的修改。
+     * failFast 为 true 时遇到第一个失败的操作即停止并回滚全部操作；为 false 时每个操作前在事务的连接上设置
+     * JDBC 保存点，失败的操作回滚到保存点后继续执行后续操作，最后提交成功的操作。
+     * JPA 事务管理器不支持保存点，且 Hibernate 会在原生查询失败时将事务标记为只能回滚，
+     * 因此 failFast=false 只适用于 jdbc 执行引擎。
+     *
+     * @param operations 按顺序执行的操作，数量不超过 dynamic.batch.max-operations
+     * @param failFast 是否在第一个失败时回滚全部操作
+     * @return 每个操作的执行结果，failFast 时失败之后的操作不出现在结果中
+     */
+    @DbAccess
+    public List<Map<String, Object>> executeBatch(List<BatchOperation> operations, boolean failFast) {
+        if (operations == null || operations.isEmpty()) {
+            throw new IllegalArgumentException("操作列表不能为空");
+        }
+        if (operations.size() > maxBatchOperations) {
+            throw new IllegalArgumentException("操作数量超过上限 " + maxBatchOperations);
+        }
+        if (!failFast && !"jdbc".equals(engine.name())) {
+            throw new IllegalStateException("failFast=false 需要 jdbc 执行引擎（dynamic.engine）");
+        }
         
-        // 绑定查询条件参数
-        if (conditions != null) {
-            int index = 1;
-            for (Object value : conditions.values()) {
-                query.setParameter(index++, value);
+        return transactionTemplate().execute(status -> {
+            List<Map<String, Object>> results = new ArrayList<>(operations.size());
+            for (int i = 0; i < operations.size(); i++) {
+                BatchOperation operation = operations.get(i);
+                Map<String, Object> result = new LinkedHashMap<>();
+                result.put("index", i);
+                result.put("op", operation == null ? null : operation.getOp());
+                result.put("table", operation == null ? null : operation.getTable());
+                results.add(result);
+                
+                Savepoint savepoint = failFast ? null : jdbcTemplate.execute((ConnectionCallback<Savepoint>) Connection::setSavepoint);
+                try {
+                    Map<String, Object> output = executeOperation(operation);
+                    result.put("success", true);
+                    result.putAll(output);
+                    if (savepoint != null) {
+                        jdbcTemplate.execute((ConnectionCallback<Object>) connection -> {
+                            connection.releaseSavepoint(savepoint);
+                            return null;
+                        });
+                    }
+                } catch (RuntimeException e) {
+                    result.put("success", false);
+                    result.put("message", e.getMessage());
+                    if (failFast) {
+                        status.setRollbackOnly();
+                        break;
+                    }
+                    jdbcTemplate.execute((ConnectionCallback<Object>) connection -> {
+                        connection.rollback(savepoint);
+                        return null;
+                    });
+                }
             }
+            return results;
+        });
+    }
+    
+    private Map<String, Object> executeOperation(BatchOperation operation) {
+        if (operation == null || operation.getOp() == null) {
+            throw new IllegalArgumentException("操作类型不能为空");
+        }
+        String tableName = operation.getTable();
+        if (tableName == null || tableName.isBlank()) {
+            throw new IllegalArgumentException("表名不能为空");
         }
+        Map<String, Object> data = operation.getData() == null ? Map.of() : operation.getData();
+        Map<String, Object> conditions = operation.getConditions() == null ? Map.of() : operation.getConditions();
         
-        return query.executeUpdate();
+        Map<String, Object> output = new LinkedHashMap<>();
+        switch (operation.getOp().toLowerCase(Locale.ROOT)) {
+            case "insert" -> output.put("affectedRows", insert(tableName, data));
+            case "upsert" -> output.put("affectedRows", upsert(tableName, data));
+            case "update" -> output.put("affectedRows", update(tableName, data, conditions));
+            case "delete" -> output.put("affectedRows", delete(tableName, conditions));
+            case "select" -> {
+                SelectOptions options = operation.getOptions() == null ? SelectOptions.none() : operation.getOptions();
+                QueryResult result = select(tableName, conditions, options);
+                output.put("columns", result.getColumns());
+                output.put("data", result.getRows());
+            }
+            default -> throw new IllegalArgumentException("不支持的操作类型: " + operation.getOp());
+        }
+        return output;
     }
     
     /**
      * 删除整个表
      */
     @Transactional
+    @DbAccess
     public void dropTable(String tableName) {
         // 验证表是否存在
         validateTableExists(tableName);
         
         String sql = "DROP TABLE " + tableName;
-        entityManager.createNativeQuery(sql).executeUpdate();
+        try {
+            engine.execute(sql);
+        } finally {
+            schemaRegistry.invalidate(tableName);
+            indexAdvisor.forget(tableName);
+            tableChanged(tableName);
+        }
     }
     
     /**
      * 执行任意SQL语句 (仅用于更新操作)
      */
     @Transactional
+    @DbAccess
     public int executeUpdateSql(String sql) {
-        Query query = entityManager.createNativeQuery(sql);
-        return query.executeUpdate();
+        int affected = engine.update(sql, List.of());
+        // 无法可靠识别任意SQL涉及的表，失效全部查询结果缓存
+        tableChanged(null);
+        return affected;
     }
     
     /**
      * 执行DDL语句 (如CREATE TABLE, ALTER TABLE等)
      */
     @Transactional
+    @DbAccess
     public void executeDdlSql(String sql) {
-        entityManager.createNativeQuery(sql).executeUpdate();
+        try {
+            engine.execute(sql);
+        } finally {
+            schemaRegistry.invalidateForDdl(sql);
+            tableChanged(TableSchemaRegistry.tableOfDdl(sql));
+        }
     }
     
     /**
      * 执行SELECT语句 (仅用于查询操作)
      */
     @Transactional(readOnly = true)
+    @DbAccess
     public List<Object> executeSelectSql(String sql) {
-        Query query = entityManager.createNativeQuery(sql);
-        return query.getResultList();
+        List<Object[]> rows = engine.query(sql, List.of());
+        List<Object> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            // 保持原有返回形式：单列结果为标量
+            result.add(row.length == 1 ? row[0] : row);
+        }
+        return result;
     }
     
     /**
@@ -153,32 +1460,81 @@ public class DynamicCrudService {
      */
     @Transactional(readOnly = true)
     public List<Object[]> getTableColumns(String tableName) {
-        // 验证表是否存在
-        validateTableExists(tableName);
-        
-        String sql = "DESCRIBE " + tableName;
-        Query query = entityManager.createNativeQuery(sql);
-        return query.getResultList();
+        // 直接由表结构注册表提供，格式与DESCRIBE一致
+        return schemaRegistry.getSchema(tableName).toDescribeRows();
+    }
+    
+    private static List<Map<String, Object>> conditionsOf(List<BulkUpdate> updates) {
+        List<Map<String, Object>> conditions = new ArrayList<>(updates.size());
+        for (BulkUpdate update : updates) {
+            conditions.add(update.getConditions());
+        }
+        return conditions;
     }
     
     /**
-     * 验证表是否存在
-     * @param tableName 表名
+     * 登记行数据变更：除 {@link #tableChanged(String, Runnable)} 的处理外，提交后向变更流发布事件（影响 0 行时不发布）
+     *
+     * @param op insert、update、delete 或 upsert
+     * @param key 变更的条件，见 {@link ChangeEvent#key()}
+     * @param columns 写入的列，delete 为 null
+     * @param rows 影响行数，-1 表示未知
      */
-    private void validateTableExists(String tableName) {
-        try {
-            // 使用DESCRIBE语句检查表是否存在，这是MySQL中检查表是否存在的更好方法
-            entityManager.createNativeQuery("DESCRIBE " + tableName).getResultList();
-        } catch (Exception e) {
-            // 如果DESCRIBE失败，再尝试使用SHOW TABLES检查
-            try {
-                List<Object> tables = entityManager.createNativeQuery("SHOW TABLES LIKE '" + tableName + "'").getResultList();
-                if (tables.isEmpty()) {
-                    throw new RuntimeException("表 '" + tableName + "' 不存在");
-                }
-            } catch (Exception ex) {
-                throw new RuntimeException("表 '" + tableName + "' 不存在或无法访问: " + ex.getMessage());
+    private void rowsChanged(String tableName, String op, Object key, Collection<String> columns, int rows) {
+        tableChanged(tableName, rows == 0 ? null : () -> changeFeed.publish(tableName, op, key, columns, rows));
+    }
+    
+    private void tableChanged(String tableName) {
+        tableChanged(tableName, null);
+    }
+    
+    /**
+     * 登记表数据变更：在当前事务提交后（无事务时立即）失效该表的查询结果缓存，
+     * 并使当前客户端随后的读取在一段时间内走主库
+     *
+     * @param tableName 表名，null 表示无法确定，失效全部缓存
+     * @param committed 提交后额外执行的操作，可以为 null
+     */
+    private void tableChanged(String tableName, Runnable committed) {
+        Runnable invalidation = () -> {
+            if (tableName == null) {
+                resultCache.invalidateAll();
+            } else {
+                resultCache.invalidate(tableName);
             }
+            replicaRouting.wrote();
+            if (committed != null) {
+                committed.run();
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidation.run();
+                }
+            });
+        } else {
+            invalidation.run();
         }
     }
+    
+    private TransactionTemplate transactionTemplate() {
+        return new TransactionTemplate(transactionManager);
+    }
+    
+    private TransactionTemplate readOnlyTransactionTemplate() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+    
+    /**
+     * 验证表是否存在
+     * @param tableName 表名
+     */
+    private TableSchema validateTableExists(String tableName) {
+        // 由内存中的表结构注册表校验，命中时不产生数据库查询
+        return schemaRegistry.getSchema(tableName);
+    }
 }
\ No newline at end of file
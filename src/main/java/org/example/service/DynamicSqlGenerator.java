@@ -1,17 +1,25 @@
 package org.example.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
 import java.lang.reflect.Field;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 public class DynamicSqlGenerator {
     
+    @Autowired
+    private SqlTemplateCache templateCache;
+    
     /**
      * 根据对象生成INSERT SQL语句
      */
@@ -39,35 +47,116 @@ public class DynamicSqlGenerator {
     }
     
     /**
-     * 根据Map生成INSERT SQL语句
+     * 根据Map生成INSERT SQL语句（列按名称排序，参数顺序见 {@link #getInsertValues}）
      */
     public String generateInsertSql(Map<String, Object> data, String tableName) {
         if (data.isEmpty()) {
             throw new IllegalArgumentException("数据不能为空");
         }
         
-        List<String> columnNames = new ArrayList<>(data.keySet());
-        List<String> placeholders = new ArrayList<>();
+        return insertTemplate(tableName, data.keySet()).getSql();
+    }
+    
+    /**
+     * 获取INSERT模板
+     *
+     * @param tableName 表名
+     * @param columns 列名集合
+     */
+    public SqlTemplate insertTemplate(String tableName, Collection<String> columns) {
+        List<String> columnNames = sorted(columns);
+        SqlTemplateCache.Key key = new SqlTemplateCache.Key(
+                SqlTemplateCache.Operation.INSERT, tableName, columnNames, Collections.emptyList(), 1, "");
+        return templateCache.get(key, () -> new SqlTemplate(
+                buildMultiRowInsertSql(tableName, columnNames, 1), columnNames, Collections.emptyList()));
+    }
+    
+    /**
+     * 生成多行INSERT SQL语句：INSERT INTO t (a, b) VALUES (?, ?), (?, ?)
+     *
+     * @param tableName 表名
+     * @param columnNames 列名（各行共用，按此顺序绑定）
+     * @param rowCount 行数
+     */
+    public String generateMultiRowInsertSql(String tableName, List<String> columnNames, int rowCount) {
+        if (columnNames.isEmpty() || rowCount <= 0) {
+            throw new IllegalArgumentException("数据不能为空");
+        }
         
+        SqlTemplateCache.Key key = new SqlTemplateCache.Key(
+                SqlTemplateCache.Operation.MULTI_INSERT, tableName, columnNames, Collections.emptyList(), rowCount, "");
+        return templateCache.get(key, () -> new SqlTemplate(
+                buildMultiRowInsertSql(tableName, columnNames, rowCount), columnNames, Collections.emptyList())).getSql();
+    }
+    
+    private String buildMultiRowInsertSql(String tableName, List<String> columnNames, int rowCount) {
+        StringBuilder rowPlaceholders = new StringBuilder("(");
         for (int i = 0; i < columnNames.size(); i++) {
-            placeholders.add("?");
+            rowPlaceholders.append(i == 0 ? "?" : ", ?");
         }
+        rowPlaceholders.append(")");
         
-        StringBuilder sql = new StringBuilder();
+        StringBuilder sql = new StringBuilder(32 + rowCount * (rowPlaceholders.length() + 2));
         sql.append("INSERT INTO ").append(tableName).append(" (");
         sql.append(String.join(", ", columnNames));
-        sql.append(") VALUES (");
-        sql.append(String.join(", ", placeholders));
-        sql.append(")");
+        sql.append(") VALUES ");
+        for (int i = 0; i < rowCount; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(rowPlaceholders);
+        }
         
         return sql.toString();
     }
     
+    /**
+     * 获取插入或更新（upsert）的模板：
+     * INSERT INTO t (a, b, id) VALUES (?, ?, ?), ... ON DUPLICATE KEY UPDATE a = VALUES(a), b = VALUES(b)
+     * 主键或唯一键冲突时以新值更新除主键外的列；只有主键列时冲突行保持不变。参数按行依次绑定，每行按列名排序。
+     *
+     * @param tableName 表名
+     * @param columns 列名集合
+     * @param keyColumns 主键列，不出现在 UPDATE 子句中
+     * @param rowCount 行数
+     */
+    public SqlTemplate upsertTemplate(String tableName, Collection<String> columns, Collection<String> keyColumns,
+                                      int rowCount) {
+        if (columns.isEmpty() || rowCount <= 0) {
+            throw new IllegalArgumentException("数据不能为空");
+        }
+        
+        List<String> columnNames = sorted(columns);
+        List<String> keys = sorted(keyColumns);
+        SqlTemplateCache.Key key = new SqlTemplateCache.Key(
+                SqlTemplateCache.Operation.UPSERT, tableName, columnNames, keys, rowCount, "");
+        return templateCache.get(key, () -> {
+            List<String> updateClauses = new ArrayList<>();
+            for (String column : columnNames) {
+                if (keys.stream().noneMatch(column::equalsIgnoreCase)) {
+                    updateClauses.add(column + " = VALUES(" + column + ")");
+                }
+            }
+            if (updateClauses.isEmpty()) {
+                // 没有可更新的列时以赋原值的方式忽略冲突
+                updateClauses.add(columnNames.get(0) + " = " + columnNames.get(0));
+            }
+            
+            String sql = buildMultiRowInsertSql(tableName, columnNames, rowCount)
+                    + " ON DUPLICATE KEY UPDATE " + String.join(", ", updateClauses);
+            return new SqlTemplate(sql, columnNames, Collections.emptyList());
+        });
+    }
+    
     /**
      * 获取用于INSERT的数据值列表
      */
     public List<Object> getInsertValues(Map<String, Object> data) {
-        return new ArrayList<>(data.values());
+        List<Object> values = new ArrayList<>(data.size());
+        for (String column : sorted(data.keySet())) {
+            values.add(data.get(column));
+        }
+        return values;
     }
     
     /**
@@ -102,69 +191,393 @@ public class DynamicSqlGenerator {
             throw new IllegalArgumentException("更新数据不能为空");
         }
         
-        List<String> setClauses = new ArrayList<>();
-        
-        for (String key : data.keySet()) {
-            setClauses.add(key + " = ?");
+        return updateTemplate(tableName, data.keySet(), Condition.parseAll(conditions)).getSql();
+    }
+    
+    /**
+     * 获取等值条件的UPDATE模板，参数顺序为 SET 列在前、WHERE 列在后
+     */
+    public SqlTemplate updateTemplate(String tableName, Collection<String> dataColumns, Collection<String> conditionColumns) {
+        return updateTemplate(tableName, dataColumns, Condition.equalities(conditionColumns));
+    }
+    
+    /**
+     * 获取UPDATE模板，参数顺序为 SET 列在前，其后为各条件的参数值
+     *
+     * @param conditions 已排序的条件（见 {@link Condition#parseAll}）
+     */
+    public SqlTemplate updateTemplate(String tableName, Collection<String> dataColumns, List<Condition> conditions) {
+        List<String> setColumns = sorted(dataColumns);
+        List<String> whereShapes = shapes(conditions);
+        SqlTemplateCache.Key key = new SqlTemplateCache.Key(
+                SqlTemplateCache.Operation.UPDATE, tableName, setColumns, whereShapes, 1, "");
+        return templateCache.get(key, () -> {
+            List<String> setClauses = new ArrayList<>();
+            for (String column : setColumns) {
+                setClauses.add(column + " = ?");
+            }
+            
+            StringBuilder sql = new StringBuilder();
+            sql.append("UPDATE ").append(tableName).append(" SET ");
+            sql.append(String.join(", ", setClauses));
+            appendWhere(sql, conditions);
+            return new SqlTemplate(sql.toString(), setColumns, whereShapes);
+        });
+    }
+    
+    /**
+     * 根据条件生成SELECT SQL语句
+     */
+    public String generateSelectSql(String tableName, Map<String, Object> conditions) {
+        return selectTemplate(tableName, null, Condition.parseAll(conditions), null, Collections.emptyList(), false).getSql();
+    }
+    
+    /**
+     * 获取等值条件的SELECT模板
+     */
+    public SqlTemplate selectTemplate(String tableName, Collection<String> conditionColumns) {
+        return selectTemplate(tableName, null, conditionColumns, null, false, false);
+    }
+    
+    /**
+     * 获取带投影和分页的等值条件SELECT模板：SELECT a, b FROM t WHERE 条件 AND key > ? ORDER BY key LIMIT ?
+     * 游标和行数参数依次位于条件参数之后。
+     *
+     * @param tableName 表名
+     * @param projection 投影列（按给定顺序输出），null 或空表示 *
+     * @param conditionColumns 等值条件列
+     * @param keyColumn 排序及游标使用的主键列，null 表示不排序
+     * @param afterKey 是否添加 key > ? 游标条件
+     * @param limited 是否添加 LIMIT ?
+     */
+    public SqlTemplate selectTemplate(String tableName, List<String> projection, Collection<String> conditionColumns,
+                                      String keyColumn, boolean afterKey, boolean limited) {
+        return selectTemplate(tableName, projection, Condition.equalities(conditionColumns),
+                afterKey ? keyColumn : null,
+                keyColumn == null ? Collections.emptyList() : List.of(keyColumn), limited);
+    }
+    
+    /**
+     * 获取SELECT模板：SELECT a, b FROM t WHERE 条件 AND key > ? ORDER BY a, b DESC LIMIT ?
+     * 参数顺序为各条件的参数值，其后依次为游标和行数。
+     *
+     * @param tableName 表名
+     * @param projection 投影列（按给定顺序输出），null 或空表示 *
+     * @param conditions 已排序的条件（见 {@link Condition#parseAll}）
+     * @param afterColumn 游标列，非 null 时添加 afterColumn > ? 条件
+     * @param orderBy 排序项，列名前加 - 表示降序
+     * @param limited 是否添加 LIMIT ?
+     */
+    public SqlTemplate selectTemplate(String tableName, List<String> projection, List<Condition> conditions,
+                                      String afterColumn, List<String> orderBy, boolean limited) {
+        List<String> whereShapes = shapes(conditions);
+        String selectList = projection == null || projection.isEmpty() ? "*" : String.join(", ", projection);
+        String variant = selectList + "|" + String.join(",", orderBy)
+                + (afterColumn == null ? "" : "|after:" + afterColumn) + (limited ? "|limit" : "");
+        SqlTemplateCache.Key key = new SqlTemplateCache.Key(
+                SqlTemplateCache.Operation.SELECT, tableName, Collections.emptyList(), whereShapes, 1, variant);
+        return templateCache.get(key, () -> {
+            StringBuilder sql = new StringBuilder();
+            sql.append("SELECT ").append(selectList).append(" FROM ").append(tableName);
+            List<String> whereConditions = predicates(conditions);
+            if (afterColumn != null) {
+                whereConditions.add(afterColumn + " > ?");
+            }
+            if (!whereConditions.isEmpty()) {
+                sql.append(" WHERE ").append(String.join(" AND ", whereConditions));
+            }
+            if (!orderBy.isEmpty()) {
+                List<String> sortTerms = new ArrayList<>(orderBy.size());
+                for (String term : orderBy) {
+                    sortTerms.add(term.startsWith("-") ? term.substring(1) + " DESC" : term);
+                }
+                sql.append(" ORDER BY ").append(String.join(", ", sortTerms));
+            }
+            if (limited) {
+                sql.append(" LIMIT ?");
+            }
+            return new SqlTemplate(sql.toString(), Collections.emptyList(), whereShapes);
+        });
+    }
+    
+    /**
+     * 获取聚合查询模板：SELECT g, COUNT(*) AS count, SUM(x) AS sum_x FROM t WHERE 条件 GROUP BY g ORDER BY ... LIMIT ?
+     * 参数顺序为各条件的参数值，其后为行数。
+     *
+     * @param tableName 表名
+     * @param groupBy 分组列，依次作为结果的前几列
+     * @param aggregates 聚合项，列名已校验
+     * @param conditions 已排序的条件（见 {@link Condition#parseAll}）
+     * @param orderBy 排序项（分组列或聚合结果列名），前加 - 表示降序
+     */
+    public SqlTemplate aggregateTemplate(String tableName, List<String> groupBy, List<AggregateOptions.Term> aggregates,
+                                         List<Condition> conditions, List<String> orderBy) {
+        List<String> whereShapes = shapes(conditions);
+        List<String> selectTerms = new ArrayList<>(groupBy);
+        for (AggregateOptions.Term term : aggregates) {
+            selectTerms.add(term.function().name() + "(" + term.column() + ") AS " + term.alias());
         }
-        
+        String selectList = String.join(", ", selectTerms);
+        String variant = selectList + "|" + String.join(",", orderBy);
+        SqlTemplateCache.Key key = new SqlTemplateCache.Key(
+                SqlTemplateCache.Operation.AGGREGATE, tableName, groupBy, whereShapes, 1, variant);
+        return templateCache.get(key, () -> {
+            StringBuilder sql = new StringBuilder();
+            sql.append("SELECT ").append(selectList).append(" FROM ").append(tableName);
+            appendWhere(sql, conditions);
+            if (!groupBy.isEmpty()) {
+                sql.append(" GROUP BY ").append(String.join(", ", groupBy));
+            }
+            if (!orderBy.isEmpty()) {
+                List<String> sortTerms = new ArrayList<>(orderBy.size());
+                for (String term : orderBy) {
+                    sortTerms.add(term.startsWith("-") ? term.substring(1) + " DESC" : term);
+                }
+                sql.append(" ORDER BY ").append(String.join(", ", sortTerms));
+            }
+            sql.append(" LIMIT ?");
+            return new SqlTemplate(sql.toString(), Collections.emptyList(), whereShapes);
+        });
+    }
+    
+    /**
+     * 根据条件生成DELETE SQL语句
+     */
+    public String generateDeleteSql(String tableName, Map<String, Object> conditions) {
+        return deleteTemplate(tableName, Condition.parseAll(conditions)).getSql();
+    }
+    
+    /**
+     * 获取等值条件的DELETE模板
+     */
+    public SqlTemplate deleteTemplate(String tableName, Collection<String> conditionColumns) {
+        return deleteTemplate(tableName, Condition.equalities(conditionColumns));
+    }
+    
+    /**
+     * 获取DELETE模板
+     *
+     * @param conditions 已排序的条件（见 {@link Condition#parseAll}）
+     */
+    public SqlTemplate deleteTemplate(String tableName, List<Condition> conditions) {
+        List<String> whereShapes = shapes(conditions);
+        SqlTemplateCache.Key key = new SqlTemplateCache.Key(
+                SqlTemplateCache.Operation.DELETE, tableName, Collections.emptyList(), whereShapes, 1, "");
+        return templateCache.get(key, () -> {
+            StringBuilder sql = new StringBuilder();
+            sql.append("DELETE FROM ").append(tableName);
+            appendWhere(sql, conditions);
+            return new SqlTemplate(sql.toString(), Collections.emptyList(), whereShapes);
+        });
+    }
+    
+    /**
+     * 获取按键集合批量删除的模板：DELETE FROM t WHERE id IN (?, ?) 或 WHERE (a, b) IN ((?, ?), (?, ?))
+     * 参数按键集合逐组绑定，每组内按 keyColumns 的顺序。
+     *
+     * @param tableName 表名
+     * @param keyColumns 键列（已排序）
+     * @param keyCount 键集合数量
+     */
+    public SqlTemplate deleteInTemplate(String tableName, List<String> keyColumns, int keyCount) {
+        SqlTemplateCache.Key key = new SqlTemplateCache.Key(
+                SqlTemplateCache.Operation.DELETE_IN, tableName, Collections.emptyList(), keyColumns, keyCount, "");
+        return templateCache.get(key, () -> new SqlTemplate(
+                "DELETE FROM " + tableName + " WHERE " + inPredicate(keyColumns, keyCount),
+                Collections.emptyList(), keyColumns));
+    }
+    
+    /**
+     * 获取以相同SET值批量更新多个键集合的模板：UPDATE t SET a = ? WHERE id IN (?, ?)
+     * 参数顺序为 SET 列在前，其后按键集合逐组绑定键列。
+     *
+     * @param tableName 表名
+     * @param setColumns SET 列（已排序）
+     * @param keyColumns 键列（已排序）
+     * @param keyCount 键集合数量
+     */
+    public SqlTemplate updateInTemplate(String tableName, List<String> setColumns, List<String> keyColumns, int keyCount) {
+        SqlTemplateCache.Key key = new SqlTemplateCache.Key(
+                SqlTemplateCache.Operation.UPDATE_IN, tableName, setColumns, keyColumns, keyCount, "");
+        return templateCache.get(key, () -> {
+            List<String> setClauses = new ArrayList<>();
+            for (String column : setColumns) {
+                setClauses.add(column + " = ?");
+            }
+            
+            String sql = "UPDATE " + tableName + " SET " + String.join(", ", setClauses)
+                    + " WHERE " + inPredicate(keyColumns, keyCount);
+            return new SqlTemplate(sql, setColumns, keyColumns);
+        });
+    }
+    
+    /**
+     * 根据示例数据生成CREATE TABLE SQL语句
+     * 自动添加自增主键 id，其余列的类型由 {@link ColumnTypes#inferColumnType} 根据示例值推断。
+     *
+     * @param tableName 表名
+     * @param sampleData 示例数据
+     * @return CREATE TABLE SQL语句
+     */
+    public String generateCreateTableSql(String tableName, Map<String, Object> sampleData) {
+        Map<String, String> columnTypes = new LinkedHashMap<>();
+        for (Map.Entry<String, Object> entry : sampleData.entrySet()) {
+            columnTypes.put(entry.getKey(), ColumnTypes.inferColumnType(entry.getValue()));
+        }
+        return generateCreateTableSqlForTypes(tableName, columnTypes);
+    }
+    
+    /**
+     * 按给定的列类型生成CREATE TABLE SQL语句（如 {@link SchemaInferencer} 的推断结果）
+     * 自动添加自增主键 id，列中的 id 被忽略。
+     *
+     * @param tableName 表名
+     * @param columnTypes 列名到列类型，按此顺序建列
+     * @return CREATE TABLE SQL语句
+     */
+    public String generateCreateTableSqlForTypes(String tableName, Map<String, String> columnTypes) {
         StringBuilder sql = new StringBuilder();
-        sql.append("UPDATE ").append(tableName).append(" SET ");
-        sql.append(String.join(", ", setClauses));
+        sql.append("CREATE TABLE IF NOT EXISTS ").append(tableName).append(" (");
+        sql.append("id BIGINT AUTO_INCREMENT PRIMARY KEY");
         
-        if (conditions != null && !conditions.isEmpty()) {
-            sql.append(" WHERE ");
-            List<String> whereConditions = new ArrayList<>();
+        for (Map.Entry<String, String> entry : columnTypes.entrySet()) {
+            String columnName = entry.getKey();
             
-            for (String key : conditions.keySet()) {
-                whereConditions.add(key + " = ?");
+            // 跳过id字段，因为我们已经添加了主键
+            if ("id".equalsIgnoreCase(columnName)) {
+                continue;
             }
             
-            sql.append(String.join(" AND ", whereConditions));
+            sql.append(", ");
+            sql.append(columnName).append(" ");
+            sql.append(entry.getValue());
         }
         
+        sql.append(")");
         return sql.toString();
     }
     
     /**
-     * 根据条件生成SELECT SQL语句
+     * 生成 MySQL 的 LOAD DATA LOCAL INFILE 语句，数据为 UTF-8 编码、制表符分隔、反斜杠转义的文本（LOAD DATA 的默认格式）
+     * 重复键或无效值的行被忽略（IGNORE），不中止整个语句。
+     * 二进制列的值以 Base64 文本传输，先读入同名用户变量再以 FROM_BASE64 解码。
+     *
+     * @param binaryColumns columns 中的二进制列
      */
-    public String generateSelectSql(String tableName, Map<String, Object> conditions) {
-        StringBuilder sql = new StringBuilder();
-        sql.append("SELECT * FROM ").append(tableName);
+    public String generateLoadDataSql(String tableName, List<String> columns, Set<String> binaryColumns) {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("数据不能为空");
+        }
         
-        if (conditions != null && !conditions.isEmpty()) {
-            sql.append(" WHERE ");
-            List<String> whereConditions = new ArrayList<>();
-            
-            for (String key : conditions.keySet()) {
-                whereConditions.add(key + " = ?");
+        List<String> targets = new ArrayList<>(columns.size());
+        List<String> assignments = new ArrayList<>();
+        for (String column : columns) {
+            if (binaryColumns.contains(column)) {
+                targets.add("@" + column);
+                assignments.add(column + " = FROM_BASE64(@" + column + ")");
+            } else {
+                targets.add(column);
             }
-            
-            sql.append(String.join(" AND ", whereConditions));
+        }
+        return "LOAD DATA LOCAL INFILE 'import.tsv' IGNORE INTO TABLE " + tableName
+                + " CHARACTER SET utf8mb4 FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\' LINES TERMINATED BY '\\n'"
+                + " (" + String.join(", ", targets) + ")"
+                + (assignments.isEmpty() ? "" : " SET " + String.join(", ", assignments));
+    }
+    
+    /**
+     * 生成创建索引的SQL：CREATE [UNIQUE] INDEX name ON t (a, b)
+     *
+     * @param online 是否使用 MySQL 在线DDL（ALGORITHM=INPLACE LOCK=NONE），建索引期间不阻塞读写
+     */
+    public String generateCreateIndexSql(String tableName, String indexName, List<String> columns,
+                                         boolean unique, boolean online) {
+        if (columns.isEmpty()) {
+            throw new IllegalArgumentException("索引列不能为空");
         }
         
+        StringBuilder sql = new StringBuilder("CREATE ");
+        if (unique) {
+            sql.append("UNIQUE ");
+        }
+        sql.append("INDEX ").append(indexName).append(" ON ").append(tableName);
+        sql.append(" (").append(String.join(", ", columns)).append(")");
+        if (online) {
+            sql.append(" ALGORITHM=INPLACE LOCK=NONE");
+        }
         return sql.toString();
     }
     
     /**
-     * 根据条件生成DELETE SQL语句
+     * 生成删除索引的SQL
+     *
+     * @param mysql 是否为 MySQL 语法（DROP INDEX name ON t），否则为标准语法（DROP INDEX name）
      */
-    public String generateDeleteSql(String tableName, Map<String, Object> conditions) {
-        StringBuilder sql = new StringBuilder();
-        sql.append("DELETE FROM ").append(tableName);
+    public String generateDropIndexSql(String tableName, String indexName, boolean mysql) {
+        return mysql
+                ? "DROP INDEX " + indexName + " ON " + tableName + " ALGORITHM=INPLACE LOCK=NONE"
+                : "DROP INDEX " + indexName;
+    }
+    
+    /**
+     * 生成 IN 谓词，多列时使用行构造器
+     */
+    private String inPredicate(List<String> keyColumns, int keyCount) {
+        if (keyColumns.isEmpty() || keyCount <= 0) {
+            throw new IllegalArgumentException("条件不能为空");
+        }
         
-        if (conditions != null && !conditions.isEmpty()) {
-            sql.append(" WHERE ");
-            List<String> whereConditions = new ArrayList<>();
-            
-            for (String key : conditions.keySet()) {
-                whereConditions.add(key + " = ?");
+        boolean rowConstructor = keyColumns.size() > 1;
+        StringBuilder tuple = new StringBuilder(rowConstructor ? "(" : "");
+        for (int i = 0; i < keyColumns.size(); i++) {
+            tuple.append(i == 0 ? "?" : ", ?");
+        }
+        if (rowConstructor) {
+            tuple.append(")");
+        }
+        
+        StringBuilder predicate = new StringBuilder();
+        predicate.append(rowConstructor ? "(" + String.join(", ", keyColumns) + ")" : keyColumns.get(0));
+        predicate.append(" IN (");
+        for (int i = 0; i < keyCount; i++) {
+            if (i > 0) {
+                predicate.append(", ");
             }
-            
-            sql.append(String.join(" AND ", whereConditions));
+            predicate.append(tuple);
+        }
+        predicate.append(")");
+        return predicate.toString();
+    }
+    
+    private void appendWhere(StringBuilder sql, List<Condition> conditions) {
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ");
+            sql.append(String.join(" AND ", predicates(conditions)));
         }
+    }
+    
+    private List<String> predicates(List<Condition> conditions) {
+        List<String> whereConditions = new ArrayList<>();
         
-        return sql.toString();
+        for (Condition condition : conditions) {
+            whereConditions.add(condition.toSql());
+        }
+        
+        return whereConditions;
+    }
+    
+    private static List<String> shapes(List<Condition> conditions) {
+        List<String> shapes = new ArrayList<>(conditions.size());
+        for (Condition condition : conditions) {
+            shapes.add(condition.shape());
+        }
+        return shapes;
+    }
+    
+    /**
+     * 列名排序，使同一列集合总是得到相同的SQL文本
+     */
+    private static List<String> sorted(Collection<String> columns) {
+        return new ArrayList<>(new TreeSet<>(columns));
     }
 }
\ No newline at end of file
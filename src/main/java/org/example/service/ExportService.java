@@ -0,0 +1,224 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 整表导出：经 {@link DynamicCrudService#streamSelect} 的只进游标逐行读取，直接写到输出流，
+ * 不在内存中累积结果，也不开启JPA事务。
+ * NDJSON 每行一个以列名为键的 JSON 对象；CSV 第一行为表头，null 写作未加引号的空字段、空字符串写作 ""，
+ * 两种格式都可以直接由导入接口读回。
+ */
+@Service
+public class ExportService {
+
+    /**
+     * 每写出多少行刷新一次输出流
+     */
+    private static final int FLUSH_ROWS = 500;
+
+    @Autowired
+    private DynamicCrudService crudService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * 在开始写出之前校验导出格式、表、投影列和查询条件，出错时还能返回普通的错误响应
+     *
+     * @return 规范化的格式名（ndjson 或 csv）
+     * @throws IllegalArgumentException 格式不支持、列不存在、条件或选项无效
+     */
+    public String validate(String tableName, String format, Map<String, Object> conditions, SelectOptions options) {
+        String normalized = format == null ? "ndjson" : format.toLowerCase(Locale.ROOT);
+        if (!"ndjson".equals(normalized) && !"csv".equals(normalized)) {
+            throw new IllegalArgumentException("不支持的导出格式: " + format + "（可选 ndjson、csv）");
+        }
+        crudService.validateStreamSelect(tableName, conditions, options);
+        return normalized;
+    }
+
+    /**
+     * 导出查询结果
+     *
+     * @param tableName 表名
+     * @param conditions 查询条件
+     * @param options 投影列、排序、行数上限
+     * @param format ndjson 或 csv
+     * @param output 输出流，由调用方关闭
+     * @return 导出的行数
+     */
+    public long export(String tableName, Map<String, Object> conditions, SelectOptions options, String format,
+                       OutputStream output) throws IOException {
+        if ("csv".equals(validate(tableName, format, conditions, options))) {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 65536);
+            CsvSink sink = new CsvSink(writer);
+            try {
+                crudService.streamSelect(tableName, conditions, options, sink);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.flush();
+            return sink.count;
+        }
+
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(output)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+            NdjsonSink sink = new NdjsonSink(generator);
+            try {
+                crudService.streamSelect(tableName, conditions, options, sink);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            if (sink.count > 0) {
+                generator.writeRaw('\n');
+            }
+            return sink.count;
+        }
+    }
+
+    /**
+     * 每行写成一个 JSON 对象，列名只序列化一次
+     */
+    private static class NdjsonSink implements RowSink {
+
+        private final JsonGenerator generator;
+        private SerializedString[] names;
+        private long count;
+
+        NdjsonSink(JsonGenerator generator) {
+            this.generator = generator;
+        }
+
+        @Override
+        public void columns(List<String> columns) {
+            names = new SerializedString[columns.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = new SerializedString(columns.get(i));
+            }
+        }
+
+        @Override
+        public void row(Object[] row) {
+            try {
+                generator.writeStartObject();
+                for (int i = 0; i < names.length; i++) {
+                    generator.writeFieldName(names[i]);
+                    generator.writeObject(row[i]);
+                }
+                generator.writeEndObject();
+                if (++count % FLUSH_ROWS == 0) {
+                    generator.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * RFC 4180 格式的 CSV，含分隔符、引号、换行或首尾空白的字段加引号
+     */
+    private static class CsvSink implements RowSink {
+
+        private final Writer writer;
+        private long count;
+
+        CsvSink(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void columns(List<String> columns) {
+            try {
+                for (int i = 0; i < columns.size(); i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    writeField(columns.get(i));
+                }
+                writer.write("\r\n");
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void row(Object[] row) {
+            try {
+                for (int i = 0; i < row.length; i++) {
+                    if (i > 0) {
+                        writer.write(',');
+                    }
+                    Object value = row[i];
+                    if (value == null) {
+                        continue;
+                    }
+                    if (value instanceof Number || value instanceof Boolean) {
+                        writer.write(value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString());
+                    } else if (value instanceof byte[]) {
+                        writer.write(Base64.getEncoder().encodeToString((byte[]) value));
+                    } else {
+                        writeField(value.toString());
+                    }
+                }
+                writer.write("\r\n");
+                if (++count % FLUSH_ROWS == 0) {
+                    writer.flush();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        private void writeField(String text) throws IOException {
+            if (!needsQuotes(text)) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == '"') {
+                    writer.write('"');
+                }
+                writer.write(c);
+            }
+            writer.write('"');
+        }
+
+        private static boolean needsQuotes(String text) {
+            if (text.isEmpty()) {
+                // 与 null 区分
+                return true;
+            }
+            if (Character.isWhitespace(text.charAt(0)) || Character.isWhitespace(text.charAt(text.length() - 1))) {
+                return true;
+            }
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
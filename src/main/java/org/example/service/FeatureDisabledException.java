@@ -0,0 +1,11 @@
+package org.example.service;
+
+/**
+ * 请求的功能已在配置中关闭时抛出（如变更流），由接口映射为 404，而不是服务端错误
+ */
+public class FeatureDisabledException extends RuntimeException {
+
+    public FeatureDisabledException(String message) {
+        super(message);
+    }
+}
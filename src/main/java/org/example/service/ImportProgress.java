@@ -0,0 +1,119 @@
+package org.example.service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 一次导入的进度：已读取、已写入、被拒绝的行数及写入速率
+ * 导入线程更新，统计接口并发读取。
+ */
+public class ImportProgress {
+
+    private final String id;
+    private final String tableName;
+    private final String format;
+    private final String mode;
+    private final int maxReportedRejects;
+    private final long startedAt = System.currentTimeMillis();
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong rowsRead = new AtomicLong();
+    private final AtomicLong importedRows = new AtomicLong();
+    private final AtomicLong rejectedRows = new AtomicLong();
+    private final AtomicLong chunks = new AtomicLong();
+    private final List<Map<String, Object>> rejects = new ArrayList<>();
+    private volatile long finishedNanos;
+    private volatile String error;
+
+    ImportProgress(String id, String tableName, String format, String mode, int maxReportedRejects) {
+        this.id = id;
+        this.tableName = tableName;
+        this.format = format;
+        this.mode = mode;
+        this.maxReportedRejects = maxReportedRejects;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    void rowRead() {
+        rowsRead.incrementAndGet();
+    }
+
+    public long getRowsRead() {
+        return rowsRead.get();
+    }
+
+    void imported(long rows) {
+        importedRows.addAndGet(rows);
+    }
+
+    void chunkWritten() {
+        chunks.incrementAndGet();
+    }
+
+    /**
+     * 记录被拒绝的行，只保留前 maxReportedRejects 条明细
+     *
+     * @param line 行号，未知时为 -1
+     * @param rows 行数
+     */
+    void reject(long line, long rows, String message) {
+        rejectedRows.addAndGet(rows);
+        synchronized (rejects) {
+            if (rejects.size() < maxReportedRejects) {
+                Map<String, Object> reject = new LinkedHashMap<>();
+                if (line >= 0) {
+                    reject.put("line", line);
+                }
+                if (rows != 1) {
+                    reject.put("rows", rows);
+                }
+                reject.put("message", message);
+                rejects.add(reject);
+            }
+        }
+    }
+
+    void finish(String error) {
+        this.error = error;
+        this.finishedNanos = System.nanoTime();
+    }
+
+    /**
+     * @param details 是否包含被拒绝行的明细
+     */
+    public Map<String, Object> toMap(boolean details) {
+        long end = finishedNanos == 0 ? System.nanoTime() : finishedNanos;
+        double seconds = Math.max(end - startNanos, 1) / 1_000_000_000.0;
+        Map<String, Object> map = new LinkedHashMap<>();
+        map.put("id", id);
+        map.put("table", tableName);
+        map.put("format", format);
+        map.put("mode", mode);
+        map.put("startedAt", startedAt);
+        map.put("finished", finishedNanos != 0);
+        map.put("elapsedMs", Math.round(seconds * 1000));
+        map.put("rowsRead", rowsRead.get());
+        map.put("importedRows", importedRows.get());
+        map.put("rejectedRows", rejectedRows.get());
+        map.put("chunks", chunks.get());
+        map.put("rowsPerSecond", Math.round(importedRows.get() / seconds));
+        if (error != null) {
+            map.put("error", error);
+        }
+        if (details) {
+            synchronized (rejects) {
+                map.put("rejected", new ArrayList<>(rejects));
+            }
+        }
+        return map;
+    }
+}
@@ -0,0 +1,423 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.Charset;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * 大文件导入：流式读取 CSV 或 NDJSON 请求体，边解析边分块写入，不在内存中保留整个文件。
+ * CSV 表头按表结构校验；值按列类型转换（{@link TableSchema.Column#convert}），不符的行被拒绝并记录行号，不影响其余行。
+ * 启用 dynamic.import.load-data.enabled 且数据库为 MySQL 时每块使用 LOAD DATA LOCAL INFILE 写入，
+ * 否则使用多行 INSERT；多行 INSERT 块失败时逐行重试以找出被拒绝的行。
+ * 每块在独立事务中提交，导入不是原子的。
+ */
+@Service
+public class ImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImportService.class);
+
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("\\w{1,64}");
+
+    private static final TypeReference<LinkedHashMap<String, Object>> ROW_TYPE = new TypeReference<>() {
+    };
+
+    @Autowired
+    private DynamicCrudService crudService;
+
+    @Autowired
+    private DynamicSqlGenerator sqlGenerator;
+
+    @Autowired
+    private TableSchemaRegistry schemaRegistry;
+
+    @Autowired
+    private JsonRowReader jsonRowReader;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${dynamic.import.load-data.enabled:false}")
+    private boolean loadDataEnabled;
+
+    @Value("${dynamic.import.load-data.chunk-rows:10000}")
+    private int loadDataChunkRows;
+
+    @Value("${dynamic.batch.chunk-size:500}")
+    private int batchChunkSize;
+
+    @Value("${dynamic.import.max-reported-rejects:100}")
+    private int maxReportedRejects;
+
+    @Value("${dynamic.import.history-size:20}")
+    private int historySize;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    private final Map<String, ImportProgress> running = new ConcurrentHashMap<>();
+
+    private final Deque<ImportProgress> history = new ArrayDeque<>();
+
+    /**
+     * 导入一个 CSV 或 NDJSON 数据流
+     *
+     * @param tableName 表名
+     * @param format csv 或 ndjson
+     * @param input 数据流，CSV 第一行为表头
+     * @param charset 字符集
+     * @param createTable 表不存在时是否按第一行数据推断列类型建表
+     * @return 导入进度（含被拒绝行的明细），读取中途失败时 error 给出原因，已提交的块保留
+     * @throws IllegalArgumentException 格式不支持、表不存在或 CSV 表头无效
+     */
+    public ImportProgress importRows(String tableName, String format, InputStream input, Charset charset,
+                                     boolean createTable) throws IOException {
+        String normalizedFormat = normalizeFormat(format);
+        boolean loadData = loadDataEnabled && schemaRegistry.isMySql();
+        ImportProgress progress = new ImportProgress("import-" + sequence.incrementAndGet(), tableName,
+                normalizedFormat, loadData ? "load-data" : "batch", maxReportedRejects);
+        running.put(progress.getId(), progress);
+        try {
+            if ("csv".equals(normalizedFormat)) {
+                importCsv(tableName, new InputStreamReader(input, charset), createTable, loadData, progress);
+            } else {
+                importNdjson(tableName, new BufferedReader(new InputStreamReader(input, charset), 65536),
+                        createTable, loadData, progress);
+            }
+            progress.finish(null);
+        } catch (IllegalArgumentException e) {
+            progress.finish(e.getMessage());
+            if (progress.getRowsRead() == 0) {
+                // 尚未读取任何数据行（格式、表或表头无效），直接失败
+                throw e;
+            }
+        } catch (IOException | RuntimeException e) {
+            progress.finish(e.getMessage());
+        } finally {
+            running.remove(progress.getId());
+            synchronized (history) {
+                history.addFirst(progress);
+                while (history.size() > historySize) {
+                    history.removeLast();
+                }
+            }
+        }
+        log.info("导入表 {} 结束: {}", tableName, progress.toMap(false));
+        return progress;
+    }
+
+    /**
+     * 读取 CSV 或 NDJSON 数据流的前若干行作为示例数据（用于 {@link SchemaInferencer} 推断列类型）
+     * CSV 的值保留为文本，由推断按内容识别；字段数与表头不符或无法解析的行被跳过。
+     *
+     * @param format csv 或 ndjson
+     * @param input 数据流，CSV 第一行为表头
+     * @param charset 字符集
+     * @param maxRows 最多读取的行数
+     * @return 列名到值的示例行
+     */
+    public List<Map<String, Object>> readSample(String format, InputStream input, Charset charset, int maxRows)
+            throws IOException {
+        String normalizedFormat = normalizeFormat(format);
+        List<Map<String, Object>> rows = new ArrayList<>();
+        if ("csv".equals(normalizedFormat)) {
+            CsvReader csv = new CsvReader(new InputStreamReader(input, charset), ',');
+            List<String> header = new ArrayList<>();
+            if (!csv.next(header)) {
+                throw new IllegalArgumentException("CSV 缺少表头");
+            }
+            List<String> fields = new ArrayList<>();
+            while (rows.size() < maxRows && csv.next(fields)) {
+                if (fields.size() != header.size()) {
+                    continue;
+                }
+                Map<String, Object> row = new LinkedHashMap<>();
+                for (int i = 0; i < header.size(); i++) {
+                    row.put(header.get(i) == null ? null : header.get(i).trim(), fields.get(i));
+                }
+                rows.add(row);
+            }
+        } else {
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, charset), 65536);
+            for (String line = reader.readLine(); line != null && rows.size() < maxRows; line = reader.readLine()) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    rows.add(objectMapper.readValue(line, ROW_TYPE));
+                } catch (IOException e) {
+                    // 无法解析的行不参与推断
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 正在进行和最近完成的导入
+     */
+    public Map<String, Object> status() {
+        List<Map<String, Object>> runningImports = new ArrayList<>();
+        for (ImportProgress progress : running.values()) {
+            runningImports.add(progress.toMap(false));
+        }
+        List<Map<String, Object>> recentImports = new ArrayList<>();
+        synchronized (history) {
+            for (ImportProgress progress : history) {
+                recentImports.add(progress.toMap(false));
+            }
+        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("running", runningImports);
+        status.put("recent", recentImports);
+        return status;
+    }
+
+    private void importCsv(String tableName, InputStreamReader reader, boolean createTable, boolean loadData,
+                           ImportProgress progress) throws IOException {
+        CsvReader csv = new CsvReader(reader, ',');
+        List<String> header = new ArrayList<>();
+        if (!csv.next(header)) {
+            throw new IllegalArgumentException("CSV 缺少表头");
+        }
+        List<String> fields = new ArrayList<>();
+        boolean hasRow = csv.next(fields);
+
+        if (createTable && !schemaRegistry.exists(tableName) && hasRow) {
+            Map<String, Object> sample = new LinkedHashMap<>();
+            for (int i = 0; i < header.size() && i < fields.size(); i++) {
+                sample.put(header.get(i), ColumnTypes.parseText(fields.get(i)));
+            }
+            createTable(tableName, sample);
+        }
+        TableSchema schema = schemaRegistry.getSchema(tableName);
+        int[] positions = headerPositions(schema, header);
+
+        ChunkWriter writer = new ChunkWriter(tableName, schema, loadData, progress);
+        RowBuffer row = jsonRowReader.acquireRowBuffer();
+        try {
+            while (hasRow) {
+                progress.rowRead();
+                long line = csv.recordLine();
+                if (fields.size() != header.size()) {
+                    progress.reject(line, 1, "字段数 " + fields.size() + " 与表头列数 " + header.size() + " 不符");
+                } else {
+                    try {
+                        row.reset(schema);
+                        for (int i = 0; i < positions.length; i++) {
+                            TableSchema.Column column = schema.getColumns().get(positions[i]);
+                            row.set(positions[i], column.convertRowValue(fields.get(i)));
+                        }
+                        writer.add(row, line);
+                    } catch (IllegalArgumentException e) {
+                        progress.reject(line, 1, e.getMessage());
+                    }
+                }
+                try {
+                    hasRow = csv.next(fields);
+                } catch (IllegalArgumentException | IOException e) {
+                    // 读取中途失败（如引号未闭合）：已读出的行照常写入，与 rowsRead 保持一致，再报告错误
+                    flushBeforeFailure(writer, e);
+                    throw e;
+                }
+            }
+            writer.flush();
+        } finally {
+            jsonRowReader.release(row);
+            writer.close();
+        }
+    }
+
+    private static void flushBeforeFailure(ChunkWriter writer, Exception failure) {
+        try {
+            writer.flush();
+        } catch (RuntimeException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
+    private void importNdjson(String tableName, BufferedReader reader, boolean createTable, boolean loadData,
+                              ImportProgress progress) throws IOException {
+        long lineNumber = 0;
+        String line = reader.readLine();
+        while (line != null && line.isBlank()) {
+            lineNumber++;
+            line = reader.readLine();
+        }
+
+        if (createTable && !schemaRegistry.exists(tableName) && line != null) {
+            createTable(tableName, objectMapper.readValue(line, ROW_TYPE));
+        }
+        TableSchema schema = schemaRegistry.getSchema(tableName);
+
+        ChunkWriter writer = new ChunkWriter(tableName, schema, loadData, progress);
+        RowBuffer row = jsonRowReader.acquireRowBuffer();
+        try {
+            for (; line != null; line = reader.readLine()) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                progress.rowRead();
+                try (JsonParser parser = jsonRowReader.open(line)) {
+                    if (!jsonRowReader.readRow(parser, schema, row) || row.size() == 0) {
+                        throw new IllegalArgumentException("数据不能为空");
+                    }
+                    if (parser.nextToken() != null) {
+                        throw new IllegalArgumentException("每行只能包含一个 JSON 对象");
+                    }
+                    writer.add(row, lineNumber);
+                } catch (IllegalArgumentException | IOException e) {
+                    progress.reject(lineNumber, 1, e.getMessage());
+                }
+            }
+            writer.flush();
+        } finally {
+            jsonRowReader.release(row);
+            writer.close();
+        }
+    }
+
+    private static String normalizeFormat(String format) {
+        String normalizedFormat = format == null ? "" : format.toLowerCase(Locale.ROOT);
+        if (!"csv".equals(normalizedFormat) && !"ndjson".equals(normalizedFormat)) {
+            throw new IllegalArgumentException("不支持的导入格式: " + format + "（可选 csv、ndjson）");
+        }
+        return normalizedFormat;
+    }
+
+    /**
+     * 按示例行建表，列类型推断规则与 create-table 接口相同
+     */
+    private void createTable(String tableName, Map<String, Object> sample) {
+        if (!IDENTIFIER_PATTERN.matcher(tableName).matches()) {
+            throw new IllegalArgumentException("表名无效: " + tableName);
+        }
+        for (String column : sample.keySet()) {
+            if (column == null || !IDENTIFIER_PATTERN.matcher(column).matches()) {
+                throw new IllegalArgumentException("列名无效: " + column);
+            }
+        }
+        crudService.executeDdlSql(sqlGenerator.generateCreateTableSql(tableName, sample));
+    }
+
+    /**
+     * 按表结构校验 CSV 表头，返回每个字段对应的列位置
+     */
+    private static int[] headerPositions(TableSchema schema, List<String> header) {
+        int[] positions = new int[header.size()];
+        boolean[] seen = new boolean[schema.getColumns().size()];
+        for (int i = 0; i < header.size(); i++) {
+            String name = header.get(i) == null ? null : header.get(i).trim();
+            int position = name == null ? -1 : schema.indexOf(name);
+            if (position < 0) {
+                throw new IllegalArgumentException("CSV 表头中的列 '" + name + "' 在表 '" + schema.getTableName() + "' 中不存在");
+            }
+            if (seen[position]) {
+                throw new IllegalArgumentException("CSV 表头中的列 '" + name + "' 重复");
+            }
+            seen[position] = true;
+            positions[i] = position;
+        }
+        return positions;
+    }
+
+    /**
+     * 把解析好的行积累成块并写入，记录每行的行号以便报告被拒绝的行
+     */
+    private class ChunkWriter {
+
+        private final String tableName;
+        private final TableSchema schema;
+        private final boolean loadData;
+        private final ImportProgress progress;
+        private final RowBatch batch;
+        private final long[] lines;
+
+        ChunkWriter(String tableName, TableSchema schema, boolean loadData, ImportProgress progress) {
+            this.tableName = tableName;
+            this.schema = schema;
+            this.loadData = loadData;
+            this.progress = progress;
+            int capacity = Math.max(1, loadData ? loadDataChunkRows : batchChunkSize);
+            this.batch = jsonRowReader.acquireRowBatch();
+            this.batch.reset(schema, capacity, loadData ? Integer.MAX_VALUE : DynamicCrudService.MAX_PLACEHOLDERS);
+            this.lines = new long[capacity];
+        }
+
+        void add(RowBuffer row, long line) {
+            if (!batch.accepts(row)) {
+                flush();
+            }
+            lines[batch.size()] = line;
+            batch.add(row);
+        }
+
+        void flush() {
+            if (batch.isEmpty()) {
+                return;
+            }
+            int rows = batch.size();
+            try {
+                int affected = loadData ? crudService.loadData(tableName, batch) : crudService.insertRows(tableName, batch);
+                progress.imported(affected);
+                if (affected < rows) {
+                    progress.reject(lines[0], rows - affected, (loadData ? "LOAD DATA" : "INSERT") + " 忽略了第 "
+                            + lines[0] + " 行起的块中 " + (rows - affected) + " 行（重复键或无效值）");
+                }
+            } catch (IllegalStateException e) {
+                // 驱动不支持等配置错误，逐行重试没有意义
+                throw e;
+            } catch (RuntimeException e) {
+                retryRowByRow();
+            } finally {
+                progress.chunkWritten();
+                batch.clear();
+            }
+        }
+
+        /**
+         * 块写入失败时逐行写入，找出被拒绝的行
+         */
+        private void retryRowByRow() {
+            RowBuffer row = new RowBuffer();
+            RowBatch single = new RowBatch();
+            for (int i = 0; i < batch.size(); i++) {
+                batch.copyRowTo(i, row);
+                single.reset(schema, 1, DynamicCrudService.MAX_PLACEHOLDERS);
+                single.add(row);
+                try {
+                    progress.imported(crudService.insertRows(tableName, single));
+                } catch (RuntimeException e) {
+                    progress.reject(lines[i], 1, NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                } finally {
+                    single.clear();
+                }
+            }
+        }
+
+        void close() {
+            jsonRowReader.release(batch);
+        }
+    }
+}
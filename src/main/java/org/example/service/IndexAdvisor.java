@@ -0,0 +1,185 @@
+package org.example.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 索引建议器
+ * 记录 {@link DynamicCrudService} 执行的每条语句所使用的条件列组合及其执行耗时，
+ * 出现次数和平均耗时都超过阈值的组合即成为候选索引。
+ * 候选索引的列顺序为：等值类条件列（=、IN、IS NULL）按列名排序在前，第一个范围条件列（<、>、BETWEEN、前缀 LIKE）在后；
+ * 无法使用索引的条件（<>、IS NOT NULL）不参与。
+ */
+@Component
+public class IndexAdvisor {
+
+    private static final Set<Condition.Operator> EQUALITY_OPERATORS =
+            EnumSet.of(Condition.Operator.EQ, Condition.Operator.IN, Condition.Operator.IS_NULL);
+
+    private static final Set<Condition.Operator> RANGE_OPERATORS = EnumSet.of(
+            Condition.Operator.GT, Condition.Operator.GE, Condition.Operator.LT, Condition.Operator.LE,
+            Condition.Operator.BETWEEN, Condition.Operator.PREFIX);
+
+    /**
+     * 表（按 {@link TableSchemaRegistry#keyOf} 规范化）+ 候选索引列
+     */
+    record Pattern(String tableName, List<String> columns) {
+    }
+
+    /**
+     * 某个条件列组合的累计使用情况
+     */
+    static class Usage {
+        final LongAdder count = new LongAdder();
+        final LongAdder totalNanos = new LongAdder();
+        volatile long lastSeen;
+    }
+
+    private final Map<Pattern, Usage> patterns = new ConcurrentHashMap<>();
+
+    @Autowired
+    private TableSchemaRegistry schemaRegistry;
+
+    @Value("${dynamic.index-advisor.enabled:true}")
+    private boolean enabled;
+
+    @Value("${dynamic.index-advisor.min-count:100}")
+    private long minCount;
+
+    @Value("${dynamic.index-advisor.min-avg-ms:20}")
+    private double minAvgMs;
+
+    @Value("${dynamic.index-advisor.max-patterns:1000}")
+    private int maxPatterns;
+
+    /**
+     * 记录一次带条件的语句执行
+     *
+     * @param tableName 表名
+     * @param conditions 已解析的条件
+     * @param executeNanos 执行阶段耗时
+     */
+    public void record(String tableName, List<Condition> conditions, long executeNanos) {
+        if (!enabled || conditions.isEmpty()) {
+            return;
+        }
+        List<String> columns = indexColumns(conditions);
+        if (columns.isEmpty()) {
+            return;
+        }
+        Pattern pattern = new Pattern(schemaRegistry.keyOf(tableName), columns);
+        Usage usage = patterns.get(pattern);
+        if (usage == null) {
+            if (patterns.size() >= maxPatterns) {
+                // 组合数量受限，超出后不再记录新组合
+                return;
+            }
+            usage = patterns.computeIfAbsent(pattern, p -> new Usage());
+        }
+        usage.count.increment();
+        usage.totalNanos.add(executeNanos);
+        usage.lastSeen = System.currentTimeMillis();
+    }
+
+    /**
+     * 某张表已记录的全部条件列组合，按累计耗时降序
+     */
+    public List<Map<String, Object>> usage(String tableName) {
+        String table = schemaRegistry.keyOf(tableName);
+        List<Map.Entry<Pattern, Usage>> entries = new ArrayList<>();
+        for (Map.Entry<Pattern, Usage> entry : patterns.entrySet()) {
+            if (entry.getKey().tableName().equals(table)) {
+                entries.add(entry);
+            }
+        }
+        entries.sort(Comparator.comparingLong((Map.Entry<Pattern, Usage> e) -> e.getValue().totalNanos.sum()).reversed());
+
+        List<Map<String, Object>> result = new ArrayList<>(entries.size());
+        for (Map.Entry<Pattern, Usage> entry : entries) {
+            result.add(describe(entry.getKey(), entry.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * 某张表中超过阈值的候选索引，按累计耗时降序
+     *
+     * @return 每项包含 columns、count、avgMs、totalMs
+     */
+    public List<Map<String, Object>> candidates(String tableName) {
+        List<Map<String, Object>> result = new ArrayList<>();
+        for (Map<String, Object> usage : usage(tableName)) {
+            if ((Long) usage.get("count") >= minCount && (Double) usage.get("avgMs") >= minAvgMs) {
+                result.add(usage);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 已记录条件列组合的表（按 {@link TableSchemaRegistry#keyOf} 规范化的表名）
+     */
+    public Set<String> tables() {
+        Set<String> tables = new TreeSet<>();
+        for (Pattern pattern : patterns.keySet()) {
+            tables.add(pattern.tableName());
+        }
+        return tables;
+    }
+
+    /**
+     * 清除某张表的记录（表被删除或索引已创建后）
+     */
+    public void forget(String tableName) {
+        String table = schemaRegistry.keyOf(tableName);
+        patterns.keySet().removeIf(pattern -> pattern.tableName().equals(table));
+    }
+
+    /**
+     * 由条件推导候选索引列
+     */
+    static List<String> indexColumns(List<Condition> conditions) {
+        Set<String> equalityColumns = new TreeSet<>();
+        Set<String> rangeColumns = new TreeSet<>();
+        for (Condition condition : conditions) {
+            if (EQUALITY_OPERATORS.contains(condition.getOperator())) {
+                equalityColumns.add(condition.getColumn());
+            } else if (RANGE_OPERATORS.contains(condition.getOperator())) {
+                rangeColumns.add(condition.getColumn());
+            }
+        }
+        rangeColumns.removeAll(equalityColumns);
+
+        List<String> columns = new ArrayList<>(equalityColumns);
+        if (!rangeColumns.isEmpty()) {
+            // 范围条件之后的索引列无法再用于过滤，只取一个
+            columns.add(rangeColumns.iterator().next());
+        }
+        return columns;
+    }
+
+    private static Map<String, Object> describe(Pattern pattern, Usage usage) {
+        long count = usage.count.sum();
+        long totalNanos = usage.totalNanos.sum();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("columns", pattern.columns());
+        result.put("count", count);
+        result.put("avgMs", count == 0 ? 0.0 : totalNanos / (double) count / TimeUnit.MILLISECONDS.toNanos(1));
+        result.put("totalMs", TimeUnit.NANOSECONDS.toMillis(totalNanos));
+        result.put("lastSeen", usage.lastSeen);
+        return result;
+    }
+}
@@ -0,0 +1,249 @@
+package org.example.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 动态表的索引管理：查看、创建、删除二级索引和组合索引，
+ * 并根据 {@link IndexAdvisor} 记录的查询模式给出建议，可选地在后台自动创建。
+ */
+@Service
+public class IndexService {
+
+    private static final Logger log = LoggerFactory.getLogger(IndexService.class);
+
+    private static final Pattern INDEX_NAME_PATTERN = Pattern.compile("\\w{1,64}");
+
+    /**
+     * MySQL 标识符的最大长度
+     */
+    private static final int MAX_INDEX_NAME_LENGTH = 64;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private DynamicSqlGenerator sqlGenerator;
+
+    @Autowired
+    private TableSchemaRegistry schemaRegistry;
+
+    @Autowired
+    private IndexAdvisor indexAdvisor;
+
+    @Value("${dynamic.index-advisor.auto-create:false}")
+    private boolean autoCreate;
+
+    /**
+     * 列出表上的全部索引
+     *
+     * @return 每项包含 name、unique、columns，columns 按索引中的顺序排列
+     */
+    @DbAccess
+    public List<Map<String, Object>> listIndexes(String tableName) {
+        TableSchema schema = schemaRegistry.getSchema(tableName);
+        return jdbcTemplate.execute((ConnectionCallback<List<Map<String, Object>>>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            Map<String, Map<String, Object>> indexes = new LinkedHashMap<>();
+            try (ResultSet rs = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(),
+                    schema.getTableName(), false, false)) {
+                while (rs.next()) {
+                    String name = rs.getString("INDEX_NAME");
+                    String column = rs.getString("COLUMN_NAME");
+                    if (name == null || column == null) {
+                        // 表统计信息行
+                        continue;
+                    }
+                    Map<String, Object> index = indexes.computeIfAbsent(name, n -> {
+                        Map<String, Object> created = new LinkedHashMap<>();
+                        created.put("name", n);
+                        created.put("unique", false);
+                        created.put("columns", new ArrayList<String>());
+                        return created;
+                    });
+                    index.put("unique", !rs.getBoolean("NON_UNIQUE"));
+                    // 结果按索引名、ORDINAL_POSITION 排序，依次追加即为索引列顺序
+                    @SuppressWarnings("unchecked")
+                    List<String> columns = (List<String>) index.get("columns");
+                    columns.add(column);
+                }
+            }
+            return new ArrayList<>(indexes.values());
+        });
+    }
+
+    /**
+     * 创建索引
+     * MySQL 下使用在线DDL，建索引期间表仍可读写。
+     *
+     * @param tableName 表名
+     * @param columns 索引列（按顺序）
+     * @param indexName 索引名，为空时按 idx_表名_列名 生成
+     * @param unique 是否唯一索引
+     * @return 索引名
+     */
+    @DbAccess
+    public String createIndex(String tableName, List<String> columns, String indexName, boolean unique) {
+        TableSchema schema = schemaRegistry.getSchema(tableName);
+        if (columns == null || columns.isEmpty()) {
+            throw new IllegalArgumentException("索引列不能为空");
+        }
+
+        List<String> indexColumns = new ArrayList<>(columns.size());
+        for (String column : columns) {
+            TableSchema.Column meta = schema.getColumn(column.trim());
+            if (meta == null) {
+                throw new IllegalArgumentException("列 '" + column + "' 在表 '" + schema.getTableName() + "' 中不存在");
+            }
+            if (indexColumns.contains(meta.getName())) {
+                throw new IllegalArgumentException("索引列 '" + meta.getName() + "' 重复");
+            }
+            indexColumns.add(meta.getName());
+        }
+
+        String name = indexName == null || indexName.isBlank()
+                ? defaultIndexName(schema.getTableName(), indexColumns)
+                : indexName.trim();
+        validateIndexName(name);
+
+        boolean mysql = schemaRegistry.isMySql();
+        String sql = sqlGenerator.generateCreateIndexSql(schema.getTableName(), name, indexColumns, unique, mysql);
+        try {
+            jdbcTemplate.execute(sql);
+        } finally {
+            // information_schema 中的 COLUMN_KEY 会随索引变化
+            schemaRegistry.invalidate(tableName);
+        }
+        return name;
+    }
+
+    /**
+     * 删除索引，不允许删除主键
+     */
+    @DbAccess
+    public void dropIndex(String tableName, String indexName) {
+        TableSchema schema = schemaRegistry.getSchema(tableName);
+        validateIndexName(indexName);
+        if ("PRIMARY".equalsIgnoreCase(indexName) || indexName.toUpperCase().startsWith("PRIMARY_KEY")) {
+            throw new IllegalArgumentException("不能删除主键索引");
+        }
+
+        String sql = sqlGenerator.generateDropIndexSql(schema.getTableName(), indexName, schemaRegistry.isMySql());
+        try {
+            jdbcTemplate.execute(sql);
+        } finally {
+            schemaRegistry.invalidate(tableName);
+        }
+    }
+
+    /**
+     * 根据记录的查询模式给出索引建议，已被现有索引（最左前缀）覆盖的候选不再建议
+     *
+     * @return 每项包含 columns、count、avgMs、totalMs、ddl
+     */
+    @DbAccess
+    public List<Map<String, Object>> advise(String tableName) {
+        TableSchema schema = schemaRegistry.getSchema(tableName);
+        List<Map<String, Object>> existing = listIndexes(tableName);
+        boolean mysql = schemaRegistry.isMySql();
+
+        List<Map<String, Object>> advice = new ArrayList<>();
+        for (Map<String, Object> candidate : indexAdvisor.candidates(tableName)) {
+            @SuppressWarnings("unchecked")
+            List<String> columns = (List<String>) candidate.get("columns");
+            if (isCovered(columns, existing)) {
+                continue;
+            }
+            Map<String, Object> item = new LinkedHashMap<>(candidate);
+            item.put("ddl", sqlGenerator.generateCreateIndexSql(schema.getTableName(),
+                    defaultIndexName(schema.getTableName(), columns), columns, false, mysql));
+            advice.add(item);
+        }
+        return advice;
+    }
+
+    /**
+     * 查询模式统计与索引建议
+     */
+    @DbAccess
+    public Map<String, Object> adviceReport(String tableName) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("autoCreate", autoCreate);
+        report.put("patterns", indexAdvisor.usage(tableName));
+        report.put("recommendations", advise(tableName));
+        return report;
+    }
+
+    /**
+     * 开启 dynamic.index-advisor.auto-create 时，定期为每张表创建累计耗时最高的一个建议索引
+     * 在后台线程中执行，不占用请求线程。
+     */
+    @Scheduled(initialDelayString = "${dynamic.index-advisor.check-interval-ms:60000}",
+            fixedDelayString = "${dynamic.index-advisor.check-interval-ms:60000}")
+    @DbAccess
+    public void autoCreateIndexes() {
+        if (!autoCreate) {
+            return;
+        }
+        for (String table : indexAdvisor.tables()) {
+            try {
+                List<Map<String, Object>> advice = advise(table);
+                if (advice.isEmpty()) {
+                    continue;
+                }
+                @SuppressWarnings("unchecked")
+                List<String> columns = (List<String>) advice.get(0).get("columns");
+                String name = createIndex(table, columns, null, false);
+                log.info("已根据查询模式自动创建索引 {} ON {} {}", name, table, columns);
+            } catch (Exception e) {
+                log.warn("自动创建表 {} 的索引失败: {}", table, e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isCovered(List<String> columns, List<Map<String, Object>> indexes) {
+        for (Map<String, Object> index : indexes) {
+            @SuppressWarnings("unchecked")
+            List<String> indexColumns = (List<String>) index.get("columns");
+            if (indexColumns.size() >= columns.size()
+                    && startsWithIgnoreCase(indexColumns, columns)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean startsWithIgnoreCase(List<String> indexColumns, List<String> columns) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (!indexColumns.get(i).equalsIgnoreCase(columns.get(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String defaultIndexName(String tableName, List<String> columns) {
+        String name = "idx_" + tableName + "_" + String.join("_", columns);
+        return name.length() <= MAX_INDEX_NAME_LENGTH ? name : name.substring(0, MAX_INDEX_NAME_LENGTH);
+    }
+
+    private static void validateIndexName(String indexName) {
+        if (indexName == null || !INDEX_NAME_PATTERN.matcher(indexName).matches()) {
+            throw new IllegalArgumentException("索引名 '" + indexName + "' 不合法");
+        }
+    }
+}
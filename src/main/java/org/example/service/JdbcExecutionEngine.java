@@ -0,0 +1,147 @@
+package org.example.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.StatementCallback;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 直接基于 JDBC 的执行引擎（dynamic.engine=jdbc，默认）
+ * 语句经 {@link JdbcTemplate} 在当前事务的连接上预编译执行，不经过 Hibernate 的查询解析、
+ * 持久化上下文刷新和结果转换。查询的 fetchSize 和语句超时由 dynamic.jdbc.* 统一设置，
+ * 批处理按 dynamic.jdbc.batch-size 分批提交；DDL 不设语句超时。
+ */
+@Component
+@ConditionalOnProperty(name = "dynamic.engine", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcExecutionEngine implements SqlExecutionEngine {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final JdbcTemplate ddlTemplate;
+    private final int batchSize;
+
+    public JdbcExecutionEngine(DataSource dataSource,
+                               @Value("${dynamic.jdbc.fetch-size:0}") int fetchSize,
+                               @Value("${dynamic.jdbc.query-timeout-seconds:0}") int queryTimeoutSeconds,
+                               @Value("${dynamic.jdbc.batch-size:500}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("dynamic.jdbc.batch-size 必须大于 0");
+        }
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.jdbcTemplate.setQueryTimeout(queryTimeoutSeconds);
+        this.ddlTemplate = new JdbcTemplate(dataSource);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public String name() {
+        return "jdbc";
+    }
+
+    @Override
+    public int update(String sql, List<Object> values) {
+        return jdbcTemplate.update(sql, parameters(values));
+    }
+
+    @Override
+    public int insert(String sql, List<Object> values, List<Object> generatedKeys) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        int affected = jdbcTemplate.update(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS);
+            parameters(values).setValues(ps);
+            return ps;
+        }, keyHolder);
+        for (Map<String, Object> key : keyHolder.getKeyList()) {
+            // MySQL 以 GENERATED_KEY、H2 以列名返回，每行只有自增列一个值
+            generatedKeys.add(key.values().iterator().next());
+        }
+        return affected;
+    }
+
+    @Override
+    public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+        if (batchArgs.size() <= batchSize) {
+            return jdbcTemplate.batchUpdate(sql, batchArgs);
+        }
+        int[] counts = new int[batchArgs.size()];
+        for (int from = 0; from < batchArgs.size(); from += batchSize) {
+            int to = Math.min(from + batchSize, batchArgs.size());
+            int[] part = jdbcTemplate.batchUpdate(sql, batchArgs.subList(from, to));
+            System.arraycopy(part, 0, counts, from, part.length);
+        }
+        return counts;
+    }
+
+    @Override
+    public List<Object[]> query(String sql, List<Object> values) {
+        return jdbcTemplate.query(sql, parameters(values), (ResultSetExtractor<List<Object[]>>) this::readRows);
+    }
+
+    @Override
+    public void execute(String sql) {
+        ddlTemplate.execute(sql);
+    }
+
+    @Override
+    public int loadLocalInfile(String sql, InputStream data) {
+        // 与 DDL 相同，不设语句超时
+        return ddlTemplate.execute((StatementCallback<Integer>) statement -> {
+            setLocalInfileStream(statement, data);
+            return statement.executeUpdate(sql);
+        });
+    }
+
+    /**
+     * 为下一条 LOAD DATA LOCAL INFILE 指定数据流（MySQL Connector/J 扩展，驱动为运行时依赖，通过反射调用）
+     */
+    static void setLocalInfileStream(Statement statement, InputStream data) throws SQLException {
+        try {
+            Class<?> mysqlStatement = Class.forName("com.mysql.cj.jdbc.JdbcStatement");
+            Object target = statement.unwrap(mysqlStatement);
+            mysqlStatement.getMethod("setLocalInfileInputStream", InputStream.class).invoke(target, data);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("当前 JDBC 驱动不支持 LOAD DATA LOCAL INFILE", e);
+        }
+    }
+
+    private List<Object[]> readRows(ResultSet rs) throws SQLException {
+        int columnCount = rs.getMetaData().getColumnCount();
+        List<Object[]> rows = new ArrayList<>();
+        while (rs.next()) {
+            Object[] row = new Object[columnCount];
+            for (int i = 0; i < columnCount; i++) {
+                // 与 JPA 结果一致：Blob/Clob 读为 byte[]/String
+                row[i] = JdbcUtils.getResultSetValue(rs, i + 1);
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+
+    /**
+     * 按顺序以 setObject 绑定位置参数
+     */
+    private static PreparedStatementSetter parameters(List<Object> values) {
+        return (PreparedStatement ps) -> {
+            for (int i = 0; i < values.size(); i++) {
+                ps.setObject(i + 1, values.get(i));
+            }
+        };
+    }
+}
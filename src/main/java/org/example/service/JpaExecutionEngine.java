@@ -0,0 +1,105 @@
+package org.example.service;
+
+import org.hibernate.Session;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import java.io.InputStream;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 经 JPA 原生查询执行语句的引擎（dynamic.engine=jpa），保留作为回退
+ * 每条语句都经过 Hibernate 的原生查询解析，执行前检查持久化上下文是否需要刷新；批处理逐条执行。
+ */
+@Component
+@ConditionalOnProperty(name = "dynamic.engine", havingValue = "jpa")
+public class JpaExecutionEngine implements SqlExecutionEngine {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public String name() {
+        return "jpa";
+    }
+
+    @Override
+    public int update(String sql, List<Object> values) {
+        return nativeQuery(sql, values).executeUpdate();
+    }
+
+    @Override
+    public int insert(String sql, List<Object> values, List<Object> generatedKeys) {
+        // 原生查询无法取回生成的主键，在当前会话的连接上直接执行
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (PreparedStatement statement = connection.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < values.size(); i++) {
+                    statement.setObject(i + 1, values.get(i));
+                }
+                int affected = statement.executeUpdate();
+                try (ResultSet keys = statement.getGeneratedKeys()) {
+                    while (keys.next()) {
+                        generatedKeys.add(keys.getObject(1));
+                    }
+                }
+                return affected;
+            }
+        });
+    }
+
+    @Override
+    public int[] batchUpdate(String sql, List<Object[]> batchArgs) {
+        int[] counts = new int[batchArgs.size()];
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = nativeQuery(sql, Arrays.asList(batchArgs.get(i))).executeUpdate();
+        }
+        return counts;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Object[]> query(String sql, List<Object> values) {
+        List<Object> resultList = nativeQuery(sql, values).getResultList();
+        List<Object[]> rows = new ArrayList<>(resultList.size());
+        for (Object row : resultList) {
+            // 单列结果时JPA返回标量而不是数组
+            rows.add(row instanceof Object[] ? (Object[]) row : new Object[]{row});
+        }
+        return rows;
+    }
+
+    @Override
+    public void execute(String sql) {
+        entityManager.createNativeQuery(sql).executeUpdate();
+    }
+
+    @Override
+    public int loadLocalInfile(String sql, InputStream data) {
+        // 原生查询无法指定本地文件流，在当前会话的连接上直接执行
+        return entityManager.unwrap(Session.class).doReturningWork(connection -> {
+            try (Statement statement = connection.createStatement()) {
+                JdbcExecutionEngine.setLocalInfileStream(statement, data);
+                return statement.executeUpdate(sql);
+            }
+        });
+    }
+
+    /**
+     * 创建原生查询并按顺序绑定位置参数
+     */
+    private Query nativeQuery(String sql, List<Object> values) {
+        Query query = entityManager.createNativeQuery(sql);
+        for (int i = 0; i < values.size(); i++) {
+            query.setParameter(i + 1, values.get(i));
+        }
+        return query;
+    }
+}
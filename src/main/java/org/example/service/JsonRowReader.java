@@ -0,0 +1,186 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * 流式 JSON 行读取器
+ * 直接按 token 读取 JSON 对象，将值写入按表结构列位置排列的 {@link RowBuffer}，
+ * 不构造中间的 Map，字段名由解析器的符号表规范化，不为每行重复分配。
+ * 值在读入时按列类型转换（{@link TableSchema.Column#convert}），与按 Map 写入的行使用相同的绑定类型；
+ * JSON 列的对象和数组值按原样序列化为 JSON 文本。
+ * RowBuffer 和 RowBatch 从有界池中借用、用完归还（{@link #release}），而不是按线程保存：
+ * 虚拟线程不会复用，按线程保存只会让每个线程各自持有一份缓冲区直到结束。
+ * 池满时归还的缓冲区直接丢弃，过大的批缓冲区不放回池中。
+ */
+@Component
+public class JsonRowReader {
+
+    private static final int DEFAULT_POOL_SIZE = 16;
+
+    /**
+     * 放回池中的批缓冲区最多容纳的值个数，与单条语句的占位符上限相同
+     */
+    private static final int MAX_POOLED_BATCH_VALUES = DynamicCrudService.MAX_PLACEHOLDERS;
+
+    private final JsonFactory jsonFactory;
+
+    private final BlockingQueue<RowBuffer> rowBuffers;
+
+    private final BlockingQueue<RowBatch> rowBatches;
+
+    public JsonRowReader(ObjectMapper objectMapper) {
+        this(objectMapper, DEFAULT_POOL_SIZE);
+    }
+
+    @Autowired
+    public JsonRowReader(ObjectMapper objectMapper,
+                         @Value("${dynamic.batch.buffer-pool-size:" + DEFAULT_POOL_SIZE + "}") int poolSize) {
+        if (poolSize <= 0) {
+            throw new IllegalArgumentException("dynamic.batch.buffer-pool-size 必须大于 0");
+        }
+        this.jsonFactory = objectMapper.getFactory();
+        this.rowBuffers = new ArrayBlockingQueue<>(poolSize);
+        this.rowBatches = new ArrayBlockingQueue<>(poolSize);
+    }
+
+    public JsonParser open(InputStream input) throws IOException {
+        return jsonFactory.createParser(input);
+    }
+
+    public JsonParser open(byte[] input) throws IOException {
+        return jsonFactory.createParser(input);
+    }
+
+    public JsonParser open(String input) throws IOException {
+        return jsonFactory.createParser(input);
+    }
+
+    /**
+     * 借用一个行缓冲区，用完后须调用 {@link #release(RowBuffer)}
+     */
+    public RowBuffer acquireRowBuffer() {
+        RowBuffer row = rowBuffers.poll();
+        return row != null ? row : new RowBuffer();
+    }
+
+    /**
+     * 借用一个批缓冲区，用完后须调用 {@link #release(RowBatch)}
+     */
+    public RowBatch acquireRowBatch() {
+        RowBatch batch = rowBatches.poll();
+        return batch != null ? batch : new RowBatch();
+    }
+
+    /**
+     * 归还行缓冲区，清空其中的值
+     */
+    public void release(RowBuffer row) {
+        if (row != null) {
+            row.clear();
+            rowBuffers.offer(row);
+        }
+    }
+
+    /**
+     * 归还批缓冲区，清空其中的行；容量超过单条语句占位符上限的（如 LOAD DATA 的大块）不放回池中
+     */
+    public void release(RowBatch batch) {
+        if (batch != null) {
+            batch.clear();
+            if (batch.allocatedValues() <= MAX_POOLED_BATCH_VALUES) {
+                rowBatches.offer(batch);
+            }
+        }
+    }
+
+    /**
+     * 读取一个 JSON 对象到行缓冲区
+     * 解析器应位于对象开始之前（或数组中的下一个元素之前）。
+     *
+     * @return 读到对象时返回 true，遇到数组结束或输入结束时返回 false
+     * @throws IllegalArgumentException 列不存在、非 JSON 列的值不是标量或值与列类型不符
+     */
+    public boolean readRow(JsonParser parser, TableSchema schema, RowBuffer row) throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return false;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new IllegalArgumentException("数据行必须是 JSON 对象");
+        }
+
+        row.reset(schema);
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            int position = schema.indexOf(field);
+            if (position < 0) {
+                throw new IllegalArgumentException("列 '" + field + "' 在表 '" + schema.getTableName() + "' 中不存在");
+            }
+            TableSchema.Column column = schema.getColumns().get(position);
+            row.set(position, column.convertRowValue(readValue(parser, column, field)));
+        }
+        return true;
+    }
+
+    /**
+     * 跳过顶层数组的开始标记
+     *
+     * @throws IllegalArgumentException 输入不是 JSON 数组
+     */
+    public void startArray(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalArgumentException("数据必须是 JSON 数组");
+        }
+    }
+
+    private Object readValue(JsonParser parser, TableSchema.Column column, String field) throws IOException {
+        JsonToken token = parser.nextToken();
+        switch (token) {
+            case START_OBJECT:
+            case START_ARRAY:
+                if (column.isJson()) {
+                    return readJsonText(parser);
+                }
+                throw new IllegalArgumentException("列 '" + field + "' 不是 JSON 列，值必须是字符串、数字、布尔值或 null");
+            case VALUE_STRING:
+                return parser.getText();
+            case VALUE_NUMBER_INT:
+                return parser.getNumberValue();
+            case VALUE_NUMBER_FLOAT:
+                // 定点数列按十进制读取，经 double 会丢失精度（如 12345678901234567.89）
+                return column.isDecimal() ? parser.getDecimalValue() : parser.getDoubleValue();
+            case VALUE_TRUE:
+                return Boolean.TRUE;
+            case VALUE_FALSE:
+                return Boolean.FALSE;
+            case VALUE_NULL:
+                return null;
+            default:
+                throw new IllegalArgumentException("列 '" + field + "' 的值必须是字符串、数字、布尔值或 null");
+        }
+    }
+
+    /**
+     * 把解析器当前位置的对象或数组复制为 JSON 文本
+     */
+    private String readJsonText(JsonParser parser) throws IOException {
+        StringWriter text = new StringWriter();
+        try (JsonGenerator generator = jsonFactory.createGenerator(text)) {
+            generator.copyCurrentStructure(parser);
+        }
+        return text.toString();
+    }
+}
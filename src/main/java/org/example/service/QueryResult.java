@@ -0,0 +1,51 @@
+package org.example.service;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 查询结果：列名只出现一次，行以与列名对齐的值数组表示
+ */
+public class QueryResult {
+
+    private final List<String> columns;
+    private final List<Object[]> rows;
+    private final boolean truncated;
+
+    public QueryResult(List<String> columns, List<Object[]> rows) {
+        this(columns, rows, false);
+    }
+
+    /**
+     * @param truncated 结果是否因服务端上限（dynamic.select.max-limit）而被截断
+     */
+    public QueryResult(List<String> columns, List<Object[]> rows, boolean truncated) {
+        this.columns = Collections.unmodifiableList(columns);
+        this.rows = rows;
+        this.truncated = truncated;
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public List<Object[]> getRows() {
+        return rows;
+    }
+
+    public boolean isTruncated() {
+        return truncated;
+    }
+
+    /**
+     * 列在结果中的位置，不存在时返回 -1
+     */
+    public int indexOf(String column) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (columns.get(i).equalsIgnoreCase(column)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
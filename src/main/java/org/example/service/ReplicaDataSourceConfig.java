@@ -0,0 +1,74 @@
+package org.example.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 读写分离的数据源配置（dynamic.replica.enabled=true 时生效，替代自动配置的单一数据源）
+ * 主库取自 spring.datasource.*，副本取自 dynamic.replica.urls，用户名和密码默认与主库相同；
+ * 所有连接池共用 spring.datasource.hikari.* 的设置，副本连接池为只读。
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(name = "dynamic.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfig {
+
+    @Bean
+    public ReplicaRoutingDataSource replicaRoutingDataSource(DataSourceProperties properties, Environment environment,
+                                                             ReplicaRouting routing, MeterRegistry meterRegistry) {
+        Binder binder = Binder.get(environment);
+        List<String> urls = binder.bind("dynamic.replica.urls", Bindable.listOf(String.class)).orElse(List.of())
+                .stream().map(String::trim).filter(url -> !url.isEmpty()).toList();
+        if (urls.isEmpty()) {
+            throw new IllegalStateException("已启用读写分离（dynamic.replica.enabled）但未配置 dynamic.replica.urls");
+        }
+
+        HikariDataSource primary = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        configurePool(binder, primary, "primary", meterRegistry);
+
+        List<HikariDataSource> replicas = new ArrayList<>(urls.size());
+        for (int i = 0; i < urls.size(); i++) {
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(properties.determineDriverClassName())
+                    .url(urls.get(i))
+                    .username(environment.getProperty("dynamic.replica.username", properties.determineUsername()))
+                    .password(environment.getProperty("dynamic.replica.password", properties.determinePassword()))
+                    .build();
+            configurePool(binder, replica, "replica-" + i, meterRegistry);
+            replica.setReadOnly(true);
+            replicas.add(replica);
+        }
+        return new ReplicaRoutingDataSource(primary, replicas, routing,
+                environment.getProperty("dynamic.replica.balance", "round-robin"));
+    }
+
+    /**
+     * 应用使用的数据源：延迟到第一条语句执行时才获取连接，此时只读事务标志已设置
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(ReplicaRoutingDataSource routingDataSource) {
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    private static void configurePool(Binder binder, HikariDataSource dataSource, String poolName,
+                                      MeterRegistry meterRegistry) {
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        dataSource.setPoolName(poolName);
+        dataSource.setMetricRegistry(meterRegistry);
+    }
+}
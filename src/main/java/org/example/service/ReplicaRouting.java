@@ -0,0 +1,164 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 读写分离的路由决策
+ * 只读事务（及 {@link #read(Runnable)} 包裹的非事务读取）的连接由 {@link ReplicaRoutingDataSource} 从副本池获取，
+ * 其余一律走主库。为保证读己之写：当前请求内发生过写操作，或同一客户端在 sticky-window-ms 内写过，
+ * 其读取仍走主库。客户端由 {@link #open(String)} 在请求开始时登记（见 ReplicaRoutingFilter）。
+ */
+@Component
+public class ReplicaRouting {
+
+    /**
+     * 一个请求的路由上下文
+     */
+    public static final class Scope implements AutoCloseable {
+
+        private final Scope previous;
+        private final String clientKey;
+        private boolean wrote;
+
+        private Scope(Scope previous, String clientKey) {
+            this.previous = previous;
+            this.clientKey = clientKey;
+        }
+
+        @Override
+        public void close() {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+
+    private static final ThreadLocal<Scope> CURRENT = new ThreadLocal<>();
+
+    private static final ThreadLocal<Boolean> READ = new ThreadLocal<>();
+
+    private final boolean enabled;
+    private final long stickyWindowMs;
+    private final Cache<String, Boolean> recentWriters;
+    private final ObjectProvider<ReplicaRoutingDataSource> dataSource;
+
+    public ReplicaRouting(ObjectProvider<ReplicaRoutingDataSource> dataSource,
+                          @Value("${dynamic.replica.enabled:false}") boolean enabled,
+                          @Value("${dynamic.replica.sticky-window-ms:2000}") long stickyWindowMs,
+                          @Value("${dynamic.replica.max-clients:100000}") long maxClients) {
+        this.dataSource = dataSource;
+        this.enabled = enabled;
+        this.stickyWindowMs = stickyWindowMs;
+        this.recentWriters = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterWrite(Math.max(stickyWindowMs, 1), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 开始一个请求的路由上下文，须在 finally 中关闭
+     *
+     * @param clientKey 客户端标识，null 表示只在请求内保证读己之写
+     */
+    public Scope open(String clientKey) {
+        Scope scope = new Scope(CURRENT.get(), clientKey);
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /**
+     * 当前请求的客户端标识，供异步输出线程重新登记
+     */
+    public String currentClient() {
+        Scope scope = CURRENT.get();
+        return scope == null ? null : scope.clientKey;
+    }
+
+    /**
+     * 登记一次已提交的写操作/DDL
+     */
+    public void wrote() {
+        if (!enabled) {
+            return;
+        }
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return;
+        }
+        scope.wrote = true;
+        if (scope.clientKey != null && stickyWindowMs > 0) {
+            recentWriters.put(scope.clientKey, Boolean.TRUE);
+        }
+    }
+
+    /**
+     * 在副本上执行不开启事务的读取（如流式查询）
+     */
+    public void read(Runnable work) {
+        if (!enabled || READ.get() != null) {
+            work.run();
+            return;
+        }
+        READ.set(Boolean.TRUE);
+        try {
+            work.run();
+        } finally {
+            READ.remove();
+        }
+    }
+
+    /**
+     * 当前获取的连接是否应当来自副本
+     */
+    boolean readFromReplica() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly() && READ.get() == null) {
+            return false;
+        }
+        return !pinnedToPrimary();
+    }
+
+    /**
+     * 当前请求内写过，或当前客户端在 sticky-window-ms 内写过
+     * 此时查询也不应使用可能由副本数据填充的结果缓存。
+     */
+    boolean pinnedToPrimary() {
+        if (!enabled) {
+            return false;
+        }
+        Scope scope = CURRENT.get();
+        if (scope == null) {
+            return false;
+        }
+        return scope.wrote || (scope.clientKey != null && recentWriters.getIfPresent(scope.clientKey) != null);
+    }
+
+    /**
+     * 路由状态：各数据源的连接占用和分配次数
+     */
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("enabled", enabled);
+        status.put("stickyWindowMs", stickyWindowMs);
+        status.put("stickyClients", recentWriters.estimatedSize());
+        ReplicaRoutingDataSource routing = dataSource.getIfAvailable();
+        if (routing != null) {
+            status.putAll(routing.status());
+        }
+        return status;
+    }
+}
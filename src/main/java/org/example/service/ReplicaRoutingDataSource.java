@@ -0,0 +1,137 @@
+package org.example.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 读写分离数据源：按 {@link ReplicaRouting} 的决策把连接请求分给主库或某个副本池
+ * 副本按轮询（round-robin）或当前活动连接数最少（least-loaded）选择；副本取连接失败时改用主库。
+ * 只读事务开始时事务标志尚未设置，因此须由 LazyConnectionDataSourceProxy 包装，
+ * 延迟到第一条语句执行时才真正获取连接（见 ReplicaDataSourceConfig）。
+ */
+public class ReplicaRoutingDataSource extends AbstractDataSource implements Closeable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    private final HikariDataSource primary;
+    private final List<HikariDataSource> replicas;
+    private final ReplicaRouting routing;
+    private final boolean leastLoaded;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicLong primaryConnections = new AtomicLong();
+    private final AtomicLong[] replicaConnections;
+    private final AtomicLong fallbacks = new AtomicLong();
+
+    public ReplicaRoutingDataSource(HikariDataSource primary, List<HikariDataSource> replicas,
+                                    ReplicaRouting routing, String balance) {
+        if (!"round-robin".equals(balance) && !"least-loaded".equals(balance)) {
+            throw new IllegalArgumentException("不支持的副本负载均衡方式: " + balance + "（可选 round-robin、least-loaded）");
+        }
+        this.primary = primary;
+        this.replicas = List.copyOf(replicas);
+        this.routing = routing;
+        this.leastLoaded = "least-loaded".equals(balance);
+        this.replicaConnections = new AtomicLong[replicas.size()];
+        for (int i = 0; i < replicaConnections.length; i++) {
+            replicaConnections[i] = new AtomicLong();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (!replicas.isEmpty() && routing.readFromReplica()) {
+            int index = pick();
+            HikariDataSource replica = replicas.get(index);
+            try {
+                Connection connection = replica.getConnection();
+                replicaConnections[index].incrementAndGet();
+                return connection;
+            } catch (SQLException e) {
+                fallbacks.incrementAndGet();
+                log.warn("副本 {} 获取连接失败，改用主库: {}", replica.getPoolName(), e.getMessage());
+            }
+        }
+        primaryConnections.incrementAndGet();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        throw new SQLFeatureNotSupportedException("读写分离数据源不支持指定用户名和密码获取连接");
+    }
+
+    /**
+     * 选择副本：轮询起点依次后移，least-loaded 时从起点开始取活动连接数最少的一个
+     */
+    private int pick() {
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        if (!leastLoaded) {
+            return start;
+        }
+        int best = start;
+        int bestActive = Integer.MAX_VALUE;
+        for (int i = 0; i < replicas.size(); i++) {
+            int index = (start + i) % replicas.size();
+            int active = activeConnections(replicas.get(index));
+            if (active < bestActive) {
+                best = index;
+                bestActive = active;
+            }
+        }
+        return best;
+    }
+
+    private static int activeConnections(HikariDataSource dataSource) {
+        // 连接池在第一次取连接时才启动
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        return pool == null ? 0 : pool.getActiveConnections();
+    }
+
+    /**
+     * 主库和各副本的连接占用及累计分配次数
+     */
+    Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("balance", leastLoaded ? "least-loaded" : "round-robin");
+        status.put("primary", poolStatus(primary, primaryConnections.get()));
+        List<Map<String, Object>> replicaStatus = new ArrayList<>();
+        for (int i = 0; i < replicas.size(); i++) {
+            replicaStatus.add(poolStatus(replicas.get(i), replicaConnections[i].get()));
+        }
+        status.put("replicas", replicaStatus);
+        status.put("fallbacks", fallbacks.get());
+        return status;
+    }
+
+    private static Map<String, Object> poolStatus(HikariDataSource dataSource, long connections) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("pool", dataSource.getPoolName());
+        HikariPoolMXBean pool = dataSource.getHikariPoolMXBean();
+        status.put("active", pool == null ? 0 : pool.getActiveConnections());
+        status.put("idle", pool == null ? 0 : pool.getIdleConnections());
+        status.put("connections", connections);
+        return status;
+    }
+
+    @Override
+    public void close() {
+        for (HikariDataSource replica : replicas) {
+            replica.close();
+        }
+        primary.close();
+    }
+}
@@ -0,0 +1,259 @@
+package org.example.service;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * 列集合相同的一组行的可复用缓冲区，所有行的值连续存放在一个数组中（行 × 表结构列位置）
+ * 用于流式批量插入：行从 {@link RowBuffer} 复制进来，再按SQL模板的列顺序直接绑定到 PreparedStatement。
+ * 经 {@link JsonRowReader} 的池借用和归还，非线程安全。
+ */
+public final class RowBatch {
+
+    private TableSchema schema;
+    private int width;
+    private int capacity;
+    private int maxParameters;
+    private int columnCount;
+    private boolean[] columns = new boolean[0];
+    private Object[] values = new Object[0];
+    private int rows;
+
+    /**
+     * 清空并切换到指定的表结构和容量
+     *
+     * @param capacity 最多容纳的行数
+     * @param maxParameters 单条语句最多的占位符数量（行数 × 列数）
+     */
+    public void reset(TableSchema schema, int capacity, int maxParameters) {
+        clear();
+        this.schema = schema;
+        this.width = schema.getColumns().size();
+        this.capacity = capacity;
+        this.maxParameters = maxParameters;
+        if (columns.length < width) {
+            columns = new boolean[width];
+        }
+        if (values.length < width * capacity) {
+            values = new Object[width * capacity];
+        }
+    }
+
+    /**
+     * 该行能否加入本批：批为空，或列集合相同且行数、占位符数都未超限
+     */
+    public boolean accepts(RowBuffer row) {
+        return rows == 0
+                || (rows < capacity && (long) (rows + 1) * columnCount <= maxParameters && row.sameColumns(columns));
+    }
+
+    public void add(RowBuffer row) {
+        if (rows == 0) {
+            row.copyColumnsTo(columns);
+            columnCount = row.size();
+        }
+        row.copyValuesTo(values, rows * width);
+        rows++;
+    }
+
+    public TableSchema getSchema() {
+        return schema;
+    }
+
+    public int size() {
+        return rows;
+    }
+
+    public boolean isEmpty() {
+        return rows == 0;
+    }
+
+    /**
+     * 本批的列名，按列名排序（与SQL模板的列顺序一致）
+     */
+    public List<String> columnNames() {
+        List<String> names = new ArrayList<>();
+        for (int position : schema.nameOrder()) {
+            if (columns[position]) {
+                names.add(schema.getColumns().get(position).getName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 本批列中的二进制列（LOAD DATA 以 Base64 传输这些列）
+     */
+    public Set<String> binaryColumnNames() {
+        Set<String> names = new TreeSet<>();
+        for (int position = 0; position < width; position++) {
+            TableSchema.Column column = schema.getColumns().get(position);
+            if (columns[position] && column.isBinary()) {
+                names.add(column.getName());
+            }
+        }
+        return names;
+    }
+
+    /**
+     * 按 行 × 排序后的列 的顺序绑定全部参数，对应 INSERT INTO t (...) VALUES (...), (...)
+     */
+    public void bind(PreparedStatement ps) throws SQLException {
+        int[] order = schema.nameOrder();
+        int index = 1;
+        for (int row = 0; row < rows; row++) {
+            int offset = row * width;
+            for (int position : order) {
+                if (columns[position]) {
+                    ps.setObject(index++, values[offset + position]);
+                }
+            }
+        }
+    }
+
+    /**
+     * 按与 {@link #bind} 相同的顺序取出全部参数，交给 {@link SqlExecutionEngine} 执行
+     */
+    public List<Object> parameters() {
+        int[] order = schema.nameOrder();
+        List<Object> parameters = new ArrayList<>(rows * columnCount);
+        for (int row = 0; row < rows; row++) {
+            int offset = row * width;
+            for (int position : order) {
+                if (columns[position]) {
+                    parameters.add(values[offset + position]);
+                }
+            }
+        }
+        return parameters;
+    }
+
+    /**
+     * 每行提供的主键列的值，用于变更事件；本批未提供主键列时返回 null
+     */
+    public List<Map<String, Object>> primaryKeys() {
+        List<Integer> positions = new ArrayList<>();
+        for (String keyColumn : schema.getPrimaryKeys()) {
+            int position = schema.indexOf(keyColumn);
+            if (position >= 0 && columns[position]) {
+                positions.add(position);
+            }
+        }
+        if (positions.isEmpty()) {
+            return null;
+        }
+        List<Map<String, Object>> keys = new ArrayList<>(rows);
+        for (int row = 0; row < rows; row++) {
+            Map<String, Object> key = new LinkedHashMap<>();
+            for (int position : positions) {
+                key.put(schema.getColumns().get(position).getName(), values[row * width + position]);
+            }
+            keys.add(key);
+        }
+        return keys;
+    }
+
+    /**
+     * 把第 index 行复制到行缓冲区（用于逐行重试）
+     */
+    public void copyRowTo(int index, RowBuffer target) {
+        target.reset(schema);
+        int offset = index * width;
+        for (int position = 0; position < width; position++) {
+            if (columns[position]) {
+                target.set(position, values[offset + position]);
+            }
+        }
+    }
+
+    /**
+     * 按 LOAD DATA 的默认格式编码全部行：字段以制表符分隔、行以换行结束，
+     * 反斜杠转义制表符/换行/回车/反斜杠，null 写作 \N，布尔值写作 1/0，二进制值写作 Base64（语句中以 FROM_BASE64 解码），
+     * 列顺序同 {@link #columnNames()}
+     */
+    public byte[] toTabSeparated() {
+        int[] order = schema.nameOrder();
+        StringBuilder text = new StringBuilder(rows * columnCount * 8);
+        for (int row = 0; row < rows; row++) {
+            int offset = row * width;
+            boolean first = true;
+            for (int position : order) {
+                if (!columns[position]) {
+                    continue;
+                }
+                if (!first) {
+                    text.append('\t');
+                }
+                first = false;
+                appendTabSeparated(text, values[offset + position]);
+            }
+            text.append('\n');
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void appendTabSeparated(StringBuilder text, Object value) {
+        if (value == null) {
+            text.append("\\N");
+            return;
+        }
+        if (value instanceof Boolean) {
+            text.append((Boolean) value ? '1' : '0');
+            return;
+        }
+        if (value instanceof byte[]) {
+            text.append(Base64.getEncoder().encodeToString((byte[]) value));
+            return;
+        }
+        String string = value instanceof BigDecimal ? ((BigDecimal) value).toPlainString() : value.toString();
+        for (int i = 0; i < string.length(); i++) {
+            char c = string.charAt(i);
+            switch (c) {
+                case '\\':
+                    text.append("\\\\");
+                    break;
+                case '\t':
+                    text.append("\\t");
+                    break;
+                case '\n':
+                    text.append("\\n");
+                    break;
+                case '\r':
+                    text.append("\\r");
+                    break;
+                case '\0':
+                    text.append("\\0");
+                    break;
+                default:
+                    text.append(c);
+            }
+        }
+    }
+
+    /**
+     * 已分配的值数组长度
+     */
+    int allocatedValues() {
+        return values.length;
+    }
+
+    /**
+     * 清空已有的行，释放对值的引用
+     */
+    public void clear() {
+        if (rows > 0) {
+            Arrays.fill(values, 0, rows * width, null);
+        }
+        rows = 0;
+    }
+}
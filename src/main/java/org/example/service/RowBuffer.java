@@ -0,0 +1,94 @@
+package org.example.service;
+
+import java.util.Arrays;
+
+/**
+ * 单行数据的可复用缓冲区，按表结构的列位置存放值
+ * 由 {@link JsonRowReader} 直接从 JSON 填充，不经过 Map；经其池借用和归还，非线程安全。
+ */
+public final class RowBuffer {
+
+    private TableSchema schema;
+    private Object[] values = new Object[0];
+    private boolean[] present = new boolean[0];
+    private int presentCount;
+
+    /**
+     * 清空并切换到指定的表结构
+     */
+    public void reset(TableSchema schema) {
+        int width = schema.getColumns().size();
+        if (values.length < width) {
+            values = new Object[width];
+            present = new boolean[width];
+        } else {
+            Arrays.fill(values, 0, width, null);
+            Arrays.fill(present, 0, width, false);
+        }
+        this.schema = schema;
+        this.presentCount = 0;
+    }
+
+    /**
+     * 释放对值和表结构的引用
+     */
+    public void clear() {
+        Arrays.fill(values, null);
+        Arrays.fill(present, false);
+        schema = null;
+        presentCount = 0;
+    }
+
+    public TableSchema getSchema() {
+        return schema;
+    }
+
+    /**
+     * 设置某列的值（null 也视为已提供）
+     *
+     * @param position 列在表结构中的位置
+     */
+    public void set(int position, Object value) {
+        if (!present[position]) {
+            present[position] = true;
+            presentCount++;
+        }
+        values[position] = value;
+    }
+
+    public Object get(int position) {
+        return values[position];
+    }
+
+    public boolean isPresent(int position) {
+        return present[position];
+    }
+
+    /**
+     * 已提供的列数
+     */
+    public int size() {
+        return presentCount;
+    }
+
+    /**
+     * 是否与另一行提供了相同的列
+     */
+    boolean sameColumns(boolean[] columns) {
+        int width = schema.getColumns().size();
+        for (int i = 0; i < width; i++) {
+            if (present[i] != columns[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    void copyColumnsTo(boolean[] columns) {
+        System.arraycopy(present, 0, columns, 0, schema.getColumns().size());
+    }
+
+    void copyValuesTo(Object[] target, int offset) {
+        System.arraycopy(values, 0, target, offset, schema.getColumns().size());
+    }
+}
@@ -0,0 +1,24 @@
+package org.example.service;
+
+import java.util.List;
+
+/**
+ * 流式查询的行接收者：先收到一次列名，再逐行收到与列名对齐的值数组
+ */
+public interface RowSink {
+
+    /**
+     * 在第一行之前调用一次
+     *
+     * @param columns 结果列名
+     */
+    default void columns(List<String> columns) {
+    }
+
+    /**
+     * 每行调用一次，数组在调用返回后不再被引用
+     *
+     * @param row 行数据
+     */
+    void row(Object[] row);
+}
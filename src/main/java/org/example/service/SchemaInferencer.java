@@ -0,0 +1,415 @@
+package org.example.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 按多行示例数据推断建表的列类型
+ * 逐列统计所有示例值（行数达到 dynamic.schema-inference.parallel-threshold 时并行统计），
+ * 选择能容纳全部值的最紧凑类型：整数按取值范围选 TINYINT/SMALLINT/MEDIUMINT/INT/BIGINT，
+ * 小数按整数位数和小数位数选 DECIMAL(p,s)，日期时间选 DATE/DATETIME，对象和数组选 JSON，
+ * 字符串按最大长度选 VARCHAR(n) 或 TEXT。文本值（如 CSV 字段）按内容识别，"true"/"false" 识别为布尔值，
+ * 有前导零的数字串（如邮编）保留为字符串。
+ * 示例中缺失、为 null 或空字符串的值不影响类型，全部为空的列使用 VARCHAR(255)。
+ */
+@Service
+public class SchemaInferencer {
+
+    private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("\\w{1,64}");
+
+    private static final Pattern INTEGER = Pattern.compile("-?(0|[1-9]\\d*)");
+
+    private static final Pattern DECIMAL = Pattern.compile("-?\\d+\\.\\d+");
+
+    private static final Pattern FLOATING = Pattern.compile("-?\\d+(\\.\\d+)?[eE][+-]?\\d+");
+
+    private static final Pattern DATE = Pattern.compile("\\d{4}-\\d{2}-\\d{2}");
+
+    private static final Pattern DATETIME = Pattern.compile("(\\d{4}-\\d{2}-\\d{2})[ T](\\d{2}:\\d{2}:\\d{2})(\\.(\\d{1,9}))?");
+
+    /**
+     * 超过该小数位数或 DECIMAL 的最大精度时改用 DOUBLE
+     */
+    private static final int MAX_DECIMAL_SCALE = 10;
+
+    private static final int MAX_DECIMAL_PRECISION = 65;
+
+    /**
+     * VARCHAR 长度的最小取值，实际长度为不小于最大值的 2 的幂
+     */
+    private static final int MIN_VARCHAR_LENGTH = 16;
+
+    private static final int MAX_VARCHAR_LENGTH = 255;
+
+    /**
+     * 推断结果
+     *
+     * @param columnTypes 列名到列类型，按列在示例中首次出现的顺序
+     * @param columnStatistics 每列的统计信息：类型、非空值数、空值数、最大长度、数值范围、各类值的数量
+     * @param sampledRows 参与推断的行数
+     */
+    public record Result(Map<String, String> columnTypes, List<Map<String, Object>> columnStatistics,
+                         int sampledRows) {
+    }
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${dynamic.schema-inference.parallel-threshold:10000}")
+    private int parallelThreshold;
+
+    @Value("${dynamic.schema-inference.max-sample-rows:100000}")
+    private int maxSampleRows;
+
+    /**
+     * 参与推断的最大行数，超出部分忽略
+     */
+    public int getMaxSampleRows() {
+        return maxSampleRows;
+    }
+
+    /**
+     * 推断示例行的列类型
+     *
+     * @param rows 示例行，列名到值；只使用前 dynamic.schema-inference.max-sample-rows 行
+     * @throws IllegalArgumentException 没有示例行或列名无效
+     */
+    public Result infer(List<Map<String, Object>> rows) {
+        if (rows == null || rows.isEmpty()) {
+            throw new IllegalArgumentException("示例数据不能为空");
+        }
+        List<Map<String, Object>> sample = rows.size() > maxSampleRows ? rows.subList(0, maxSampleRows) : rows;
+
+        Profiles profiles = sample.size() >= parallelThreshold
+                ? sample.parallelStream().collect(Profiles::new, Profiles::accept, Profiles::merge)
+                : sample.stream().collect(Profiles::new, Profiles::accept, Profiles::merge);
+        if (profiles.columns.isEmpty()) {
+            throw new IllegalArgumentException("示例数据不能为空");
+        }
+
+        Map<String, String> columnTypes = new LinkedHashMap<>();
+        List<Map<String, Object>> statistics = new ArrayList<>(profiles.columns.size());
+        for (ColumnProfile profile : profiles.columns.values()) {
+            if (!IDENTIFIER_PATTERN.matcher(profile.name).matches()) {
+                throw new IllegalArgumentException("列名无效: " + profile.name);
+            }
+            String type = profile.resolveType();
+            columnTypes.put(profile.name, type);
+            statistics.add(profile.statistics(type, sample.size()));
+        }
+        return new Result(columnTypes, statistics, sample.size());
+    }
+
+    /**
+     * 各列的统计，按列名（不区分大小写）合并
+     */
+    private class Profiles {
+        final Map<String, ColumnProfile> columns = new LinkedHashMap<>();
+
+        void accept(Map<String, Object> row) {
+            if (row == null) {
+                return;
+            }
+            for (Map.Entry<String, Object> entry : row.entrySet()) {
+                if (entry.getKey() == null) {
+                    throw new IllegalArgumentException("列名无效: null");
+                }
+                columns.computeIfAbsent(entry.getKey().toLowerCase(Locale.ROOT), k -> new ColumnProfile(entry.getKey()))
+                        .accept(entry.getValue());
+            }
+        }
+
+        void merge(Profiles other) {
+            other.columns.forEach((key, profile) -> columns.merge(key, profile, ColumnProfile::merge));
+        }
+    }
+
+    /**
+     * 单列的值统计
+     */
+    private class ColumnProfile {
+        final String name;
+        long nonNull;
+        long booleans;
+        long integers;
+        long decimals;
+        long floats;
+        long dates;
+        long datetimes;
+        long jsons;
+        long texts;
+        BigInteger minInteger;
+        BigInteger maxInteger;
+        int maxIntegerDigits;
+        int maxScale;
+        int maxFraction;
+        int maxLength;
+
+        ColumnProfile(String name) {
+            this.name = name;
+        }
+
+        void accept(Object value) {
+            if (value == null || (value instanceof String && ((String) value).isBlank())) {
+                return;
+            }
+            nonNull++;
+            if (value instanceof Map || value instanceof Collection) {
+                jsons++;
+                maxLength = Math.max(maxLength, toJson(value).length());
+                return;
+            }
+            String text = value.toString();
+            maxLength = Math.max(maxLength, text.length());
+            if (value instanceof Boolean) {
+                booleans++;
+            } else if (value instanceof Integer || value instanceof Long || value instanceof Short
+                    || value instanceof Byte || value instanceof BigInteger) {
+                integer(text);
+            } else if (value instanceof BigDecimal) {
+                decimal((BigDecimal) value);
+            } else if (value instanceof Double || value instanceof Float) {
+                double number = ((Number) value).doubleValue();
+                if (Double.isFinite(number)) {
+                    decimal(BigDecimal.valueOf(number));
+                } else {
+                    floats++;
+                }
+            } else {
+                acceptText(text.trim());
+            }
+        }
+
+        /**
+         * 按内容识别文本值
+         */
+        private void acceptText(String text) {
+            if ("true".equalsIgnoreCase(text) || "false".equalsIgnoreCase(text)) {
+                booleans++;
+            } else if (INTEGER.matcher(text).matches()) {
+                integer(text);
+            } else if (DECIMAL.matcher(text).matches()) {
+                decimal(new BigDecimal(text));
+            } else if (FLOATING.matcher(text).matches()) {
+                floats++;
+            } else if (DATE.matcher(text).matches() && isDate(text)) {
+                dates++;
+            } else if (isDatetime(text)) {
+                datetimes++;
+            } else if (isJson(text)) {
+                jsons++;
+            } else {
+                texts++;
+            }
+        }
+
+        /**
+         * @param text 整数的十进制表示，无前导零
+         */
+        private void integer(String text) {
+            BigInteger value = text.length() <= 18 ? BigInteger.valueOf(Long.parseLong(text)) : new BigInteger(text);
+            integers++;
+            minInteger = minInteger == null ? value : minInteger.min(value);
+            maxInteger = maxInteger == null ? value : maxInteger.max(value);
+            maxIntegerDigits = Math.max(maxIntegerDigits, text.startsWith("-") ? text.length() - 1 : text.length());
+        }
+
+        private void decimal(BigDecimal value) {
+            BigDecimal normalized = value.stripTrailingZeros();
+            int scale = Math.max(normalized.scale(), 0);
+            decimals++;
+            maxScale = Math.max(maxScale, scale);
+            maxIntegerDigits = Math.max(maxIntegerDigits, Math.max(normalized.precision() - normalized.scale(), 1));
+        }
+
+        private boolean isDate(String text) {
+            try {
+                LocalDate.parse(text);
+                return true;
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+        }
+
+        private boolean isDatetime(String text) {
+            Matcher matcher = DATETIME.matcher(text);
+            if (!matcher.matches()) {
+                return false;
+            }
+            try {
+                LocalDateTime.parse(matcher.group(1) + "T" + matcher.group(2));
+            } catch (DateTimeParseException e) {
+                return false;
+            }
+            if (matcher.group(4) != null) {
+                maxFraction = Math.max(maxFraction, Math.min(matcher.group(4).length(), 6));
+            }
+            return true;
+        }
+
+        private boolean isJson(String text) {
+            boolean object = text.startsWith("{") && text.endsWith("}");
+            boolean array = text.startsWith("[") && text.endsWith("]");
+            if (!object && !array) {
+                return false;
+            }
+            try {
+                objectMapper.readTree(text);
+                return true;
+            } catch (JsonProcessingException e) {
+                return false;
+            }
+        }
+
+        private String toJson(Object value) {
+            try {
+                return objectMapper.writeValueAsString(value);
+            } catch (JsonProcessingException e) {
+                return value.toString();
+            }
+        }
+
+        ColumnProfile merge(ColumnProfile other) {
+            nonNull += other.nonNull;
+            booleans += other.booleans;
+            integers += other.integers;
+            decimals += other.decimals;
+            floats += other.floats;
+            dates += other.dates;
+            datetimes += other.datetimes;
+            jsons += other.jsons;
+            texts += other.texts;
+            if (other.minInteger != null) {
+                minInteger = minInteger == null ? other.minInteger : minInteger.min(other.minInteger);
+                maxInteger = maxInteger == null ? other.maxInteger : maxInteger.max(other.maxInteger);
+            }
+            maxIntegerDigits = Math.max(maxIntegerDigits, other.maxIntegerDigits);
+            maxScale = Math.max(maxScale, other.maxScale);
+            maxFraction = Math.max(maxFraction, other.maxFraction);
+            maxLength = Math.max(maxLength, other.maxLength);
+            return this;
+        }
+
+        String resolveType() {
+            if (nonNull == 0) {
+                return "VARCHAR(255)";
+            }
+            // 布尔值与 0/1 混合时同样视为布尔列
+            if (booleans == nonNull || (booleans > 0 && booleans + integers == nonNull && fits(0, 1))) {
+                return "BOOLEAN";
+            }
+            if (integers == nonNull) {
+                return integerType();
+            }
+            if (integers + decimals + floats == nonNull) {
+                int precision = maxIntegerDigits + maxScale;
+                if (floats == 0 && maxScale <= MAX_DECIMAL_SCALE && precision <= MAX_DECIMAL_PRECISION) {
+                    return "DECIMAL(" + precision + ", " + maxScale + ")";
+                }
+                return "DOUBLE";
+            }
+            if (dates + datetimes == nonNull) {
+                if (datetimes == 0) {
+                    return "DATE";
+                }
+                return maxFraction > 0 ? "DATETIME(" + maxFraction + ")" : "DATETIME";
+            }
+            if (jsons == nonNull) {
+                return "JSON";
+            }
+            return textType(maxLength);
+        }
+
+        private String integerType() {
+            if (fits(-128, 127)) {
+                return "TINYINT";
+            }
+            if (fits(-32768, 32767)) {
+                return "SMALLINT";
+            }
+            if (fits(-8388608, 8388607)) {
+                return "MEDIUMINT";
+            }
+            if (fits(Integer.MIN_VALUE, Integer.MAX_VALUE)) {
+                return "INT";
+            }
+            if (fits(Long.MIN_VALUE, Long.MAX_VALUE)) {
+                return "BIGINT";
+            }
+            return maxIntegerDigits <= MAX_DECIMAL_PRECISION ? "DECIMAL(" + maxIntegerDigits + ", 0)" : textType(maxLength);
+        }
+
+        private boolean fits(long min, long max) {
+            return minInteger.compareTo(BigInteger.valueOf(min)) >= 0 && maxInteger.compareTo(BigInteger.valueOf(max)) <= 0;
+        }
+
+        Map<String, Object> statistics(String type, int sampledRows) {
+            Map<String, Object> statistics = new LinkedHashMap<>();
+            statistics.put("name", name);
+            statistics.put("type", type);
+            statistics.put("nonNull", nonNull);
+            statistics.put("nulls", sampledRows - nonNull);
+            statistics.put("maxLength", maxLength);
+            if (minInteger != null) {
+                statistics.put("min", minInteger);
+                statistics.put("max", maxInteger);
+            }
+            if (decimals > 0) {
+                statistics.put("maxIntegerDigits", maxIntegerDigits);
+                statistics.put("maxScale", maxScale);
+            }
+            Map<String, Long> kinds = new LinkedHashMap<>();
+            putKind(kinds, "boolean", booleans);
+            putKind(kinds, "integer", integers);
+            putKind(kinds, "decimal", decimals);
+            putKind(kinds, "float", floats);
+            putKind(kinds, "date", dates);
+            putKind(kinds, "datetime", datetimes);
+            putKind(kinds, "json", jsons);
+            putKind(kinds, "text", texts);
+            statistics.put("kinds", kinds);
+            return statistics;
+        }
+
+        private void putKind(Map<String, Long> kinds, String kind, long count) {
+            if (count > 0) {
+                kinds.put(kind, count);
+            }
+        }
+    }
+
+    /**
+     * 字符串列类型：不超过 255 个字符时为 VARCHAR，长度取不小于最大值的 2 的幂（至少 16，最多 255），
+     * 为示例中未出现的更长值留出余量；更长时为 TEXT/MEDIUMTEXT/LONGTEXT
+     */
+    static String textType(int maxLength) {
+        if (maxLength <= MAX_VARCHAR_LENGTH) {
+            int length = MIN_VARCHAR_LENGTH;
+            while (length < maxLength) {
+                length <<= 1;
+            }
+            return "VARCHAR(" + Math.min(length, MAX_VARCHAR_LENGTH) + ")";
+        }
+        if (maxLength <= 65535) {
+            return "TEXT";
+        }
+        return maxLength <= 16777215 ? "MEDIUMTEXT" : "LONGTEXT";
+    }
+}
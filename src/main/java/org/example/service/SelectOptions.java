@@ -0,0 +1,80 @@
+package org.example.service;
+
+import java.util.List;
+
+/**
+ * 查询选项：列投影、排序、返回行数上限与键集分页游标
+ */
+public class SelectOptions {
+
+    /**
+     * 需要返回的列，null 或空表示全部列
+     */
+    private List<String> columns;
+
+    /**
+     * 返回行数上限，null 表示不限制
+     */
+    private Integer limit;
+
+    /**
+     * 键集分页游标：仅返回主键大于该值的行，并按主键升序排列
+     */
+    private Object after;
+
+    /**
+     * 排序列，列名前加 - 表示降序；null 或空表示不指定（分页时按主键排序）
+     */
+    private List<String> orderBy;
+
+    public static SelectOptions none() {
+        return new SelectOptions();
+    }
+
+    public List<String> getColumns() {
+        return columns;
+    }
+
+    public void setColumns(List<String> columns) {
+        this.columns = columns;
+    }
+
+    public boolean isProjected() {
+        return columns != null && !columns.isEmpty();
+    }
+
+    public Integer getLimit() {
+        return limit;
+    }
+
+    public void setLimit(Integer limit) {
+        this.limit = limit;
+    }
+
+    public Object getAfter() {
+        return after;
+    }
+
+    public void setAfter(Object after) {
+        this.after = after;
+    }
+
+    public List<String> getOrderBy() {
+        return orderBy;
+    }
+
+    public void setOrderBy(List<String> orderBy) {
+        this.orderBy = orderBy;
+    }
+
+    public boolean isOrdered() {
+        return orderBy != null && !orderBy.isEmpty();
+    }
+
+    /**
+     * 是否需要按主键排序（使用游标或限制行数时需要稳定的顺序）
+     */
+    public boolean isPaged() {
+        return limit != null || after != null;
+    }
+}
@@ -0,0 +1,161 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 动态查询结果的读穿透缓存
+ * 键为 (表, 表版本号, 规范化的查询条件, 查询选项)，按结果单元格数计重并使用 W-TinyLFU 淘汰，
+ * 每张表可通过 dynamic.result-cache.ttl.&lt;表名&gt; 单独配置过期时间。
+ * 表名按 {@link TableSchemaRegistry#keyOf} 规范化，与表结构缓存同样区分或不区分大小写；
+ * 只为已校验存在的表记录版本号和过期时间，不存在的表名不会占用条目。
+ * 对表的任何写操作/DDL提交后都会递增该表的版本号，使旧结果不再可见。
+ */
+@Component
+public class SelectResultCache implements MeterBinder {
+
+    /**
+     * 缓存键，conditions 已按列名排序
+     */
+    record Key(String tableName, long version, String kind, SortedMap<String, Object> conditions,
+               List<String> columns, List<String> orderBy, Integer limit, Object after) {
+    }
+
+    @Autowired
+    private TableSchemaRegistry schemaRegistry;
+
+    private final Cache<Key, QueryResult> cache;
+    private final Map<String, AtomicLong> tableVersions = new ConcurrentHashMap<>();
+    private final Map<String, Long> tableTtlNanos = new ConcurrentHashMap<>();
+    private final Environment environment;
+    private final boolean enabled;
+    private final long defaultTtlMs;
+
+    public SelectResultCache(Environment environment,
+                             @Value("${dynamic.result-cache.enabled:true}") boolean enabled,
+                             @Value("${dynamic.result-cache.max-weight:1000000}") long maxWeight,
+                             @Value("${dynamic.result-cache.default-ttl-ms:30000}") long defaultTtlMs) {
+        this.environment = environment;
+        this.enabled = enabled;
+        this.defaultTtlMs = defaultTtlMs;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Key key, QueryResult value) -> 1 + value.getRows().size() * Math.max(1, value.getColumns().size()))
+                .expireAfter(new Expiry<Key, QueryResult>() {
+                    @Override
+                    public long expireAfterCreate(Key key, QueryResult value, long currentTime) {
+                        return ttlNanos(key.tableName());
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, QueryResult value, long currentTime, long currentDuration) {
+                        return ttlNanos(key.tableName());
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, QueryResult value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 读取缓存，未命中时调用 loader 加载并缓存
+     *
+     * @param schema 已校验存在的表的结构
+     * @param kind 查询种类（如 select），用于区分不同形态的结果
+     * @param conditions 查询条件
+     * @param options 查询选项
+     * @param loader 加载器
+     */
+    public QueryResult get(TableSchema schema, String kind, Map<String, Object> conditions, SelectOptions options,
+                           Supplier<QueryResult> loader) {
+        String table = schemaRegistry.keyOf(schema.getTableName());
+        if (!enabled || ttlNanos(table) <= 0) {
+            return loader.get();
+        }
+        Key key = new Key(table, version(table).get(), kind,
+                conditions == null ? Collections.emptySortedMap() : new TreeMap<>(conditions),
+                options.getColumns(), options.getOrderBy(), options.getLimit(), options.getAfter());
+        return cache.get(key, k -> loader.get());
+    }
+
+    /**
+     * 失效某张表的全部缓存结果
+     */
+    public void invalidate(String tableName) {
+        String table = schemaRegistry.keyOf(tableName);
+        // 没有版本号的表尚未缓存过结果，不为其创建条目
+        AtomicLong version = tableVersions.get(table);
+        if (version != null) {
+            version.incrementAndGet();
+        }
+        cache.asMap().keySet().removeIf(key -> key.tableName().equals(table));
+    }
+
+    /**
+     * 失效全部缓存结果
+     */
+    public void invalidateAll() {
+        tableVersions.values().forEach(AtomicLong::incrementAndGet);
+        cache.invalidateAll();
+    }
+
+    /**
+     * 将缓存统计注册到 Micrometer（命中率、淘汰、加载耗时）
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "dynamic.select-results");
+    }
+
+    /**
+     * 命中率、淘汰数、加载耗时等统计信息
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", enabled);
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        result.put("evictionWeight", stats.evictionWeight());
+        result.put("loads", stats.loadCount());
+        result.put("loadFailures", stats.loadFailureCount());
+        result.put("averageLoadPenaltyMs", stats.averageLoadPenalty() / 1_000_000.0);
+        return result;
+    }
+
+    private AtomicLong version(String table) {
+        return tableVersions.computeIfAbsent(table, k -> new AtomicLong());
+    }
+
+    private long ttlNanos(String table) {
+        return tableTtlNanos.computeIfAbsent(table, t -> TimeUnit.MILLISECONDS.toNanos(
+                environment.getProperty("dynamic.result-cache.ttl." + t, Long.class, defaultTtlMs)));
+    }
+}
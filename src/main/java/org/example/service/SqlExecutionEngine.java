@@ -0,0 +1,65 @@
+package org.example.service;
+
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * 动态 CRUD 的语句执行引擎：执行已生成的带位置参数的 SQL，参与调用方当前的 Spring 事务
+ * 由 dynamic.engine 选择实现：jdbc（默认，{@link JdbcExecutionEngine}）或 jpa（{@link JpaExecutionEngine}）。
+ */
+public interface SqlExecutionEngine {
+
+    /**
+     * 引擎名称，与 dynamic.engine 的取值一致
+     */
+    String name();
+
+    /**
+     * 执行 INSERT/UPDATE/DELETE
+     *
+     * @param sql 带 ? 占位符的语句
+     * @param values 按占位符顺序的参数
+     * @return 影响行数
+     */
+    int update(String sql, List<Object> values);
+
+    /**
+     * 执行 INSERT 并取回数据库生成的主键（AUTO_INCREMENT 列）
+     *
+     * @param sql 带 ? 占位符的语句，可为多行 INSERT
+     * @param values 按占位符顺序的参数
+     * @param generatedKeys 按插入顺序接收每行生成的主键值
+     * @return 影响行数
+     */
+    int insert(String sql, List<Object> values, List<Object> generatedKeys);
+
+    /**
+     * 以批处理执行同一条语句
+     *
+     * @param sql 带 ? 占位符的语句
+     * @param batchArgs 每项为一次执行的参数
+     * @return 每次执行的影响行数，驱动可能返回 SUCCESS_NO_INFO(-2)
+     */
+    int[] batchUpdate(String sql, List<Object[]> batchArgs);
+
+    /**
+     * 执行查询
+     *
+     * @param sql 带 ? 占位符的语句
+     * @param values 按占位符顺序的参数
+     * @return 每行一个与结果列对齐的值数组，单列结果同样为数组
+     */
+    List<Object[]> query(String sql, List<Object> values);
+
+    /**
+     * 执行不带参数的语句（DDL 等）
+     */
+    void execute(String sql);
+
+    /**
+     * 执行 LOAD DATA LOCAL INFILE，本地文件内容由 data 提供（仅 MySQL Connector/J）
+     *
+     * @return 实际写入的行数
+     */
+    int loadLocalInfile(String sql, InputStream data);
+}
@@ -0,0 +1,78 @@
+package org.example.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 规范化的SQL模板：SQL文本 + 参数绑定顺序
+ * 同一 (操作, 表, 列集合) 总是得到相同的SQL文本，参数需按 {@link #bindValues} 的顺序绑定。
+ */
+public class SqlTemplate {
+
+    private final String sql;
+    private final List<String> valueColumns;
+    private final List<String> conditionColumns;
+
+    public SqlTemplate(String sql, List<String> valueColumns, List<String> conditionColumns) {
+        this.sql = sql;
+        this.valueColumns = Collections.unmodifiableList(valueColumns);
+        this.conditionColumns = Collections.unmodifiableList(conditionColumns);
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * INSERT 的列或 UPDATE 的 SET 列，按绑定顺序排列
+     */
+    public List<String> getValueColumns() {
+        return valueColumns;
+    }
+
+    /**
+     * WHERE 条件的形态（见 {@link Condition#shape()}），按绑定顺序排列（位于 valueColumns 之后）；
+     * 等值条件的形态即列名
+     */
+    public List<String> getConditionColumns() {
+        return conditionColumns;
+    }
+
+    /**
+     * 按模板的参数顺序取出待绑定的值，只适用于全部为等值条件的模板
+     *
+     * @param data INSERT/UPDATE 的数据，可为 null
+     * @param conditions WHERE 条件，可为 null
+     * @return 参数值列表
+     */
+    public List<Object> bindValues(Map<String, Object> data, Map<String, Object> conditions) {
+        List<Object> values = new ArrayList<>(valueColumns.size() + conditionColumns.size());
+        for (String column : valueColumns) {
+            values.add(data.get(column));
+        }
+        for (String column : conditionColumns) {
+            values.add(conditions.get(column));
+        }
+        return values;
+    }
+
+    /**
+     * 按模板的参数顺序取出待绑定的值：valueColumns 对应的数据在前，其后为各条件的参数值
+     *
+     * @param data INSERT/UPDATE 的数据，可为 null
+     * @param conditions 生成该模板时使用的条件
+     * @return 参数值列表
+     */
+    public List<Object> bindValues(Map<String, Object> data, List<Condition> conditions) {
+        List<Object> values = new ArrayList<>(valueColumns.size() + conditions.size());
+        for (String column : valueColumns) {
+            values.add(data.get(column));
+        }
+        for (Condition condition : conditions) {
+            condition.appendValues(values);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,73 @@
+package org.example.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * SQL模板缓存
+ * 以 (操作, 表, 排序后的列集合) 为键缓存规范化的SQL模板，容量有界且线程安全，
+ * 保证相同逻辑语句总是生成相同的SQL文本，使驱动/连接池的预编译语句缓存能够命中。
+ */
+@Component
+public class SqlTemplateCache implements MeterBinder {
+
+    public enum Operation {
+        INSERT, MULTI_INSERT, UPSERT, SELECT, AGGREGATE, UPDATE, DELETE, UPDATE_IN, DELETE_IN
+    }
+
+    /**
+     * 缓存键，列集合均已排序；variant 描述分页等附加子句
+     */
+    record Key(Operation operation, String tableName, List<String> valueColumns,
+               List<String> conditionColumns, int rowCount, String variant) {
+    }
+
+    private final Cache<Key, SqlTemplate> cache;
+
+    public SqlTemplateCache(@Value("${dynamic.sql-template-cache.max-size:2000}") long maxSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * 获取模板，未命中时使用 builder 构建并放入缓存
+     */
+    public SqlTemplate get(Key key, Supplier<SqlTemplate> builder) {
+        return cache.get(key, k -> builder.get());
+    }
+
+    /**
+     * 将缓存统计注册到 Micrometer（命中率、淘汰、加载耗时）
+     */
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "dynamic.sql-templates");
+    }
+
+    /**
+     * 命中/未命中等统计信息
+     */
+    public Map<String, Object> stats() {
+        CacheStats stats = cache.stats();
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("size", cache.estimatedSize());
+        result.put("hits", stats.hitCount());
+        result.put("misses", stats.missCount());
+        result.put("hitRate", stats.hitRate());
+        result.put("evictions", stats.evictionCount());
+        return result;
+    }
+}
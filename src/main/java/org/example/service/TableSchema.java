@@ -0,0 +1,230 @@
+package org.example.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+/**
+ * 动态表的结构元数据快照（列名、类型、主键），由 {@link TableSchemaRegistry} 维护
+ */
+public class TableSchema {
+
+    /**
+     * {@link #toDescribeRows()} 各列的列名
+     */
+    public static final List<String> DESCRIBE_COLUMNS = List.of("Field", "Type", "Null", "Key", "Default", "Extra");
+
+    private final String tableName;
+    private final List<Column> columns;
+    private final Map<String, Column> columnIndex;
+    private final Map<String, Integer> exactPositions;
+    private final Map<String, Integer> positions;
+    private final int[] nameOrder;
+    private final List<String> primaryKeys;
+    private final long loadedAt;
+
+    public TableSchema(String tableName, List<Column> columns) {
+        this.tableName = tableName;
+        this.columns = Collections.unmodifiableList(new ArrayList<>(columns));
+        this.columnIndex = new LinkedHashMap<>();
+        this.exactPositions = new HashMap<>();
+        this.positions = new HashMap<>();
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            Column column = columns.get(i);
+            columnIndex.put(column.getName().toLowerCase(), column);
+            exactPositions.put(column.getName(), i);
+            positions.put(column.getName().toLowerCase(), i);
+            if ("PRI".equalsIgnoreCase(column.getKey())) {
+                keys.add(column.getName());
+            }
+        }
+        this.nameOrder = new int[columns.size()];
+        List<Integer> order = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            order.add(i);
+        }
+        order.sort(Comparator.comparing(i -> columns.get(i).getName()));
+        for (int i = 0; i < nameOrder.length; i++) {
+            nameOrder[i] = order.get(i);
+        }
+        this.primaryKeys = Collections.unmodifiableList(keys);
+        this.loadedAt = System.currentTimeMillis();
+    }
+
+    public String getTableName() {
+        return tableName;
+    }
+
+    public List<Column> getColumns() {
+        return columns;
+    }
+
+    public List<String> getPrimaryKeys() {
+        return primaryKeys;
+    }
+
+    public long getLoadedAt() {
+        return loadedAt;
+    }
+
+    public boolean hasColumn(String columnName) {
+        return columnName != null && columnIndex.containsKey(columnName.toLowerCase());
+    }
+
+    public Column getColumn(String columnName) {
+        return columnName == null ? null : columnIndex.get(columnName.toLowerCase());
+    }
+
+    /**
+     * 列在 {@link #getColumns()} 中的位置，先按原名精确匹配，再忽略大小写匹配
+     *
+     * @return 位置，列不存在时返回 -1
+     */
+    public int indexOf(String columnName) {
+        if (columnName == null) {
+            return -1;
+        }
+        Integer position = exactPositions.get(columnName);
+        if (position == null) {
+            position = positions.get(columnName.toLowerCase());
+        }
+        return position == null ? -1 : position;
+    }
+
+    /**
+     * 按列名排序后的列位置，与SQL模板的列顺序一致
+     */
+    int[] nameOrder() {
+        return nameOrder;
+    }
+
+    /**
+     * 转换为与 DESCRIBE 语句一致的行格式：Field, Type, Null, Key, Default, Extra
+     */
+    public List<Object[]> toDescribeRows() {
+        List<Object[]> rows = new ArrayList<>(columns.size());
+        for (Column column : columns) {
+            rows.add(new Object[]{
+                    column.getName(), column.getType(), column.getNullable(),
+                    column.getKey(), column.getDefaultValue(), column.getExtra()
+            });
+        }
+        return rows;
+    }
+
+    /**
+     * 单个列的元数据
+     */
+    public static class Column {
+
+        private final String name;
+        private final String type;
+        private final String dataType;
+        private final String nullable;
+        private final String key;
+        private final Object defaultValue;
+        private final String extra;
+        private final UnaryOperator<Object> converter;
+        private final boolean blankAsNull;
+
+        public Column(String name, String type, String dataType, String nullable,
+                      String key, Object defaultValue, String extra) {
+            this.name = name;
+            this.type = type;
+            this.dataType = dataType;
+            this.nullable = nullable;
+            this.key = key;
+            this.defaultValue = defaultValue;
+            this.extra = extra;
+            this.converter = ColumnTypes.converterFor(dataType);
+            this.blankAsNull = !ColumnTypes.isText(dataType) && !ColumnTypes.isBinary(dataType);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /** 完整列类型，如 varchar(255) */
+        public String getType() {
+            return type;
+        }
+
+        /** 基础数据类型，如 varchar */
+        public String getDataType() {
+            return dataType;
+        }
+
+        public String getNullable() {
+            return nullable;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public Object getDefaultValue() {
+            return defaultValue;
+        }
+
+        public String getExtra() {
+            return extra;
+        }
+
+        /** 是否为 JSON 列 */
+        public boolean isJson() {
+            return "json".equalsIgnoreCase(dataType);
+        }
+
+        /** 是否为定点数列（DECIMAL/NUMERIC） */
+        public boolean isDecimal() {
+            return ColumnTypes.isDecimal(dataType);
+        }
+
+        /** 是否为二进制列（BINARY/VARBINARY/BLOB），值以 Base64 文本表示 */
+        public boolean isBinary() {
+            return ColumnTypes.isBinary(dataType);
+        }
+
+        /** 是否为数值列 */
+        public boolean isNumeric() {
+            return ColumnTypes.isNumeric(dataType);
+        }
+
+        /**
+         * 把值转换为本列类型对应的 Java 类型后再绑定，如整数列的 "42" 转为 42L、字符列的 42 转为 "42"，
+         * 使数据库按列类型比较并能使用索引
+         *
+         * @throws IllegalArgumentException 值无法转换为本列类型
+         */
+        public Object convert(Object value) {
+            if (value == null) {
+                return null;
+            }
+            try {
+                return converter.apply(value);
+            } catch (IllegalArgumentException e) {
+                // 数字格式错误或二进制列的值不是有效的 Base64
+                throw new IllegalArgumentException("列 '" + name + "' 的值 '" + value + "' 与类型 " + type + " 不符");
+            }
+        }
+
+        /**
+         * 转换写入或导入的行中的值：数值、布尔、日期时间、JSON 等非字符列的空白字符串视为 NULL，
+         * 与建表推断列类型时忽略空白值一致（如 CSV 中的 ""），其余同 {@link #convert}
+         *
+         * @throws IllegalArgumentException 值无法转换为本列类型
+         */
+        public Object convertRowValue(Object value) {
+            if (blankAsNull && value instanceof String && ((String) value).isBlank()) {
+                return null;
+            }
+            return convert(value);
+        }
+    }
+}
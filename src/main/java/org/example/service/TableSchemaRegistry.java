@@ -0,0 +1,355 @@
+package org.example.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 表结构元数据注册表
+ * 启动时从 information_schema 一次性加载当前库的所有表结构并缓存在内存中，
+ * 之后按TTL在后台刷新；DDL 执行后由 {@link DynamicCrudService} 主动失效对应表。
+ * CRUD 热路径只读内存，不再产生元数据查询；不存在的表名在 dynamic.schema.negative-ttl-ms 内直接判定为不存在。
+ * 表名区分大小写的 MySQL（lower_case_table_names=0）按原样区分表名，其余情况不区分大小写。
+ * 非 MySQL/MariaDB 数据库（如基准测试使用的 H2）改用 JDBC DatabaseMetaData 加载。
+ */
+@Service
+public class TableSchemaRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TableSchemaRegistry.class);
+
+    private static final String COLUMNS_SQL =
+            "SELECT TABLE_NAME, COLUMN_NAME, COLUMN_TYPE, DATA_TYPE, IS_NULLABLE, COLUMN_KEY, COLUMN_DEFAULT, EXTRA " +
+            "FROM information_schema.COLUMNS WHERE TABLE_SCHEMA = DATABASE()";
+
+    private static final String ORDER_BY = " ORDER BY TABLE_NAME, ORDINAL_POSITION";
+
+    private static final Pattern DDL_TABLE_PATTERN = Pattern.compile(
+            "^\\s*(?:CREATE|ALTER|DROP|TRUNCATE|RENAME)\\s+(?:TEMPORARY\\s+)?TABLE\\s+(?:IF\\s+(?:NOT\\s+)?EXISTS\\s+)?`?(\\w+)`?",
+            Pattern.CASE_INSENSITIVE);
+
+    @Autowired
+    private SqlExecutionEngine engine;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    /**
+     * 是否可以使用 MySQL 风格的 information_schema，首次加载时检测
+     */
+    private volatile Boolean mysqlInformationSchema;
+
+    /**
+     * 表名是否区分大小写，首次使用时检测
+     */
+    private volatile Boolean caseSensitiveNames;
+
+    /**
+     * 最多记录的不存在表名数，超出时整体清空
+     */
+    private static final int MAX_MISSING_TABLES = 10000;
+
+    @Value("${dynamic.schema.negative-ttl-ms:5000}")
+    private long negativeTtlMs;
+
+    private final Map<String, TableSchema> tables = new ConcurrentHashMap<>();
+
+    /**
+     * 已确认不存在的表名到判定的过期时间
+     */
+    private final Map<String, Long> missingTables = new ConcurrentHashMap<>();
+
+    /**
+     * 每次失效都会递增，用于丢弃与失效并发进行的全量刷新结果
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * 应用启动完成后预热全部表结构
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            reloadAll();
+            log.info("表结构注册表已加载 {} 张表", tables.size());
+        } catch (Exception e) {
+            log.warn("表结构注册表预热失败，将在首次访问时按需加载: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 后台按TTL全量刷新
+     */
+    @Scheduled(initialDelayString = "${dynamic.schema.ttl-ms:300000}", fixedDelayString = "${dynamic.schema.ttl-ms:300000}")
+    public void scheduledRefresh() {
+        try {
+            reloadAll();
+        } catch (Exception e) {
+            log.warn("表结构注册表刷新失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 获取表结构，缓存未命中时从 information_schema 加载该表
+     *
+     * @param tableName 表名
+     * @return 表结构
+     * @throws RuntimeException 表不存在时抛出
+     */
+    public TableSchema getSchema(String tableName) {
+        String key = keyOf(tableName);
+        TableSchema schema = tables.get(key);
+        if (schema != null) {
+            return schema;
+        }
+        Long missingUntil = missingTables.get(key);
+        if (missingUntil != null) {
+            if (missingUntil > System.currentTimeMillis()) {
+                throw new RuntimeException("表 '" + tableName + "' 不存在");
+            }
+            missingTables.remove(key, missingUntil);
+        }
+
+        long startGeneration = generation.get();
+        Map<String, TableSchema> loaded;
+        try {
+            loaded = load(tableName);
+        } catch (Exception e) {
+            throw new RuntimeException("表 '" + tableName + "' 不存在或无法访问: " + e.getMessage());
+        }
+        schema = loaded.get(key);
+        if (schema == null) {
+            if (negativeTtlMs > 0 && generation.get() == startGeneration) {
+                if (missingTables.size() >= MAX_MISSING_TABLES) {
+                    missingTables.clear();
+                }
+                missingTables.put(key, System.currentTimeMillis() + negativeTtlMs);
+            }
+            throw new RuntimeException("表 '" + tableName + "' 不存在");
+        }
+        if (generation.get() == startGeneration) {
+            tables.put(key, schema);
+        }
+        return schema;
+    }
+
+    /**
+     * 表结构是否已在缓存中，不访问数据库；通过 {@link #getSchema} 校验过的表在失效之前都在缓存中
+     */
+    public boolean isCached(String tableName) {
+        return tableName != null && tables.containsKey(keyOf(tableName));
+    }
+
+    /**
+     * 判断表是否存在（只读缓存，未命中时加载一次）
+     */
+    public boolean exists(String tableName) {
+        try {
+            getSchema(tableName);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 失效单张表的缓存
+     */
+    public void invalidate(String tableName) {
+        generation.incrementAndGet();
+        String key = keyOf(tableName);
+        tables.remove(key);
+        missingTables.remove(key);
+    }
+
+    /**
+     * 失效全部缓存
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        tables.clear();
+        missingTables.clear();
+    }
+
+    /**
+     * 根据DDL语句失效相关表，无法识别表名时失效全部缓存
+     *
+     * @param ddlSql DDL语句
+     */
+    public void invalidateForDdl(String ddlSql) {
+        String tableName = tableOfDdl(ddlSql);
+        if (tableName != null) {
+            invalidate(tableName);
+        } else {
+            invalidateAll();
+        }
+    }
+    
+    /**
+     * 识别DDL语句所操作的表
+     *
+     * @param ddlSql DDL语句
+     * @return 表名，无法识别时返回 null
+     */
+    public static String tableOfDdl(String ddlSql) {
+        Matcher matcher = DDL_TABLE_PATTERN.matcher(ddlSql);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * 从 information_schema 全量重新加载
+     */
+    public void reloadAll() {
+        long startGeneration = generation.get();
+        Map<String, TableSchema> loaded = load(null);
+        if (generation.get() != startGeneration) {
+            // 刷新期间发生过DDL，本次结果可能已过期，交由下次刷新或按需加载处理
+            return;
+        }
+        tables.keySet().retainAll(loaded.keySet());
+        tables.putAll(loaded);
+        missingTables.keySet().removeAll(loaded.keySet());
+    }
+
+    /**
+     * 当前已缓存的表数量
+     */
+    public int size() {
+        return tables.size();
+    }
+
+    /**
+     * 当前数据库是否为 MySQL/MariaDB，首次调用时检测
+     */
+    public boolean isMySql() {
+        if (mysqlInformationSchema == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                    connection.getMetaData().getDatabaseProductName());
+            mysqlInformationSchema = product != null
+                    && (product.toLowerCase().contains("mysql") || product.toLowerCase().contains("mariadb"));
+        }
+        return mysqlInformationSchema;
+    }
+
+    /**
+     * 表名是否区分大小写：MySQL/MariaDB 按 lower_case_table_names 判断（0 为区分），其他数据库视为不区分
+     */
+    public boolean isCaseSensitive() {
+        if (caseSensitiveNames == null) {
+            boolean caseSensitive = false;
+            if (isMySql()) {
+                Integer mode = jdbcTemplate.queryForObject("SELECT @@lower_case_table_names", Integer.class);
+                caseSensitive = mode != null && mode == 0;
+            }
+            caseSensitiveNames = caseSensitive;
+        }
+        return caseSensitiveNames;
+    }
+
+    private Map<String, TableSchema> load(String tableName) {
+        return isMySql() ? loadFromInformationSchema(tableName) : loadFromJdbcMetadata(tableName);
+    }
+
+    private Map<String, TableSchema> loadFromInformationSchema(String tableName) {
+        List<Object[]> rows = tableName == null
+                ? engine.query(COLUMNS_SQL + ORDER_BY, List.of())
+                : engine.query(COLUMNS_SQL + " AND TABLE_NAME = ?" + ORDER_BY, List.of(tableName));
+
+        Map<String, List<TableSchema.Column>> columnsByTable = new LinkedHashMap<>();
+        Map<String, String> tableNames = new HashMap<>();
+        for (Object[] row : rows) {
+            String table = asString(row[0]);
+            String key = keyOf(table);
+            tableNames.putIfAbsent(key, table);
+            columnsByTable.computeIfAbsent(key, k -> new ArrayList<>()).add(new TableSchema.Column(
+                    asString(row[1]), asString(row[2]), asString(row[3]), asString(row[4]),
+                    asString(row[5]), row[6], asString(row[7])));
+        }
+
+        Map<String, TableSchema> result = new HashMap<>();
+        for (Map.Entry<String, List<TableSchema.Column>> entry : columnsByTable.entrySet()) {
+            result.put(entry.getKey(), new TableSchema(tableNames.get(entry.getKey()), entry.getValue()));
+        }
+        return result;
+    }
+
+    private Map<String, TableSchema> loadFromJdbcMetadata(String tableName) {
+        return jdbcTemplate.execute((ConnectionCallback<Map<String, TableSchema>>) connection -> {
+            DatabaseMetaData metaData = connection.getMetaData();
+            String catalog = connection.getCatalog();
+            String schema = connection.getSchema();
+
+            Map<String, String> tableNames = new LinkedHashMap<>();
+            try (ResultSet rs = metaData.getTables(catalog, schema, tableName == null ? "%" : tableName, new String[]{"TABLE"})) {
+                while (rs.next()) {
+                    String table = rs.getString("TABLE_NAME");
+                    // 表名模式中的 _ 是通配符，需要再精确比较一次
+                    if (tableName == null || table.equalsIgnoreCase(tableName)) {
+                        tableNames.putIfAbsent(keyOf(table), table);
+                    }
+                }
+            }
+
+            Map<String, TableSchema> result = new HashMap<>();
+            for (Map.Entry<String, String> entry : tableNames.entrySet()) {
+                String table = entry.getValue();
+                Set<String> primaryKeys = new HashSet<>();
+                try (ResultSet rs = metaData.getPrimaryKeys(catalog, schema, table)) {
+                    while (rs.next()) {
+                        primaryKeys.add(rs.getString("COLUMN_NAME"));
+                    }
+                }
+                List<TableSchema.Column> columns = new ArrayList<>();
+                try (ResultSet rs = metaData.getColumns(catalog, schema, table, "%")) {
+                    while (rs.next()) {
+                        if (!table.equals(rs.getString("TABLE_NAME"))) {
+                            continue;
+                        }
+                        String name = rs.getString("COLUMN_NAME");
+                        String dataType = rs.getString("TYPE_NAME").toLowerCase();
+                        String type = dataType.contains("char") ? dataType + "(" + rs.getInt("COLUMN_SIZE") + ")" : dataType;
+                        columns.add(new TableSchema.Column(name, type, dataType, rs.getString("IS_NULLABLE"),
+                                primaryKeys.contains(name) ? "PRI" : "", rs.getString("COLUMN_DEF"),
+                                "YES".equals(rs.getString("IS_AUTOINCREMENT")) ? "auto_increment" : ""));
+                    }
+                }
+                result.put(entry.getKey(), new TableSchema(table, columns));
+            }
+            return result;
+        });
+    }
+
+    private static String asString(Object value) {
+        return value == null ? null : value.toString();
+    }
+
+    /**
+     * 表名在缓存中的键：区分大小写时为原名，否则为小写
+     */
+    public String keyOf(String tableName) {
+        if (tableName == null) {
+            return "";
+        }
+        return isCaseSensitive() ? tableName : tableName.toLowerCase();
+    }
+}
@@ -0,0 +1,382 @@
+package org.example.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 异步写缓冲（write-behind）队列
+ * 插入的行先进入每张表独立的有界无锁队列并立即确认，后台刷写线程在积累到 batch-size 行或距上次刷写超过
+ * flush-interval-ms 时，通过 {@link DynamicCrudService#batchInsert} 以多行 INSERT 分块组提交，
+ * 以少量事务代替逐行事务。
+ * 刷写经过 {@link DbAdmissionLimiter}：被拒绝或遇到暂时性错误（{@link DynamicCrudService#isTransient}）的行
+ * 留在队列中，下次刷写时先于新行重试。行在写入完成后才释放队列容量，正在刷写和等待重试的行同样占用容量。
+ * 队列满时入队最多等待 offer-timeout-ms，仍无空间则抛出 {@link AdmissionRejectedException}。
+ * 应用关闭时停止接收新行并在 drain-timeout-ms 内刷写剩余的行。
+ * 已确认的行在遇到非暂时性错误（如值与列类型不符）、关闭超时或进程异常退出时会丢失，
+ * 只适用于可容忍少量丢失的表（如遥测数据）。
+ */
+@Component
+public class WriteBehindQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(WriteBehindQueue.class);
+
+    /**
+     * 单张表的队列及统计
+     * size 和 capacity 包含尚未写入完成的全部行：排队、正在刷写和等待重试的行。
+     */
+    private static class TableQueue {
+        final String tableName;
+        final Queue<Map<String, Object>> rows = new ConcurrentLinkedQueue<>();
+        final Semaphore capacity;
+        final AtomicInteger size = new AtomicInteger();
+        /** 上次刷写因暂时性错误未写入的行，由持有本对象锁的刷写线程访问 */
+        List<Map<String, Object>> retry;
+        final AtomicBoolean flushScheduled = new AtomicBoolean();
+        final AtomicLong enqueued = new AtomicLong();
+        final AtomicLong flushed = new AtomicLong();
+        final AtomicLong failed = new AtomicLong();
+        final AtomicLong rejected = new AtomicLong();
+        final AtomicLong flushes = new AtomicLong();
+        final AtomicLong retries = new AtomicLong();
+        volatile long lastFlushAt;
+        volatile String lastError;
+
+        TableQueue(String tableName, int capacity) {
+            this.tableName = tableName;
+            this.capacity = new Semaphore(capacity);
+        }
+    }
+
+    @Autowired
+    private DynamicCrudService crudService;
+
+    @Autowired
+    private TableSchemaRegistry schemaRegistry;
+
+    private final Map<String, TableQueue> queues = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService timer;
+    private final ExecutorService flushers;
+    private final int capacity;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long offerTimeoutMs;
+    private final long drainTimeoutMs;
+    /** 入队持读锁检查 closed 并放入行，关闭时持写锁设置 closed，之后 drain 不会漏掉仍在入队的行 */
+    private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+    private volatile boolean closed;
+
+    public WriteBehindQueue(MeterRegistry registry,
+                            @Value("${dynamic.write-behind.capacity:10000}") int capacity,
+                            @Value("${dynamic.write-behind.batch-size:1000}") int batchSize,
+                            @Value("${dynamic.write-behind.flush-interval-ms:200}") long flushIntervalMs,
+                            @Value("${dynamic.write-behind.offer-timeout-ms:1000}") long offerTimeoutMs,
+                            @Value("${dynamic.write-behind.drain-timeout-ms:30000}") long drainTimeoutMs,
+                            @Value("${dynamic.write-behind.flush-threads:2}") int flushThreads) {
+        this.capacity = capacity;
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.offerTimeoutMs = offerTimeoutMs;
+        this.drainTimeoutMs = drainTimeoutMs;
+        this.flushers = Executors.newFixedThreadPool(flushThreads, runnable -> {
+            Thread thread = new Thread(runnable, "write-behind-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "write-behind-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleWithFixedDelay(this::flushAllAsync, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        Gauge.builder("dynamic.write-behind.queued", queues,
+                        q -> q.values().stream().mapToInt(t -> t.size.get()).sum())
+                .description("写缓冲队列中等待刷写的行数")
+                .register(registry);
+    }
+
+    /**
+     * 将一行加入写缓冲队列
+     * 列在入队时按缓存的表结构校验，避免在后台刷写时才失败。
+     *
+     * @param tableName 表名
+     * @param row 行数据
+     * @throws AdmissionRejectedException 队列已满且等待超时，或正在关闭
+     */
+    public void enqueue(String tableName, Map<String, Object> row) {
+        if (closed) {
+            throw new AdmissionRejectedException("写缓冲队列正在关闭，请稍后重试");
+        }
+        if (row == null || row.isEmpty()) {
+            throw new IllegalArgumentException("数据不能为空");
+        }
+        TableSchema schema = schemaRegistry.getSchema(tableName);
+        for (String column : row.keySet()) {
+            if (!schema.hasColumn(column)) {
+                throw new IllegalArgumentException("列 '" + column + "' 在表 '" + schema.getTableName() + "' 中不存在");
+            }
+        }
+
+        TableQueue queue = queues.computeIfAbsent(schemaRegistry.keyOf(schema.getTableName()),
+                key -> new TableQueue(schema.getTableName(), capacity));
+        boolean acquired;
+        try {
+            acquired = queue.capacity.tryAcquire(offerTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            queue.rejected.incrementAndGet();
+            throw new AdmissionRejectedException("表 '" + schema.getTableName() + "' 的写缓冲队列已满（" + capacity + "），请稍后重试");
+        }
+
+        int queued;
+        closeLock.readLock().lock();
+        try {
+            if (closed) {
+                queue.capacity.release();
+                throw new AdmissionRejectedException("写缓冲队列正在关闭，请稍后重试");
+            }
+            queue.rows.add(row);
+            queued = queue.size.incrementAndGet();
+        } finally {
+            closeLock.readLock().unlock();
+        }
+        queue.enqueued.incrementAndGet();
+        if (queued >= batchSize) {
+            // 达到批量大小，立即触发刷写
+            scheduleFlush(queue);
+        }
+    }
+
+    /**
+     * 各表队列的状态
+     */
+    public Map<String, Object> status() {
+        Map<String, Object> tables = new LinkedHashMap<>();
+        for (TableQueue queue : queues.values()) {
+            Map<String, Object> table = new LinkedHashMap<>();
+            table.put("queued", queue.size.get());
+            table.put("enqueued", queue.enqueued.get());
+            table.put("flushed", queue.flushed.get());
+            table.put("failed", queue.failed.get());
+            table.put("rejected", queue.rejected.get());
+            table.put("flushes", queue.flushes.get());
+            table.put("retries", queue.retries.get());
+            table.put("lastFlushAt", queue.lastFlushAt);
+            table.put("lastError", queue.lastError);
+            tables.put(queue.tableName, table);
+        }
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("closed", closed);
+        status.put("capacity", capacity);
+        status.put("batchSize", batchSize);
+        status.put("tables", tables);
+        return status;
+    }
+
+    /**
+     * 关闭时停止接收新行，并在超时时间内刷写全部剩余的行
+     */
+    @PreDestroy
+    public void drain() {
+        // 两个阶段共用同一个截止时间，关闭总耗时不超过 drainTimeoutMs
+        long deadline = System.currentTimeMillis() + drainTimeoutMs;
+        closeLock.writeLock().lock();
+        try {
+            closed = true;
+        } finally {
+            closeLock.writeLock().unlock();
+        }
+        timer.shutdownNow();
+        flushers.shutdown();
+        try {
+            // 等待已提交的刷写任务结束，再由当前线程刷写剩余的行
+            flushers.awaitTermination(drainTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+
+        for (TableQueue queue : queues.values()) {
+            while (queue.size.get() > 0 && System.currentTimeMillis() < deadline
+                    && !Thread.currentThread().isInterrupted()) {
+                if (!flushBatch(queue)) {
+                    // 暂时性错误，稍后重试
+                    pause(Math.min(flushIntervalMs, deadline - System.currentTimeMillis()));
+                }
+            }
+            if (queue.size.get() > 0) {
+                log.warn("写缓冲队列关闭超时，表 {} 丢弃 {} 行", queue.tableName, queue.size.get());
+            }
+        }
+    }
+
+    private void flushAllAsync() {
+        for (TableQueue queue : queues.values()) {
+            if (queue.size.get() > 0) {
+                scheduleFlush(queue);
+            }
+        }
+    }
+
+    private void scheduleFlush(TableQueue queue) {
+        if (!queue.flushScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            flushers.execute(() -> flush(queue));
+        } catch (RuntimeException e) {
+            // 关闭后不再接受任务，剩余的行由 drain 刷写
+            queue.flushScheduled.set(false);
+        }
+    }
+
+    /**
+     * 刷写一张表：先刷写一批，队列中仍有足够的行时继续
+     */
+    private void flush(TableQueue queue) {
+        boolean progressed;
+        try {
+            do {
+                progressed = flushBatch(queue);
+            } while (progressed && queue.size.get() >= batchSize && !closed);
+        } finally {
+            queue.flushScheduled.set(false);
+        }
+        // 遇到暂时性错误时不立即重试，由定时刷写在下一个间隔重试
+        if (progressed && queue.size.get() >= batchSize && !closed) {
+            scheduleFlush(queue);
+        }
+    }
+
+    /**
+     * 刷写一批：先重试上次未写入的行，否则从队列中取至多 batch-size 行
+     * 因暂时性错误未写入的行（整次调用被拒绝，或块结果标记 retryable）留待下次重试，其余失败的行丢弃。
+     *
+     * @return 是否全部写入或丢弃；有行等待重试时返回 false
+     */
+    private boolean flushBatch(TableQueue queue) {
+        synchronized (queue) {
+            List<Map<String, Object>> batch = queue.retry;
+            queue.retry = null;
+            if (batch == null) {
+                batch = new ArrayList<>(Math.min(batchSize, Math.max(queue.size.get(), 1)));
+                Map<String, Object> row;
+                while (batch.size() < batchSize && (row = queue.rows.poll()) != null) {
+                    batch.add(row);
+                }
+            }
+            if (batch.isEmpty()) {
+                return true;
+            }
+
+            List<Map<String, Object>> retry = new ArrayList<>();
+            long failedRows = 0;
+            try {
+                failedRows = collectFailures(batch, crudService.batchInsert(queue.tableName, batch), retry, queue);
+            } catch (RuntimeException e) {
+                queue.lastError = e.getMessage();
+                if (DynamicCrudService.isTransient(e)) {
+                    retry = batch;
+                } else {
+                    failedRows = batch.size();
+                }
+            } finally {
+                queue.flushes.incrementAndGet();
+                queue.lastFlushAt = System.currentTimeMillis();
+            }
+
+            int done = batch.size() - retry.size();
+            queue.flushed.addAndGet(done - failedRows);
+            queue.failed.addAndGet(failedRows);
+            if (failedRows > 0) {
+                log.warn("写缓冲刷写表 {} 时丢弃 {} 行: {}", queue.tableName, failedRows, queue.lastError);
+            }
+            if (!retry.isEmpty()) {
+                queue.retry = retry;
+                queue.retries.incrementAndGet();
+                log.debug("写缓冲刷写表 {} 时 {} 行遇到暂时性错误，稍后重试: {}",
+                        queue.tableName, retry.size(), queue.lastError);
+            }
+            // 写入完成（或丢弃）后才释放容量
+            queue.size.addAndGet(-done);
+            queue.capacity.release(done);
+            return retry.isEmpty();
+        }
+    }
+
+    /**
+     * 按块结果找出失败的行：块按列集合分组、组内按原顺序切分（见 {@link DynamicCrudService#batchInsert}），
+     * 因此按块的列集合和行数依次对应到原来的行
+     *
+     * @param retry 接收标记 retryable 的块中的行
+     * @return 不可重试而丢弃的行数
+     */
+    private static long collectFailures(List<Map<String, Object>> batch, List<Map<String, Object>> chunks,
+                                        List<Map<String, Object>> retry, TableQueue queue) {
+        Map<List<String>, List<Map<String, Object>>> grouped = new LinkedHashMap<>();
+        for (Map<String, Object> row : batch) {
+            grouped.computeIfAbsent(new ArrayList<>(new TreeSet<>(row.keySet())), k -> new ArrayList<>()).add(row);
+        }
+        Map<List<String>, Iterator<Map<String, Object>>> groups = new LinkedHashMap<>();
+        grouped.forEach((columns, rows) -> groups.put(columns, rows.iterator()));
+
+        long failedRows = 0;
+        for (Map<String, Object> chunk : chunks) {
+            int rows = (Integer) chunk.get("rows");
+            Iterator<Map<String, Object>> group = groups.get(chunk.get("columns"));
+            boolean success = Boolean.TRUE.equals(chunk.get("success"));
+            boolean retryable = Boolean.TRUE.equals(chunk.get("retryable"));
+            if (!success) {
+                queue.lastError = String.valueOf(chunk.get("message"));
+            }
+            for (int i = 0; i < rows; i++) {
+                Map<String, Object> row = group.next();
+                if (retryable) {
+                    retry.add(row);
+                }
+            }
+            if (!success && !retryable) {
+                failedRows += rows;
+            }
+        }
+        return failedRows;
+    }
+
+    private static void pause(long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
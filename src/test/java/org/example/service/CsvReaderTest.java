@@ -0,0 +1,78 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CsvReaderTest {
+
+    private static List<List<String>> readAll(String text) throws IOException {
+        CsvReader csv = new CsvReader(new StringReader(text), ',');
+        List<List<String>> records = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        while (csv.next(fields)) {
+            records.add(new ArrayList<>(fields));
+        }
+        return records;
+    }
+
+    @Test
+    void readsQuotedFieldsWithDelimiterNewlineAndEscapedQuote() throws IOException {
+        List<List<String>> records = readAll("name,note\n\"Smith, J\",\"say \"\"hi\"\"\nbye\"\n");
+
+        assertThat(records).containsExactly(
+                List.of("name", "note"),
+                List.of("Smith, J", "say \"hi\"\nbye"));
+    }
+
+    @Test
+    void treatsCrLfAndLfAlikeAndSkipsBlankLines() throws IOException {
+        List<List<String>> records = readAll("a,b\r\n1,2\r\n\r\n3,4\n\n5,6");
+
+        assertThat(records).containsExactly(List.of("a", "b"), List.of("1", "2"), List.of("3", "4"), List.of("5", "6"));
+    }
+
+    @Test
+    void unquotedEmptyFieldIsNullAndQuotedEmptyFieldIsEmptyString() throws IOException {
+        List<List<String>> records = readAll("a,b,c\n,\"\",x\n");
+
+        assertThat(records.get(1)).isEqualTo(Arrays.asList(null, "", "x"));
+    }
+
+    @Test
+    void reportsRecordLineAcrossMultilineFields() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a\n\"1\n2\"\n3\n"), ',');
+        List<String> fields = new ArrayList<>();
+
+        csv.next(fields);
+        csv.next(fields);
+        assertThat(csv.recordLine()).isEqualTo(2);
+        csv.next(fields);
+        assertThat(csv.recordLine()).isEqualTo(4);
+    }
+
+    @Test
+    void rejectsUnclosedQuote() throws IOException {
+        CsvReader csv = new CsvReader(new StringReader("a,b\n1,\"open\n"), ',');
+        List<String> fields = new ArrayList<>();
+        csv.next(fields);
+
+        assertThatThrownBy(() -> csv.next(fields))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("引号未闭合");
+    }
+
+    @Test
+    void rejectsCharactersAfterClosingQuote() {
+        assertThatThrownBy(() -> readAll("\"a\"b,c\n"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("闭合引号后有多余字符");
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RowBatchTest {
+
+    private static final TableSchema SCHEMA = new TableSchema("t", List.of(
+            new TableSchema.Column("id", "bigint", "bigint", "NO", "PRI", null, "auto_increment"),
+            new TableSchema.Column("note", "varchar(50)", "varchar", "YES", "", null, ""),
+            new TableSchema.Column("amount", "decimal(30,2)", "decimal", "YES", "", null, ""),
+            new TableSchema.Column("flag", "boolean", "boolean", "YES", "", null, "")));
+
+    /**
+     * 每行依次给出 note、amount、flag 的值，不提供 id
+     */
+    private static String tabSeparated(Object[]... rows) {
+        RowBatch batch = new RowBatch();
+        batch.reset(SCHEMA, 10, Integer.MAX_VALUE);
+        RowBuffer row = new RowBuffer();
+        for (Object[] values : rows) {
+            row.reset(SCHEMA);
+            for (int i = 0; i < values.length; i++) {
+                row.set(i + 1, values[i]);
+            }
+            batch.add(row);
+        }
+        return new String(batch.toTabSeparated(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void writesColumnsInNameOrderAndEndsEachRowWithNewline() {
+        assertThat(tabSeparated(new Object[] {"a", new BigDecimal("1.50"), true}, new Object[] {"b", null, false}))
+                .isEqualTo("1.50\t1\ta\n\\N\t0\tb\n");
+    }
+
+    @Test
+    void escapesBackslashTabNewlineAndCarriageReturn() {
+        assertThat(tabSeparated(new Object[] {"a\\b\tc\nd\re", null, null}))
+                .isEqualTo("\\N\t\\N\ta\\\\b\\tc\\nd\\re\n");
+    }
+
+    @Test
+    void escapesNulCharacter() {
+        assertThat(tabSeparated(new Object[] {"a\0b", null, null}))
+                .isEqualTo("\\N\t\\N\ta\\0b\n");
+    }
+
+    @Test
+    void keepsLiteralBackslashNDistinctFromNull() {
+        assertThat(tabSeparated(new Object[] {"\\N", null, null}))
+                .isEqualTo("\\N\t\\N\t\\\\N\n");
+    }
+
+    @Test
+    void writesBinaryValuesAsBase64() {
+        assertThat(tabSeparated(new Object[] {new byte[] {0, '\t', (byte) 0xff}, null, null}))
+                .isEqualTo("\\N\t\\N\tAAn/\n");
+    }
+
+    @Test
+    void writesDecimalsWithoutExponent() {
+        assertThat(tabSeparated(new Object[] {"", new BigDecimal("1E+20"), null}))
+                .isEqualTo("100000000000000000000\t\\N\t\n");
+    }
+}
@@ -0,0 +1,135 @@
+package org.example.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchemaInferencerTest {
+
+    private SchemaInferencer inferencer;
+
+    @BeforeEach
+    void setUp() {
+        inferencer = newInferencer(Integer.MAX_VALUE);
+    }
+
+    private static SchemaInferencer newInferencer(int parallelThreshold) {
+        SchemaInferencer inferencer = new SchemaInferencer();
+        ReflectionTestUtils.setField(inferencer, "objectMapper", new ObjectMapper());
+        ReflectionTestUtils.setField(inferencer, "parallelThreshold", parallelThreshold);
+        ReflectionTestUtils.setField(inferencer, "maxSampleRows", 100000);
+        return inferencer;
+    }
+
+    /**
+     * 单列 v 依次取给定值时推断出的类型
+     */
+    private String typeOf(Object... values) {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Object value : values) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("v", value);
+            rows.add(row);
+        }
+        return inferencer.infer(rows).columnTypes().get("v");
+    }
+
+    @Test
+    void picksSmallestIntegerTypeAtEachBoundary() {
+        assertThat(typeOf("-128", "127")).isEqualTo("TINYINT");
+        assertThat(typeOf("-129")).isEqualTo("SMALLINT");
+        assertThat(typeOf("128")).isEqualTo("SMALLINT");
+        assertThat(typeOf("-32768", "32767")).isEqualTo("SMALLINT");
+        assertThat(typeOf("32768")).isEqualTo("MEDIUMINT");
+        assertThat(typeOf("-8388608", "8388607")).isEqualTo("MEDIUMINT");
+        assertThat(typeOf("8388608")).isEqualTo("INT");
+        assertThat(typeOf(Integer.MIN_VALUE, Integer.MAX_VALUE)).isEqualTo("INT");
+        assertThat(typeOf(2147483648L)).isEqualTo("BIGINT");
+        assertThat(typeOf(String.valueOf(Long.MIN_VALUE), String.valueOf(Long.MAX_VALUE))).isEqualTo("BIGINT");
+        assertThat(typeOf("9223372036854775808")).isEqualTo("DECIMAL(19, 0)");
+    }
+
+    @Test
+    void decimalPrecisionCoversIntegerDigitsAndScaleOfAllValues() {
+        assertThat(typeOf("1.5", "123.25")).isEqualTo("DECIMAL(5, 2)");
+        assertThat(typeOf("12345", "1.5")).isEqualTo("DECIMAL(6, 1)");
+        assertThat(typeOf("-0.125")).isEqualTo("DECIMAL(4, 3)");
+        assertThat(typeOf("2.50")).isEqualTo("DECIMAL(2, 1)");
+        assertThat(typeOf(2.75)).isEqualTo("DECIMAL(3, 2)");
+    }
+
+    @Test
+    void fallsBackToDoubleForLargeScaleOrExponent() {
+        assertThat(typeOf("0.12345678901")).isEqualTo("DOUBLE");
+        assertThat(typeOf("1.5e10", "3")).isEqualTo("DOUBLE");
+        assertThat(typeOf(Double.NaN)).isEqualTo("DOUBLE");
+    }
+
+    @Test
+    void keepsLeadingZeroNumbersAsText() {
+        assertThat(typeOf("01234", "98765")).isEqualTo("VARCHAR(16)");
+        assertThat(typeOf("0", "-0")).isEqualTo("TINYINT");
+        assertThat(typeOf("0.5")).isEqualTo("DECIMAL(2, 1)");
+    }
+
+    @Test
+    void treatsBooleansMixedWithZeroAndOneAsBoolean() {
+        assertThat(typeOf("true", "FALSE")).isEqualTo("BOOLEAN");
+        assertThat(typeOf(true, "0", 1)).isEqualTo("BOOLEAN");
+        assertThat(typeOf("0", "1")).isEqualTo("TINYINT");
+        assertThat(typeOf("true", "2")).isEqualTo("VARCHAR(16)");
+    }
+
+    @Test
+    void ignoresNullAndBlankValues() {
+        assertThat(typeOf("42", "", "  ", null)).isEqualTo("TINYINT");
+        assertThat(typeOf("2024-01-31", "")).isEqualTo("DATE");
+        assertThat(typeOf("", null)).isEqualTo("VARCHAR(255)");
+    }
+
+    @Test
+    void blankValuesAreWrittenAsNullForNonTextColumns() {
+        TableSchema.Column integer = new TableSchema.Column("v", "tinyint", "tinyint", "YES", "", null, "");
+        TableSchema.Column date = new TableSchema.Column("v", "date", "date", "YES", "", null, "");
+        TableSchema.Column text = new TableSchema.Column("v", "varchar(16)", "varchar", "YES", "", null, "");
+
+        assertThat(integer.convertRowValue("")).isNull();
+        assertThat(integer.convertRowValue(" 7 ")).isEqualTo(7L);
+        assertThat(date.convertRowValue("")).isNull();
+        assertThat(text.convertRowValue("")).isEqualTo("");
+    }
+
+    @Test
+    void parallelMergeMatchesSequentialInference() {
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (int i = 0; i < 20000; i++) {
+            Map<String, Object> row = new HashMap<>();
+            row.put("id", i);
+            row.put(i % 2 == 0 ? "amount" : "AMOUNT", i == 12345 ? "99999.125" : String.valueOf(i % 100));
+            row.put("flag", i % 3 == 0 ? "true" : String.valueOf(i % 2));
+            if (i == 19999) {
+                row.put("late", "2024-02-29 10:00:00.5");
+            }
+            rows.add(row);
+        }
+
+        SchemaInferencer.Result sequential = inferencer.infer(rows);
+        SchemaInferencer.Result parallel = newInferencer(1).infer(rows);
+
+        assertThat(parallel.columnTypes()).isEqualTo(sequential.columnTypes());
+        assertThat(parallel.columnStatistics()).isEqualTo(sequential.columnStatistics());
+        // 列名不区分大小写合并，使用首次出现的写法
+        assertThat(sequential.columnTypes()).containsEntry("id", "SMALLINT")
+                .containsEntry("amount", "DECIMAL(8, 3)")
+                .containsEntry("flag", "BOOLEAN")
+                .containsEntry("late", "DATETIME(1)");
+    }
+}